@@ -0,0 +1,37 @@
+package com.prospect.crm.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "api-logging")
+public class ApiLoggingConfig {
+    
+    // false ise ApiLoggingFilter yalnızca request id atar, API logu yazmaz
+    private boolean enabled = true;
+    
+    // İstek ve yanıt gövdesinden saklanacak en fazla bayt; 0 ise gövde yakalanmaz
+    private int maxBodyBytes = 2048;
+    
+    // Hiç loglanmayan yollar (Ant pattern)
+    private List<String> excludePaths = new ArrayList<>(List.of(
+            "/v1/health/**", "/actuator/**", "/swagger-ui/**", "/v3/api-docs/**", "/favicon.ico"));
+    
+    // Loglanan ama gövdesi yakalanmayan yollar (şifre, token, ödeme verisi)
+    private List<String> bodyExcludePaths = new ArrayList<>(List.of(
+            "/v1/auth/**", "/v1/users/register", "/v1/oauth/**", "/v1/payments/webhook", "/v1/jwt/**"));
+    
+    // Yakalanan JSON ve form (key=value) gövdelerinde değeri maskelenen alanlar
+    private List<String> maskedFields = new ArrayList<>(List.of(
+            "password", "newPassword", "oldPassword", "token", "accessToken", "refreshToken",
+            "clientSecret", "secret", "code"));
+}
@@ -0,0 +1,55 @@
+package com.prospect.crm.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "email-outbox")
+public class EmailOutboxConfig {
+    
+    // false ise bu node kuyruktan mail göndermez (kuyruğa ekleme devam eder)
+    private boolean workerEnabled = true;
+    
+    // Node başına gönderim thread sayısı
+    private int workerThreads = 4;
+    
+    // Bir worker'ın tek seferde sahiplendiği en fazla mesaj
+    private int claimBatchSize = 10;
+    
+    // Kuyruk boşken yeni mesaj için bekleme süresi (ms); diğer node'lardan eklenenler bu aralıkla görülür
+    private long pollInterval = 1000;
+    
+    // Sahiplenilen mesajın kilit süresi (ms); node çökerse mesaj bu süre sonunda başka worker'a geçer.
+    // claimBatchSize x (provider-http zaman aşımları + throttle aralığı) değerinden kısaysa o değer kullanılır
+    private long leaseTimeout = 420000;
+    
+    // Toplam gönderim denemesi sınırı
+    private int maxAttempts = 5;
+    
+    // İlk yeniden deneme gecikmesi (ms), her denemede ikiye katlanır
+    private long retryBackoff = 30000;
+    
+    // Yeniden deneme gecikmesi üst sınırı (ms)
+    private long maxRetryBackoff = 3600000;
+    
+    // SENT/FAILED kayıtların tutulacağı gün sayısı
+    private int retentionDays = 14;
+    
+    // Bu node'un sağlayıcı başına saniyede gönderebileceği en fazla mail (anahtar: google, microsoft; 0: sınırsız)
+    private Map<String, Double> providerRatePerSecond = new LinkedHashMap<>(Map.of("google", 10.0, "microsoft", 4.0));
+    
+    // Kampanyaların gönderen hesap başına varsayılan ve en yüksek hızı (mesaj/sn); istekte daha düşük değer verilebilir
+    private Map<String, Double> campaignRatePerSecond = new LinkedHashMap<>(Map.of("google", 1.0, "microsoft", 0.5));
+    
+    // Tek kampanyada en fazla alıcı
+    private int campaignMaxRecipients = 10000;
+}
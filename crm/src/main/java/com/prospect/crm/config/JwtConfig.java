@@ -1,11 +1,15 @@
 package com.prospect.crm.config;
 
+import com.prospect.crm.constant.JwtSigningAlgorithm;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Data
 @Component
 @AllArgsConstructor
@@ -14,6 +18,24 @@ import org.springframework.stereotype.Component;
 public class JwtConfig {
     
     private String secret;
+    
+    // jwt.secret'ın imza anahtarı kimliği (kid)
+    private String keyId = "primary";
+    
+    // Rotasyon: ek anahtarlar (kid -> secret). Yeni token'lar activeKeyId ile imzalanır,
+    // diğer anahtarlar yalnızca doğrulama için tutulur
+    private Map<String, String> keys = new LinkedHashMap<>();
+    private String activeKeyId;
+    
+    // İmza algoritması; ES256 / EdDSA seçildiğinde activeKeyId bir keyPairs kaydını göstermelidir
+    private JwtSigningAlgorithm signingAlgorithm = JwtSigningAlgorithm.HS256;
+    
+    // Asimetrik anahtar çiftleri (kid -> PKCS#8 private / X.509 public, Base64 veya PEM).
+    // Private key'i olmayan kayıtlar yalnızca doğrulama ve JWKS için tutulur
+    private Map<String, KeyPairProperties> keyPairs = new LinkedHashMap<>();
+    
+    // /.well-known/jwks.json Cache-Control max-age (saniye)
+    private long jwksMaxAge = 300;
     private String issuer;
     private String audience;
     
@@ -23,6 +45,12 @@ public class JwtConfig {
     // Refresh token ayarları
     private long refreshTokenExpiration;
     
+    // Diğer node'lardaki token iptallerinin çekilme aralığı (ms)
+    private long revocationSyncInterval = 30000;
+    
+    // Aynı refresh token ile eşzamanlı yenilemelerin tek access token'ı paylaştığı pencere (ms)
+    private long refreshCoalesceWindow = 10000;
+    
     // Cookie ayarları
     private String accessTokenCookieName;
     private String refreshTokenCookieName;
@@ -31,4 +59,13 @@ public class JwtConfig {
     private boolean cookieSecure;
     private boolean cookieHttpOnly;
     private int cookieMaxAge;
-} 
\ No newline at end of file
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeyPairProperties {
+        private JwtSigningAlgorithm algorithm;
+        private String privateKey;
+        private String publicKey;
+    }
+}
@@ -0,0 +1,330 @@
+package com.prospect.crm.config;
+
+import com.prospect.crm.constant.JwtSigningAlgorithm;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Keys;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * JWT imza anahtarlarının kid ile indekslenmiş halkası.
+ * Anahtarlar açılışta bir kez oluşturulur, JwtParser tek seferlik kurulur ve anahtarı
+ * token header'ındaki kid ile seçer. Yeni anahtar eklenip aktif yapıldığında eski anahtarlar
+ * doğrulama için geçerli kalır; böylece anahtar rotasyonu toplu çıkışa neden olmaz.
+ * kid taşımayan (rotasyon öncesi) token'lar jwt.secret anahtarıyla doğrulanır.
+ * Asimetrik (ES256 / EdDSA) anahtarların public kısmı JWKS olarak yayınlanır.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    private static final int ES256_COORDINATE_LENGTH = 32;
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private final String defaultKeyId;
+    private final JwtParser parser;
+
+    private volatile KeySnapshot snapshot;
+
+    public JwtKeyRing(JwtConfig jwtConfig) {
+        this.defaultKeyId = jwtConfig.getKeyId();
+
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        Map<String, PrivateKey> privateKeys = new LinkedHashMap<>();
+
+        keys.put(defaultKeyId, VerificationKey.hmac(hmacKey(jwtConfig.getSecret())));
+        jwtConfig.getKeys().forEach((kid, secret) -> keys.put(kid, VerificationKey.hmac(hmacKey(secret))));
+
+        jwtConfig.getKeyPairs().forEach((kid, properties) -> {
+            JwtSigningAlgorithm algorithm = properties.getAlgorithm() != null
+                    ? properties.getAlgorithm() : jwtConfig.getSigningAlgorithm();
+            keys.put(kid, VerificationKey.asymmetric(algorithm, decodePublicKey(algorithm, properties.getPublicKey())));
+            if (properties.getPrivateKey() != null && !properties.getPrivateKey().isBlank()) {
+                privateKeys.put(kid, decodePrivateKey(algorithm, properties.getPrivateKey()));
+            }
+        });
+
+        JwtSigningAlgorithm signingAlgorithm = jwtConfig.getSigningAlgorithm();
+        String activeKeyId = jwtConfig.getActiveKeyId() != null ? jwtConfig.getActiveKeyId() : defaultKeyId;
+
+        if (signingAlgorithm.isAsymmetric() && jwtConfig.getKeyPairs().isEmpty()) {
+            // Geliştirme ortamı için geçici anahtar; yeniden başlatmada ve node'lar arasında paylaşılmaz
+            activeKeyId = "ephemeral-" + System.currentTimeMillis();
+            KeyPair keyPair = generateKeyPair(signingAlgorithm);
+            keys.put(activeKeyId, VerificationKey.asymmetric(signingAlgorithm, keyPair.getPublic()));
+            privateKeys.put(activeKeyId, keyPair.getPrivate());
+            log.warn("No JWT key pairs configured for {}, generated ephemeral key {}", signingAlgorithm, activeKeyId);
+        }
+
+        SigningKey signingKey = signingKey(activeKeyId, keys, privateKeys);
+        if (signingKey.algorithm.isAsymmetric() != signingAlgorithm.isAsymmetric()) {
+            throw new IllegalStateException("Active JWT key " + activeKeyId + " does not match signing algorithm " + signingAlgorithm);
+        }
+        this.snapshot = new KeySnapshot(Map.copyOf(keys), signingKey);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(ProtectedHeader header) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+
+        log.info("JWT key ring loaded with {} keys, active key id: {} ({})",
+                keys.size(), activeKeyId, signingAlgorithm);
+    }
+
+    /**
+     * Paylaşılan, thread-safe parser; anahtarı her token için kid ile seçer
+     */
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Aktif imza anahtarı; kid ve anahtar rotasyon sırasında tutarlı okunur
+     */
+    public SigningKey getSigningKey() {
+        return snapshot.signingKey;
+    }
+
+    public Set<String> getKeyIds() {
+        return snapshot.keys.keySet();
+    }
+
+    /**
+     * Asimetrik doğrulama anahtarlarının JWK listesi (RFC 7517); HMAC anahtarları yayınlanmaz
+     */
+    public List<Map<String, Object>> getPublicJwks() {
+        return snapshot.publicJwks;
+    }
+
+    /**
+     * Çalışma anında HMAC anahtarı ekler; activate true ise yeni token'lar bu anahtarla imzalanır
+     */
+    public synchronized void addKey(String kid, String secret, boolean activate) {
+        SecretKey key = hmacKey(secret);
+        replaceKey(kid, VerificationKey.hmac(key), activate ? new SigningKey(kid, JwtSigningAlgorithm.HS256, key) : null);
+    }
+
+    /**
+     * Çalışma anında asimetrik anahtar çifti ekler; public key JWKS'te hemen yayınlanır
+     */
+    public synchronized void addKeyPair(String kid, JwtSigningAlgorithm algorithm, KeyPair keyPair, boolean activate) {
+        replaceKey(kid, VerificationKey.asymmetric(algorithm, keyPair.getPublic()),
+                activate ? new SigningKey(kid, algorithm, keyPair.getPrivate()) : null);
+    }
+
+    /**
+     * Anahtarı doğrulamadan kaldırır; bu anahtarla imzalanmış token'lar geçersiz olur
+     */
+    public synchronized void removeKey(String kid) {
+        KeySnapshot current = snapshot;
+        if (kid.equals(current.signingKey.keyId)) {
+            throw new IllegalStateException("Active JWT key cannot be removed: " + kid);
+        }
+        Map<String, VerificationKey> keys = new LinkedHashMap<>(current.keys);
+        keys.remove(kid);
+        snapshot = new KeySnapshot(Map.copyOf(keys), current.signingKey);
+        log.info("JWT key {} removed", kid);
+    }
+
+    private void replaceKey(String kid, VerificationKey verificationKey, SigningKey newSigningKey) {
+        KeySnapshot current = snapshot;
+        Map<String, VerificationKey> keys = new LinkedHashMap<>(current.keys);
+        keys.put(kid, verificationKey);
+        snapshot = new KeySnapshot(Map.copyOf(keys), newSigningKey != null ? newSigningKey : current.signingKey);
+        log.info("JWT key {} added{}", kid, newSigningKey != null ? " and activated" : "");
+    }
+
+    private Key verificationKey(String kid) {
+        VerificationKey key = snapshot.keys.get(kid != null ? kid : defaultKeyId);
+        if (key == null) {
+            throw new JwtException("Unknown JWT key id: " + kid);
+        }
+        return key.key;
+    }
+
+    private static SigningKey signingKey(String activeKeyId, Map<String, VerificationKey> keys,
+                                         Map<String, PrivateKey> privateKeys) {
+        VerificationKey verificationKey = keys.get(activeKeyId);
+        if (verificationKey == null) {
+            throw new IllegalStateException("Active JWT key id not configured: " + activeKeyId);
+        }
+        if (!verificationKey.algorithm.isAsymmetric()) {
+            return new SigningKey(activeKeyId, JwtSigningAlgorithm.HS256, verificationKey.key);
+        }
+        PrivateKey privateKey = privateKeys.get(activeKeyId);
+        if (privateKey == null) {
+            throw new IllegalStateException("Active JWT key has no private key: " + activeKeyId);
+        }
+        return new SigningKey(activeKeyId, verificationKey.algorithm, privateKey);
+    }
+
+    private static SecretKey hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PublicKey decodePublicKey(JwtSigningAlgorithm algorithm, String encoded) {
+        try {
+            return KeyFactory.getInstance(algorithm.getKeyFactoryAlgorithm())
+                    .generatePublic(new X509EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException("Invalid " + algorithm + " public key", e);
+        }
+    }
+
+    private static PrivateKey decodePrivateKey(JwtSigningAlgorithm algorithm, String encoded) {
+        try {
+            return KeyFactory.getInstance(algorithm.getKeyFactoryAlgorithm())
+                    .generatePrivate(new PKCS8EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            throw new IllegalStateException("Invalid " + algorithm + " private key", e);
+        }
+    }
+
+    /**
+     * PEM başlıklarını ve boşlukları atıp Base64 DER içeriğini çözer
+     */
+    private static byte[] decodePem(String encoded) {
+        String base64 = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    private static KeyPair generateKeyPair(JwtSigningAlgorithm algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.getKeyFactoryAlgorithm());
+            if (algorithm == JwtSigningAlgorithm.ES256) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate " + algorithm + " key pair", e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String kid, VerificationKey verificationKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+
+        if (verificationKey.algorithm == JwtSigningAlgorithm.ES256) {
+            ECPublicKey publicKey = (ECPublicKey) verificationKey.key;
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", encoder.encodeToString(unsignedBytes(publicKey.getW().getAffineX())));
+            jwk.put("y", encoder.encodeToString(unsignedBytes(publicKey.getW().getAffineY())));
+        } else {
+            // X.509 SubjectPublicKeyInfo'nun son 32 byte'ı ham Ed25519 public key'idir
+            byte[] encoded = verificationKey.key.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", encoder.encodeToString(
+                    Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length)));
+        }
+
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", verificationKey.algorithm.getJwaName());
+        return Map.copyOf(jwk);
+    }
+
+    private static byte[] unsignedBytes(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[ES256_COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, ES256_COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, fixed, ES256_COORDINATE_LENGTH - length, length);
+        return fixed;
+    }
+
+    @Getter
+    public static final class SigningKey {
+        private final String keyId;
+        private final JwtSigningAlgorithm algorithm;
+        private final Key key;
+
+        private SigningKey(String keyId, JwtSigningAlgorithm algorithm, Key key) {
+            this.keyId = keyId;
+            this.algorithm = algorithm;
+            this.key = key;
+        }
+
+        /**
+         * Builder'a kid header'ını ekleyip algoritmaya uygun anahtarla imzalar
+         */
+        public JwtBuilder sign(JwtBuilder builder) {
+            builder.header().keyId(keyId).and();
+            return switch (algorithm) {
+                case HS256 -> builder.signWith((SecretKey) key, Jwts.SIG.HS256);
+                case ES256 -> builder.signWith((PrivateKey) key, Jwts.SIG.ES256);
+                case EdDSA -> builder.signWith((PrivateKey) key, Jwts.SIG.EdDSA);
+            };
+        }
+    }
+
+    private static final class VerificationKey {
+        private final JwtSigningAlgorithm algorithm;
+        private final Key key;
+
+        private VerificationKey(JwtSigningAlgorithm algorithm, Key key) {
+            this.algorithm = algorithm;
+            this.key = key;
+        }
+
+        static VerificationKey hmac(SecretKey key) {
+            return new VerificationKey(JwtSigningAlgorithm.HS256, key);
+        }
+
+        static VerificationKey asymmetric(JwtSigningAlgorithm algorithm, PublicKey key) {
+            return new VerificationKey(algorithm, key);
+        }
+    }
+
+    private static final class KeySnapshot {
+        private final Map<String, VerificationKey> keys;
+        private final SigningKey signingKey;
+        private final List<Map<String, Object>> publicJwks;
+
+        private KeySnapshot(Map<String, VerificationKey> keys, SigningKey signingKey) {
+            this.keys = keys;
+            this.signingKey = signingKey;
+
+            List<Map<String, Object>> jwks = new ArrayList<>();
+            new TreeMap<>(keys).forEach((kid, key) -> {
+                if (key.algorithm.isAsymmetric()) {
+                    jwks.add(toJwk(kid, key));
+                }
+            });
+            this.publicJwks = List.copyOf(jwks);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.prospect.crm.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Gmail, Microsoft Graph ve OAuth token endpoint'leri için ortak HTTP istemcisi.
+ * Bağlantılar host başına havuzlanır ve keep-alive ile yeniden kullanılır; her çağrıda
+ * yeni TCP/TLS el sıkışması yapılmaz. Yanıtlar gzip ile istenir ve istemci tarafından açılır.
+ */
+@Slf4j
+@Configuration
+public class ProviderHttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager providerConnectionManager(ProviderHttpConfig providerHttpConfig) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(providerHttpConfig.getConnectTimeout()))
+                .setSocketTimeout(Timeout.ofMilliseconds(providerHttpConfig.getReadTimeout()))
+                .setTimeToLive(TimeValue.ofMilliseconds(providerHttpConfig.getConnectionTimeToLive()))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(providerHttpConfig.getValidateAfterInactivity()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(providerHttpConfig.getMaxConnections())
+                .setMaxConnPerRoute(providerHttpConfig.getMaxConnectionsPerHost())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    @Bean
+    public CloseableHttpClient providerHttpClient(PoolingHttpClientConnectionManager providerConnectionManager,
+                                                  ProviderHttpConfig providerHttpConfig) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(providerHttpConfig.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.ofMilliseconds(providerHttpConfig.getReadTimeout()))
+                .build();
+
+        log.info("Provider HTTP client pool - max: {}, per host: {}, connect timeout: {} ms, read timeout: {} ms",
+                providerHttpConfig.getMaxConnections(), providerHttpConfig.getMaxConnectionsPerHost(),
+                providerHttpConfig.getConnectTimeout(), providerHttpConfig.getReadTimeout());
+
+        // Content compression varsayılan olarak açıktır: Accept-Encoding: gzip, deflate gönderilir
+        return HttpClients.custom()
+                .setConnectionManager(providerConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(providerHttpConfig.getIdleTimeout()))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate providerRestTemplate(CloseableHttpClient providerHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(providerHttpClient));
+    }
+}
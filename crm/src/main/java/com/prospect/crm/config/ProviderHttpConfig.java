@@ -0,0 +1,52 @@
+package com.prospect.crm.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "provider-http")
+public class ProviderHttpConfig {
+    
+    // Havuzdaki toplam bağlantı sınırı
+    private int maxConnections = 200;
+    
+    // Host başına bağlantı sınırı (gmail.googleapis.com, graph.microsoft.com, oauth2.googleapis.com...)
+    private int maxConnectionsPerHost = 50;
+    
+    // TCP + TLS bağlantı kurma zaman aşımı (ms)
+    private long connectTimeout = 5000;
+    
+    // Yanıt bekleme / okuma zaman aşımı (ms)
+    private long readTimeout = 30000;
+    
+    // Havuzdan boş bağlantı bekleme süresi (ms); havuz doluysa istek bu süreden sonra hata verir
+    private long connectionRequestTimeout = 5000;
+    
+    // Bu süreden uzun boşta kalan bağlantılar kapatılır (ms); sağlayıcıların keep-alive süresinin altında tutulmalıdır
+    private long idleTimeout = 50000;
+    
+    // Bağlantının en uzun ömrü (ms); DNS değişikliklerinin zamanla yansıması için
+    private long connectionTimeToLive = 600000;
+    
+    // Bu süre boşta kalan bağlantı yeniden kullanılmadan önce doğrulanır (ms)
+    private long validateAfterInactivity = 2000;
+    
+    // Aynı posta kutusu için aynı anda işlenen en fazla Graph alt isteği (Outlook sınırı 4);
+    // $batch boyutu da bu değerle sınırlanır, çünkü Graph her alt isteği ayrı kısıtlar
+    private int graphMailboxConcurrency = 4;
+    
+    // Tüm kullanıcılar için paylaşılan Graph $batch thread sayısı
+    private int graphBatchThreads = 16;
+    
+    // 429/503/504 dönen alt isteklerin en fazla yeniden deneme sayısı
+    private int graphBatchMaxRetries = 3;
+    
+    // Retry-After ile beklenecek en uzun süre (ms)
+    private long graphBatchMaxRetryAfter = 30000;
+}
@@ -0,0 +1,45 @@
+package com.prospect.crm.config;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sağlayıcı HTTP bağlantı havuzunun toplam ve host bazında durumu.
+ * leased: kullanımda, available: boşta bekleyen (yeniden kullanılacak), pending: havuzdan bağlantı bekleyen istekler.
+ */
+@Component
+public class ProviderHttpPoolMetrics {
+
+    private final PoolingHttpClientConnectionManager providerConnectionManager;
+
+    public ProviderHttpPoolMetrics(PoolingHttpClientConnectionManager providerConnectionManager) {
+        this.providerConnectionManager = providerConnectionManager;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("total", toMap(providerConnectionManager.getTotalStats()));
+
+        Map<String, Object> hosts = new TreeMap<>();
+        for (HttpRoute route : providerConnectionManager.getRoutes()) {
+            hosts.put(route.getTargetHost().toURI(), toMap(providerConnectionManager.getStats(route)));
+        }
+        stats.put("hosts", hosts);
+        return stats;
+    }
+
+    private static Map<String, Object> toMap(PoolStats poolStats) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("leased", poolStats.getLeased());
+        stats.put("available", poolStats.getAvailable());
+        stats.put("pending", poolStats.getPending());
+        stats.put("max", poolStats.getMax());
+        return stats;
+    }
+}
@@ -1,6 +1,7 @@
 package com.prospect.crm.config;
 
 import com.prospect.crm.repository.UserRepository;
+import com.prospect.crm.security.AccessTokenRefreshCoordinator;
 import com.prospect.crm.security.CustomUserDetailsService;
 import com.prospect.crm.security.JwtAuthenticationFilter;
 import com.prospect.crm.service.JwtService;
@@ -41,10 +42,11 @@ public class SecurityConfig {
                                                    CustomUserDetailsService userDetailsService,
                                                    JwtConfig jwtConfig,
                                                    SubscriptionService subscriptionService,
-                                                   UserRepository userRepository) throws Exception {
+                                                   UserRepository userRepository,
+                                                   AccessTokenRefreshCoordinator refreshCoordinator) throws Exception {
 
         JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(
-                jwtService, userDetailsService, jwtConfig, subscriptionService, userRepository
+                jwtService, userDetailsService, jwtConfig, subscriptionService, userRepository, refreshCoordinator
         );
         http
             .csrf(AbstractHttpConfigurer::disable)
@@ -59,6 +61,7 @@ public class SecurityConfig {
                 .requestMatchers("/v1/payments/cancel").permitAll()
                 .requestMatchers("/v1/payments/webhook").permitAll()
                 .requestMatchers("/v1/health/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .requestMatchers("/v1/test/**").permitAll()
                 .requestMatchers("/error").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
@@ -0,0 +1,112 @@
+package com.prospect.crm.config;
+
+import com.prospect.crm.constant.LogOverflowPolicy;
+import com.prospect.crm.constant.LogPartitionInterval;
+import com.prospect.crm.constant.LogType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "system-log")
+public class SystemLogConfig {
+    
+    // false ise loglar istek thread'inde senkron olarak yazılır
+    private boolean asyncEnabled = true;
+    
+    // Ring buffer kapasitesi (kayıt)
+    private int queueCapacity = 8192;
+    
+    // Tek JDBC batch insert'teki en fazla kayıt
+    private int batchSize = 200;
+    
+    // Batch dolmasa da yazmadan önce beklenecek en uzun süre (ms)
+    private long flushInterval = 500;
+    
+    // Kuyruk dolduğunda davranış
+    private LogOverflowPolicy overflowPolicy = LogOverflowPolicy.DROP_OLDEST;
+    
+    // BLOCK politikasında en fazla bekleme süresi (ms)
+    private long blockTimeout = 50;
+    
+    // SPILL politikası ve başarısız batch'ler için disk spool dizini
+    private String spoolDirectory = Path.of(System.getProperty("java.io.tmpdir"), "prospect-crm", "log-spool").toString();
+    
+    // false ise başarısız veya bütçeyi aşan yazımlar spool'a alınmaz, kayıtlar düşer
+    private boolean spoolEnabled = true;
+    
+    // Memory-mapped spool segment dosyası boyutu (bayt)
+    private long spoolSegmentSize = 16L * 1024 * 1024;
+    
+    // Spool'un toplam disk sınırı (bayt); dolduğunda yeni kayıtlar reddedilir
+    private long spoolMaxBytes = 512L * 1024 * 1024;
+    
+    // Tek batch yazımı için gecikme bütçesi (ms); aşılırsa kayıtlar bir süre spool'a yönlenir
+    private long writeLatencyBudget = 250;
+    
+    // system_logs insert sorgu zaman aşımı (ms); takılan veritabanı yazıcıyı bu süreden fazla bekletmez
+    private long writeTimeout = 5000;
+    
+    // Degraded durumda veritabanını yeniden denemeden önce beklenecek süre (ms), her hatada ikiye katlanır
+    private long degradedBackoff = 5000;
+    
+    // Spool geri yüklenirken batch'ler arası bekleme (ms); canlı yazımlarla yarışmayı sınırlar
+    private long replayPause = 50;
+    
+    // Yüksek frekanslı olaylar için örnekleme ve hız sınırı kuralları
+    private List<PolicyRule> policies = new ArrayList<>();
+    
+    // Bastırılan olayların özet (rollup) kaydı olarak yazılma aralığı (ms)
+    private long rollupInterval = 60000;
+    
+    // system_logs range partition genişliği
+    private LogPartitionInterval partitionInterval = LogPartitionInterval.DAY;
+    
+    // Önceden oluşturulacak gelecek partition sayısı
+    private int partitionPremake = 7;
+    
+    // Dakikalık log sayılarının system_log_counts tablosuna yazılma aralığı (ms)
+    private long countFlushInterval = 10000;
+    
+    // system_log_counts tablosunda tutulacak gün sayısı (ham loglardan bağımsız)
+    private int countRetentionDays = 400;
+    
+    // Aynı hata grubundan dakikada system_logs'a yazılacak en fazla kayıt; fazlası yalnızca sayılır
+    private int errorGroupRowsPerMinute = 10;
+    
+    // Hata grubu sayaçlarının system_log_error_groups tablosuna yazılma aralığı (ms)
+    private long errorGroupFlushInterval = 10000;
+    
+    // Son görülmesinden bu kadar gün geçen hata grupları silinir
+    private int errorGroupRetentionDays = 90;
+    
+    /**
+     * message boşsa kural tipin tüm mesajlarına uygulanır; mesaja özel kural önceliklidir.
+     * WARN ve üzeri seviyeler kurallardan etkilenmez.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PolicyRule {
+        private LogType type;
+        private String message;
+        
+        // 0.0 - 1.0 arası; 1.0 tümünü yazar
+        private double sampleRate = 1.0;
+        
+        // Saniyede yazılacak en fazla kayıt (token bucket), 0 ise sınırsız
+        private double ratePerSecond;
+        
+        // Token bucket kapasitesi; 0 ise ratePerSecond kullanılır
+        private int burst;
+    }
+}
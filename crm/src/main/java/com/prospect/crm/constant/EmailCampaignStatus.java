@@ -0,0 +1,13 @@
+package com.prospect.crm.constant;
+
+/**
+ * email_campaigns kayıtlarının durumu
+ */
+public enum EmailCampaignStatus {
+    // Mesajlar outbox üzerinden gönderiliyor
+    RUNNING,
+    // Bekleyen mesajlar PAUSED durumunda tutuluyor
+    PAUSED,
+    // Bekleyen veya gönderilmekte olan mesaj kalmadı
+    COMPLETED
+}
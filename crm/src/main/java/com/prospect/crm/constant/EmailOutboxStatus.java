@@ -0,0 +1,17 @@
+package com.prospect.crm.constant;
+
+/**
+ * email_outbox kayıtlarının gönderim durumu
+ */
+public enum EmailOutboxStatus {
+    // Gönderilmeyi bekliyor (ilk deneme veya backoff sonrası yeniden deneme)
+    PENDING,
+    // Kampanya duraklatıldı; kampanya devam ettirilince PENDING'e döner
+    PAUSED,
+    // Bir worker tarafından sahiplenildi, sağlayıcıya gönderiliyor
+    SENDING,
+    // Sağlayıcı kabul etti
+    SENT,
+    // Kalıcı hata veya deneme sınırı aşıldı
+    FAILED
+}
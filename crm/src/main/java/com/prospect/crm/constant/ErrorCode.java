@@ -95,6 +95,8 @@ public enum ErrorCode {
     BOUNCE_STATISTICS_FAILED("ERR_7020", "Failed to get bounce statistics"),
     BOUNCE_PROCESS_ALL_FAILED("ERR_7021", "Failed to process all unprocessed bounces"),
     BOUNCE_CHECK_FAILED("ERR_7022", "Failed to check email bounces"),
+    EMAIL_OUTBOX_NOT_FOUND("ERR_7023", "Queued email not found"),
+    EMAIL_CAMPAIGN_NOT_FOUND("ERR_7024", "Email campaign not found"),
     
     // Robot Related Errors (ERR_8000-ERR_8999)
     ROBOT_NOT_FOUND("ERR_8000", "Robot not found"),
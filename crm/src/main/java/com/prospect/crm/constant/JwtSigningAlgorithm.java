@@ -0,0 +1,25 @@
+package com.prospect.crm.constant;
+
+import lombok.Getter;
+
+/**
+ * JWT imza algoritmaları. Asimetrik algoritmalarda public key'ler JWKS ile yayınlanır.
+ */
+@Getter
+public enum JwtSigningAlgorithm {
+    HS256("HS256", null),
+    ES256("ES256", "EC"),
+    EdDSA("EdDSA", "Ed25519");
+
+    private final String jwaName;
+    private final String keyFactoryAlgorithm;
+
+    JwtSigningAlgorithm(String jwaName, String keyFactoryAlgorithm) {
+        this.jwaName = jwaName;
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+    }
+
+    public boolean isAsymmetric() {
+        return keyFactoryAlgorithm != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.prospect.crm.constant;
+
+import lombok.Getter;
+
+/**
+ * System log export formatları
+ */
+@Getter
+public enum LogExportFormat {
+    // Satır başına bir JSON nesnesi
+    NDJSON("application/x-ndjson", "ndjson"),
+    // RFC 4180, başlık satırlı
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    LogExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
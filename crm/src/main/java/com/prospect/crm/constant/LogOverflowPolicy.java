@@ -0,0 +1,13 @@
+package com.prospect.crm.constant;
+
+/**
+ * Asenkron log kuyruğu dolduğunda uygulanacak davranış
+ */
+public enum LogOverflowPolicy {
+    // En eski kaydı atıp yeni kaydı kuyruğa ekler
+    DROP_OLDEST,
+    // blockTimeout süresi kadar bekler, yer açılmazsa kaydı atar
+    BLOCK,
+    // Kaydı yerel disk spool'una yazar; veritabanı yetiştiğinde geri yüklenir
+    SPILL
+}
@@ -0,0 +1,29 @@
+package com.prospect.crm.constant;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * system_logs range partition genişliği
+ */
+public enum LogPartitionInterval {
+    // Günlük partition, gece yarısından gece yarısına
+    DAY,
+    // Haftalık partition, Pazartesi başlangıçlı
+    WEEK;
+
+    /**
+     * Verilen günü içeren partition'ın başlangıç günü
+     */
+    public LocalDate floor(LocalDate date) {
+        return this == DAY ? date : date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Partition başlangıcından sonraki partition'ın başlangıcı
+     */
+    public LocalDate next(LocalDate start) {
+        return this == DAY ? start.plusDays(1) : start.plusWeeks(1);
+    }
+}
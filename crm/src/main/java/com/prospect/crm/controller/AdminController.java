@@ -1,15 +1,25 @@
 package com.prospect.crm.controller;
 
+import com.prospect.crm.config.ProviderHttpPoolMetrics;
+import com.prospect.crm.constant.LogLevel;
 import com.prospect.crm.dto.ApiResponse;
+import com.prospect.crm.email.EmailOutboxWorker;
+import com.prospect.crm.email.GraphBatchExecutor;
 import com.prospect.crm.model.UserSubsInfo;
+import com.prospect.crm.security.AccessTokenRefreshCoordinator;
+import com.prospect.crm.security.PrincipalCache;
+import com.prospect.crm.service.SubscriptionEntitlementCache;
 import com.prospect.crm.service.SystemLogService;
 import com.prospect.crm.service.SubscriptionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,10 +31,25 @@ public class AdminController {
     
     private final SystemLogService systemLogService;
     private final SubscriptionService subscriptionService;
+    private final PrincipalCache principalCache;
+    private final SubscriptionEntitlementCache entitlementCache;
+    private final AccessTokenRefreshCoordinator refreshCoordinator;
+    private final EmailOutboxWorker emailOutboxWorker;
+    private final ProviderHttpPoolMetrics providerHttpPoolMetrics;
+    private final GraphBatchExecutor graphBatchExecutor;
     
-    public AdminController(SystemLogService systemLogService, SubscriptionService subscriptionService) {
+    public AdminController(SystemLogService systemLogService, SubscriptionService subscriptionService,
+                           PrincipalCache principalCache, SubscriptionEntitlementCache entitlementCache,
+                           AccessTokenRefreshCoordinator refreshCoordinator, EmailOutboxWorker emailOutboxWorker,
+                           ProviderHttpPoolMetrics providerHttpPoolMetrics, GraphBatchExecutor graphBatchExecutor) {
         this.systemLogService = systemLogService;
         this.subscriptionService = subscriptionService;
+        this.principalCache = principalCache;
+        this.entitlementCache = entitlementCache;
+        this.refreshCoordinator = refreshCoordinator;
+        this.emailOutboxWorker = emailOutboxWorker;
+        this.providerHttpPoolMetrics = providerHttpPoolMetrics;
+        this.graphBatchExecutor = graphBatchExecutor;
     }
     
     /**
@@ -35,10 +60,12 @@ public class AdminController {
         try {
             Map<String, Object> dashboard = new HashMap<>();
             
-            // Log istatistikleri
-            dashboard.put("totalLogs", systemLogService.getLogCount());
-            dashboard.put("errorLogs", systemLogService.getLogCountByLevel("ERROR"));
-            dashboard.put("warningLogs", systemLogService.getLogCountByLevel("WARN"));
+            // Log istatistikleri (dakikalık sayım tablosundan, tek gruplu sorgu)
+            Map<LogLevel, Long> totals = systemLogService.getLogTotalsByLevel();
+            dashboard.put("totalLogs", totals.values().stream().mapToLong(Long::longValue).sum());
+            dashboard.put("errorLogs", totals.getOrDefault(LogLevel.ERROR, 0L));
+            dashboard.put("warningLogs", totals.getOrDefault(LogLevel.WARN, 0L));
+            dashboard.put("last24Hours", systemLogService.getLogCountByLevel(LocalDateTime.now().minusDays(1), LocalDateTime.now()));
             
             // Sistem bilgileri
             dashboard.put("systemInfo", getSystemInfo());
@@ -142,6 +169,126 @@ public class AdminController {
         }
     }
     
+    /**
+     * Kimlik doğrulama önbellek istatistikleri
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCacheStats() {
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("principalCache", principalCache.getStats());
+            stats.put("subscriptionEntitlementCache", entitlementCache.getStats());
+            stats.put("accessTokenRefresh", refreshCoordinator.getStats());
+            
+            return ResponseEntity.ok(ApiResponse.success(stats, "Cache statistics retrieved successfully"));
+            
+        } catch (Exception e) {
+            log.error("Error getting cache statistics: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to get cache statistics", "ERR_1006", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Asenkron system log yazıcısının kuyruk ve kayıp istatistikleri
+     */
+    @GetMapping("/log-pipeline-stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getLogPipelineStats() {
+        try {
+            Map<String, Object> stats = systemLogService.getPipelineStats();
+
+            return ResponseEntity.ok(ApiResponse.success(stats, "Log pipeline statistics retrieved successfully"));
+
+        } catch (Exception e) {
+            log.error("Error getting log pipeline statistics: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to get log pipeline statistics", "ERR_1006", e.getMessage()));
+        }
+    }
+
+    /**
+     * Email outbox kuyruğunun durum dağılımı ve bu node'daki worker sayaçları
+     */
+    @GetMapping("/email-outbox-stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getEmailOutboxStats() {
+        try {
+            Map<String, Object> stats = emailOutboxWorker.getStats();
+
+            return ResponseEntity.ok(ApiResponse.success(stats, "Email outbox statistics retrieved successfully"));
+
+        } catch (Exception e) {
+            log.error("Error getting email outbox statistics: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to get email outbox statistics", "ERR_1006", e.getMessage()));
+        }
+    }
+
+    /**
+     * Gmail/Graph/OAuth HTTP bağlantı havuzunun toplam ve host bazında durumu, Graph $batch sayaçları
+     */
+    @GetMapping("/provider-http-stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getProviderHttpStats() {
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>(providerHttpPoolMetrics.getStats());
+            stats.put("graphBatch", graphBatchExecutor.getStats());
+
+            return ResponseEntity.ok(ApiResponse.success(stats, "Provider HTTP pool statistics retrieved successfully"));
+
+        } catch (Exception e) {
+            log.error("Error getting provider HTTP pool statistics: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to get provider HTTP pool statistics", "ERR_1006", e.getMessage()));
+        }
+    }
+
+    /**
+     * Parmak izine göre gruplanmış hatalar, tekrar sayısına göre sıralı
+     */
+    @GetMapping("/error-groups")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getTopErrorGroups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            LocalDateTime from = since != null ? since : LocalDateTime.now().minusDays(1);
+            List<Map<String, Object>> groups = systemLogService.getTopErrorGroups(from, limit);
+
+            return ResponseEntity.ok(ApiResponse.success(groups, "Error groups retrieved successfully"));
+
+        } catch (Exception e) {
+            log.error("Error getting error groups: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to get error groups", "ERR_1006", e.getMessage()));
+        }
+    }
+
+    /**
+     * Tek bir hata grubu ve kanonik stack trace'i
+     */
+    @GetMapping("/error-groups/{fingerprint}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getErrorGroup(@PathVariable String fingerprint) {
+        Map<String, Object> group = systemLogService.getErrorGroup(fingerprint);
+        return ResponseEntity.ok(ApiResponse.success(group, "Error group retrieved successfully"));
+    }
+
+    /**
+     * Verilen aralıktaki dakikalık log sayılarını ham system_logs'tan yeniden hesaplar
+     */
+    @PostMapping("/log-counts/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildLogCounts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        try {
+            int buckets = systemLogService.rebuildLogCounts(startDate, endDate);
+
+            return ResponseEntity.ok(ApiResponse.success(buckets, "Log counts rebuilt successfully"));
+
+        } catch (Exception e) {
+            log.error("Error rebuilding log counts: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to rebuild log counts", "ERR_1006", e.getMessage()));
+        }
+    }
+
     private Map<String, Object> getSystemInfo() {
         Map<String, Object> info = new HashMap<>();
         Runtime runtime = Runtime.getRuntime();
@@ -0,0 +1,75 @@
+package com.prospect.crm.controller;
+
+import com.prospect.crm.dto.ApiResponse;
+import com.prospect.crm.dto.EmailCampaignRequestDto;
+import com.prospect.crm.service.EmailCampaignService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/email-campaigns")
+@PreAuthorize("hasRole('USER')")
+@RequiredArgsConstructor
+public class EmailCampaignController {
+
+    private final EmailCampaignService emailCampaignService;
+
+    /**
+     * Template ve lead seçiminden kampanya oluşturur; mesajlar kuyruğa alınır, 202 ve campaign id döner
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> createCampaign(
+            @RequestBody EmailCampaignRequestDto request, @RequestParam Long userId) {
+        try {
+            Map<String, Object> campaign = emailCampaignService.createCampaign(userId, request);
+            return ResponseEntity.accepted().body(ApiResponse.success(campaign, "Email campaign queued for sending"));
+        } catch (Exception e) {
+            log.error("Error creating email campaign: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to create email campaign", "EMAIL_013", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> listCampaigns(@RequestParam Long userId) {
+        try {
+            List<Map<String, Object>> campaigns = emailCampaignService.listCampaigns(userId);
+            return ResponseEntity.ok(ApiResponse.success(campaigns, "Email campaigns retrieved successfully"));
+        } catch (Exception e) {
+            log.error("Error listing email campaigns: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to list email campaigns", "EMAIL_014", e.getMessage()));
+        }
+    }
+
+    /**
+     * Kampanya durumu ve ilerlemesi (pending, paused, sending, sent, failed)
+     */
+    @GetMapping("/{campaignId}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCampaign(
+            @PathVariable String campaignId, @RequestParam Long userId) {
+        Map<String, Object> campaign = emailCampaignService.getCampaign(userId, campaignId);
+        return ResponseEntity.ok(ApiResponse.success(campaign, "Email campaign retrieved successfully"));
+    }
+
+    @PostMapping("/{campaignId}/pause")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> pauseCampaign(
+            @PathVariable String campaignId, @RequestParam Long userId) {
+        Map<String, Object> campaign = emailCampaignService.pauseCampaign(userId, campaignId);
+        return ResponseEntity.ok(ApiResponse.success(campaign, "Email campaign paused"));
+    }
+
+    @PostMapping("/{campaignId}/resume")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> resumeCampaign(
+            @PathVariable String campaignId, @RequestParam Long userId) {
+        Map<String, Object> campaign = emailCampaignService.resumeCampaign(userId, campaignId);
+        return ResponseEntity.ok(ApiResponse.success(campaign, "Email campaign resumed"));
+    }
+}
@@ -29,25 +29,36 @@ public class EmailController {
     }
 
     /**
-     * Email gönderir
+     * Email'i gönderim kuyruğuna ekler; sağlayıcı yanıtı beklenmeden 202 ve message id döner
      */
     @PostMapping("/send")
-    public ResponseEntity<ApiResponse<String>> sendEmail(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> sendEmail(
             @RequestBody EmailSendRequestDto request,
             @RequestParam Long userId) {
         
         try {
-            emailService.sendEmail(userId, request);
+            Map<String, Object> queued = emailService.queueEmail(userId, request);
             
-            return ResponseEntity.ok(ApiResponse.success("Email sent successfully"));
+            return ResponseEntity.accepted().body(ApiResponse.success(queued, "Email queued for sending"));
             
         } catch (Exception e) {
-            log.error("Error sending email: {}", e.getMessage(), e);
+            log.error("Error queueing email: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
                     .body(ApiResponse.error("Failed to send email", "EMAIL_001", e.getMessage()));
         }
     }
 
+    /**
+     * Kuyruğa alınan email'in gönderim durumu (PENDING, SENDING, SENT, FAILED)
+     */
+    @GetMapping("/send/{messageId}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSendStatus(
+            @PathVariable String messageId,
+            @RequestParam Long userId) {
+        Map<String, Object> status = emailService.getQueuedEmailStatus(userId, messageId);
+        return ResponseEntity.ok(ApiResponse.success(status, "Email send status retrieved successfully"));
+    }
+
     /**
      * SMTP ile email gönderir (fallback)
      */
@@ -0,0 +1,49 @@
+package com.prospect.crm.controller;
+
+import com.prospect.crm.config.JwtConfig;
+import com.prospect.crm.config.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Asimetrik JWT doğrulama anahtarlarını JWKS (RFC 7517) formatında yayınlar.
+ * nginx ve diğer servisler token'ları CRM'e sormadan bu anahtarlarla doğrular.
+ * Yanıt standart formatta olduğu için ApiResponse ile sarılmaz.
+ */
+@RestController
+public class JwksController {
+    
+    private final JwtKeyRing jwtKeyRing;
+    private final JwtConfig jwtConfig;
+    
+    public JwksController(JwtKeyRing jwtKeyRing, JwtConfig jwtConfig) {
+        this.jwtKeyRing = jwtKeyRing;
+        this.jwtConfig = jwtConfig;
+    }
+    
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> getJwks(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        List<Map<String, Object>> keys = jwtKeyRing.getPublicJwks();
+        String etag = "\"" + Integer.toHexString(keys.hashCode()) + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(jwtConfig.getJwksMaxAge())).cachePublic();
+        
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+        }
+        
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(Map.of("keys", keys));
+    }
+}
@@ -4,6 +4,7 @@ import com.prospect.crm.constant.PermissionConstants;
 import com.prospect.crm.dto.ApiResponse;
 
 import com.prospect.crm.security.HasPermission;
+import com.prospect.crm.security.VerifiedToken;
 import com.prospect.crm.service.JwtService;
 import com.prospect.crm.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -44,15 +45,13 @@ public class JwtController {
             }
             
             // Token'ı doğrula ve kullanıcı ID'sini al
-            Long userId = jwtService.getUserIdFromToken(token);
-            boolean isAccess = jwtService.isAccessToken(token);
-            boolean isRefresh = jwtService.isRefreshToken(token);
+            VerifiedToken verifiedToken = jwtService.verifyToken(token);
             
             Map<String, Object> result = Map.of(
                 "valid", true,
-                "userId", userId,
-                "isAccessToken", isAccess,
-                "isRefreshToken", isRefresh
+                "userId", verifiedToken.getUserId(),
+                "isAccessToken", verifiedToken.isAccessToken(),
+                "isRefreshToken", verifiedToken.isRefreshToken()
             );
             
             return ResponseEntity.ok(ApiResponse.<Map<String, Object>>builder()
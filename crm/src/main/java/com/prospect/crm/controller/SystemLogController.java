@@ -1,5 +1,6 @@
 package com.prospect.crm.controller;
 
+import com.prospect.crm.constant.LogExportFormat;
 import com.prospect.crm.constant.LogLevel;
 import com.prospect.crm.constant.LogType;
 import com.prospect.crm.dto.ApiResponse;
@@ -14,6 +15,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -55,9 +57,32 @@ public class SystemLogController {
         return systemLogService.getErrorLogs();
     }
 
+    /**
+     * Logları NDJSON veya CSV olarak akıtır; bellek kullanımı satır sayısından bağımsızdır
+     * fields: virgülle ayrılmış alan listesi (örn. id,timestamp,level,message), boşsa tüm alanlar
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(defaultValue = "NDJSON") LogExportFormat format,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) LogLevel level,
+            @RequestParam(required = false) LogType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return systemLogService.exportLogs(format, fields, gzip, level, type, startDate, endDate);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<SystemLog>>> searchLogs(@RequestParam String keyword) {
-        return systemLogService.searchLogs(keyword);
+    public ResponseEntity<ApiResponse<List<SystemLog>>> searchLogs(
+            @RequestParam String keyword,
+            @RequestParam(required = false) LogLevel level,
+            @RequestParam(required = false) LogType type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return systemLogService.searchLogs(keyword, level, type, startDate, endDate, page, size);
     }
 
     @GetMapping("/date-range")
@@ -115,6 +140,19 @@ public class SystemLogController {
         return ResponseEntity.ok(ApiResponse.successWithPagination(logPage.getContent(), pagination));
     }
 
+    @GetMapping("/archive")
+    public ResponseEntity<ApiResponse<List<SystemLog>>> getArchivedErrorLogs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<SystemLog> logPage = systemLogService.findArchivedErrors(startDate, endDate, pageable);
+        
+        PaginationInfo pagination = PaginationInfo.of(page, size, logPage.getTotalElements());
+        return ResponseEntity.ok(ApiResponse.successWithPagination(logPage.getContent(), pagination));
+    }
+
     // İstatistik endpoint'leri
     @GetMapping("/stats/level-count")
     public ResponseEntity<ApiResponse<List<Object[]>>> getLogCountByLevel(
@@ -132,6 +170,23 @@ public class SystemLogController {
         return ResponseEntity.ok(ApiResponse.success(stats, "Log count by type retrieved successfully"));
     }
 
+    @GetMapping("/stats/endpoint-count")
+    public ResponseEntity<ApiResponse<List<Object[]>>> getLogCountByEndpoint(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<Object[]> stats = systemLogService.getLogCountByEndpoint(startDate, endDate, limit);
+        return ResponseEntity.ok(ApiResponse.success(stats, "Log count by endpoint retrieved successfully"));
+    }
+
+    @GetMapping("/stats/status-count")
+    public ResponseEntity<ApiResponse<List<Object[]>>> getLogCountByHttpStatus(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        List<Object[]> stats = systemLogService.getLogCountByHttpStatus(startDate, endDate);
+        return ResponseEntity.ok(ApiResponse.success(stats, "Log count by HTTP status retrieved successfully"));
+    }
+
     @GetMapping("/stats/error-count")
     public ResponseEntity<ApiResponse<Long>> getErrorCount(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate) {
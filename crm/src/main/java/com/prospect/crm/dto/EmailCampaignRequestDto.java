@@ -0,0 +1,27 @@
+package com.prospect.crm.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmailCampaignRequestDto {
+    private String name;
+    private String provider; // GOOGLE, MICROSOFT
+    private String fromEmail;
+    private String subject;
+    private String body; // {{fullName}}, {{companyName}} gibi lead değişkenleri içerebilir
+    private String templateName; // body boşsa kullanılacak template (welcome, lead_followup)
+    private String contentType; // text/plain, text/html
+    private List<Long> leadIds; // verilirse yalnızca bu lead'ler
+    private String leadStatus; // leadIds yoksa bu durumdaki lead'ler; ikisi de yoksa tüm aktif lead'ler
+    private Map<String, String> variables; // tüm alıcılar için ortak değişkenler (senderName vb.)
+    private Double messagesPerSecond; // sağlayıcının kampanya hızından düşükse kullanılır
+}
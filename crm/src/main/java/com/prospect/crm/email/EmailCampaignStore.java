@@ -0,0 +1,111 @@
+package com.prospect.crm.email;
+
+import com.prospect.crm.constant.EmailCampaignStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * email_campaigns tablosu. Kampanyanın alıcı mesajları email_outbox'ta campaign_id ile tutulur;
+ * durum geçişleri (RUNNING -> PAUSED -> RUNNING -> COMPLETED) koşullu UPDATE ile yapılır,
+ * böylece aynı kampanyaya farklı node'lardan gelen istekler birbirini ezmez.
+ */
+@Component
+public class EmailCampaignStore {
+
+    private static final String SELECT_COLUMNS = "SELECT id, campaign_id, name, provider, from_email, subject, status, " +
+            "messages_per_second, total_messages, skipped_leads, sent_count, failed_count, paused_at, created_at, " +
+            "updated_at, completed_at FROM email_campaigns";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailCampaignStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * RUNNING durumunda kampanya oluşturur ve iç id'yi döner
+     */
+    public long insert(String campaignId, Long userId, String name, String provider, String fromEmail, String subject,
+                       double messagesPerSecond, int totalMessages, int skippedLeads) {
+        return jdbcTemplate.queryForObject("INSERT INTO email_campaigns (campaign_id, user_id, name, provider, " +
+                        "from_email, subject, status, messages_per_second, total_messages, skipped_leads, created_at, " +
+                        "updated_at) VALUES (?, ?, ?, ?, ?, ?, 'RUNNING', ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                        "RETURNING id", Long.class, campaignId, userId, name, provider, fromEmail, subject,
+                messagesPerSecond, totalMessages, skippedLeads);
+    }
+
+    /**
+     * Kullanıcının kampanyası; bulunamazsa null. "id" anahtarı outbox sorguları için iç id'dir.
+     */
+    public Map<String, Object> find(String campaignId, Long userId) {
+        List<Map<String, Object>> result = jdbcTemplate.query(SELECT_COLUMNS + " WHERE campaign_id = ? AND user_id = ?",
+                (rs, rowNum) -> toMap(rs), campaignId, userId);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    public List<Map<String, Object>> findByUser(Long userId, int limit) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " WHERE user_id = ? ORDER BY created_at DESC LIMIT ?",
+                (rs, rowNum) -> toMap(rs), userId, limit);
+    }
+
+    public boolean markPaused(long id) {
+        return jdbcTemplate.update("UPDATE email_campaigns SET status = 'PAUSED', paused_at = CURRENT_TIMESTAMP, " +
+                "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND status = 'RUNNING'", id) == 1;
+    }
+
+    /**
+     * paused_at, outbox'taki mesajlar kaydırıldıktan sonra temizlenmelidir (EmailOutbox.resumeCampaign)
+     */
+    public boolean markResumed(long id) {
+        return jdbcTemplate.update("UPDATE email_campaigns SET status = 'RUNNING', paused_at = NULL, " +
+                "updated_at = CURRENT_TIMESTAMP WHERE id = ? AND status = 'PAUSED'", id) == 1;
+    }
+
+    /**
+     * Bekleyen, duraklatılmış veya gönderilmekte olan mesajı kalmayan RUNNING kampanyayı COMPLETED yapar.
+     * Son sayılar kaydedilir; outbox temizliği yalnızca COMPLETED kampanyaların mesajlarını sildiğinden
+     * sayılar silinmeden önce yazılmış olur. Her mesaj kendi sonucu commit edildikten sonra çağırdığı için
+     * son iki mesaj aynı anda bitse de en az biri diğerinin sonucunu görür.
+     */
+    public boolean completeIfFinished(long id) {
+        return jdbcTemplate.update("UPDATE email_campaigns SET status = 'COMPLETED', " +
+                "sent_count = (SELECT COUNT(*) FROM email_outbox o WHERE o.campaign_id = email_campaigns.id AND o.status = 'SENT'), " +
+                "failed_count = (SELECT COUNT(*) FROM email_outbox o WHERE o.campaign_id = email_campaigns.id AND o.status = 'FAILED'), " +
+                "completed_at = CURRENT_TIMESTAMP, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND status = 'RUNNING' " +
+                "AND NOT EXISTS (SELECT 1 FROM email_outbox o WHERE o.campaign_id = email_campaigns.id " +
+                "AND o.status IN ('PENDING', 'SENDING', 'PAUSED'))", id) == 1;
+    }
+
+    private static Map<String, Object> toMap(ResultSet rs) throws SQLException {
+        Map<String, Object> campaign = new LinkedHashMap<>();
+        campaign.put("id", rs.getLong("id"));
+        campaign.put("campaignId", rs.getString("campaign_id"));
+        campaign.put("name", rs.getString("name"));
+        campaign.put("provider", rs.getString("provider"));
+        campaign.put("fromEmail", rs.getString("from_email"));
+        campaign.put("subject", rs.getString("subject"));
+        campaign.put("status", EmailCampaignStatus.valueOf(rs.getString("status")));
+        campaign.put("messagesPerSecond", rs.getDouble("messages_per_second"));
+        campaign.put("totalMessages", rs.getInt("total_messages"));
+        campaign.put("skippedLeads", rs.getInt("skipped_leads"));
+        campaign.put("sentCount", (Integer) rs.getObject("sent_count"));
+        campaign.put("failedCount", (Integer) rs.getObject("failed_count"));
+        campaign.put("pausedAt", toLocalDateTime(rs.getTimestamp("paused_at")));
+        campaign.put("createdAt", toLocalDateTime(rs.getTimestamp("created_at")));
+        campaign.put("updatedAt", toLocalDateTime(rs.getTimestamp("updated_at")));
+        campaign.put("completedAt", toLocalDateTime(rs.getTimestamp("completed_at")));
+        return campaign;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
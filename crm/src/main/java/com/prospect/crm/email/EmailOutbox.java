@@ -0,0 +1,292 @@
+package com.prospect.crm.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prospect.crm.constant.EmailOutboxStatus;
+import com.prospect.crm.dto.EmailSendRequestDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Gönderilecek mailleri email_outbox tablosunda tutar.
+ * Mesajlar worker'lar tarafından FOR UPDATE SKIP LOCKED ile sahiplenilir; böylece birden fazla
+ * node aynı tabloyu birbirini beklemeden ve aynı mesajı iki kez almadan işler.
+ * Tüm zaman karşılaştırmaları veritabanı saatiyle yapılır, node saatleri arasındaki fark sorun olmaz.
+ * Kampanya mesajları campaign_id ile bağlıdır ve next_attempt_at'leri kampanya hızına göre aralıklı yazılır;
+ * böylece gönderen hesap başına hız, mesajları hangi node alırsa alsın korunur.
+ */
+@Slf4j
+@Component
+public class EmailOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String INSERT_SQL = "INSERT INTO email_outbox (message_id, user_id, provider, from_email, " +
+            "payload, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, 'PENDING', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final String INSERT_CAMPAIGN_SQL = "INSERT INTO email_outbox (message_id, user_id, provider, " +
+            "from_email, payload, status, attempts, next_attempt_at, created_at, campaign_id) " +
+            "VALUES (?, ?, ?, ?, ?, 'PENDING', 0, CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond', CURRENT_TIMESTAMP, ?)";
+
+    // Kuyruğa geri dönen mesaj, kampanyası o sırada duraklatılmışsa PAUSED olarak bekler
+    private static final String REQUEUE_STATUS = "CASE WHEN campaign_id IS NOT NULL AND EXISTS (SELECT 1 FROM " +
+            "email_campaigns c WHERE c.id = email_outbox.campaign_id AND c.status = 'PAUSED') " +
+            "THEN 'PAUSED' ELSE 'PENDING' END";
+
+    // Zamanı gelmiş PENDING mesajlar ve kilidi süresi dolmuş (sahibi çökmüş) SENDING mesajlar sahiplenilir
+    private static final String CLAIM_SQL = "UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1, " +
+            "locked_by = ?, locked_until = CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond' " +
+            "WHERE id IN (SELECT id FROM email_outbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_at <= CURRENT_TIMESTAMP) " +
+            "OR (status = 'SENDING' AND locked_until < CURRENT_TIMESTAMP) " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, message_id, user_id, payload, attempts, campaign_id";
+
+    private static final String SELECT_COLUMNS = "SELECT message_id, user_id, provider, from_email, status, attempts, " +
+            "last_error, next_attempt_at, created_at, sent_at FROM email_outbox";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Bu node'da eklenen mesajlar için bekleyen worker'ları poll aralığını beklemeden uyandırır
+    private final Object signal = new Object();
+
+    public EmailOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Mesajı kuyruğa ekler ve public message id'yi döner
+     */
+    public String enqueue(Long userId, EmailSendRequestDto request) {
+        String messageId = UUID.randomUUID().toString();
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Email request could not be serialized", e);
+        }
+        jdbcTemplate.update(INSERT_SQL, messageId, userId, request.getProvider(), request.getFromEmail(), payload);
+        wakeUp();
+        return messageId;
+    }
+
+    /**
+     * Kampanya mesajlarını tek batch ile ekler; i. mesaj i * intervalMillis sonra gönderilebilir hale gelir
+     */
+    public void enqueueCampaign(Long userId, long campaignId, List<EmailSendRequestDto> requests, long intervalMillis) {
+        List<Object[]> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            EmailSendRequestDto request = requests.get(i);
+            String payload;
+            try {
+                payload = objectMapper.writeValueAsString(request);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Email request could not be serialized", e);
+            }
+            rows.add(new Object[]{UUID.randomUUID().toString(), userId, request.getProvider(), request.getFromEmail(),
+                    payload, i * intervalMillis, campaignId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_CAMPAIGN_SQL, rows);
+        wakeUp();
+    }
+
+    /**
+     * En fazla limit mesajı owner adına leaseMillis süreyle sahiplenir
+     */
+    public List<Entry> claim(String owner, int limit, long leaseMillis) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new Entry(rs.getLong("id"), rs.getString("message_id"),
+                rs.getLong("user_id"), rs.getString("payload"), rs.getInt("attempts"),
+                (Long) rs.getObject("campaign_id")), owner, leaseMillis, limit);
+    }
+
+    public EmailSendRequestDto readPayload(Entry entry) {
+        try {
+            return objectMapper.readValue(entry.getPayload(), EmailSendRequestDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable outbox payload for message " + entry.getMessageId(), e);
+        }
+    }
+
+    /**
+     * Kuyruğa yeni mesaj eklenene veya timeout dolana kadar bekler
+     */
+    public void awaitWork(long timeoutMillis) throws InterruptedException {
+        synchronized (signal) {
+            signal.wait(timeoutMillis);
+        }
+    }
+
+    public void wakeUp() {
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    // Güncellemeler locked_by ile sınırlanır; kilidi süresi dolup başka worker'a geçen mesaj ezilmez
+
+    /**
+     * Sağlayıcı çağrısından hemen önce kilidi leaseMillis kadar uzatır. Mesaj bu arada başka bir worker'a
+     * geçtiyse false döner ve mesaj gönderilmemelidir.
+     */
+    public boolean renewLease(Entry entry, String owner, long leaseMillis) {
+        return jdbcTemplate.update("UPDATE email_outbox SET locked_until = CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond' " +
+                "WHERE id = ? AND locked_by = ? AND status = 'SENDING'", leaseMillis, entry.getId(), owner) == 1;
+    }
+
+    public boolean markSent(Entry entry, String owner) {
+        return jdbcTemplate.update("UPDATE email_outbox SET status = 'SENT', sent_at = CURRENT_TIMESTAMP, " +
+                "locked_by = NULL, locked_until = NULL, last_error = NULL WHERE id = ? AND locked_by = ?",
+                entry.getId(), owner) == 1;
+    }
+
+    public boolean markRetry(Entry entry, String owner, long delayMillis, String error) {
+        return jdbcTemplate.update("UPDATE email_outbox SET status = " + REQUEUE_STATUS + ", " +
+                "next_attempt_at = CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond', " +
+                "locked_by = NULL, locked_until = NULL, last_error = ? WHERE id = ? AND locked_by = ?",
+                delayMillis, truncate(error), entry.getId(), owner) == 1;
+    }
+
+    public boolean markFailed(Entry entry, String owner, String error) {
+        return jdbcTemplate.update("UPDATE email_outbox SET status = 'FAILED', " +
+                "locked_by = NULL, locked_until = NULL, last_error = ? WHERE id = ? AND locked_by = ?",
+                truncate(error), entry.getId(), owner) == 1;
+    }
+
+    /**
+     * Sahiplenilip henüz gönderilmemiş mesajı, denemeyi saymadan kuyruğa geri bırakır (shutdown)
+     */
+    public void release(Entry entry, String owner) {
+        jdbcTemplate.update("UPDATE email_outbox SET status = " + REQUEUE_STATUS + ", attempts = attempts - 1, " +
+                "locked_by = NULL, locked_until = NULL WHERE id = ? AND locked_by = ?", entry.getId(), owner);
+    }
+
+    /**
+     * Mesajı denemeyi saymadan until zamanına erteler (günlük limit dolduğunda)
+     */
+    public boolean defer(Entry entry, String owner, Timestamp until, String error) {
+        return jdbcTemplate.update("UPDATE email_outbox SET status = " + REQUEUE_STATUS + ", attempts = attempts - 1, " +
+                "next_attempt_at = ?, locked_by = NULL, locked_until = NULL, last_error = ? " +
+                "WHERE id = ? AND locked_by = ?", until, truncate(error), entry.getId(), owner) == 1;
+    }
+
+    // ==================== KAMPANYA İŞLEMLERİ ====================
+
+    /**
+     * Kampanyanın until'den önce gönderilecek bekleyen mesajlarını, aralarındaki süre korunarak until sonrasına kaydırır.
+     * Zaten kaydırılmış mesajlar etkilenmez; aynı anda limite takılan worker'lar kampanyayı tekrar tekrar ertelemez.
+     */
+    public int deferCampaign(long campaignId, Timestamp until) {
+        return jdbcTemplate.update("UPDATE email_outbox SET next_attempt_at = ? + " +
+                "GREATEST(next_attempt_at - CURRENT_TIMESTAMP, INTERVAL '0') " +
+                "WHERE campaign_id = ? AND status IN ('PENDING', 'PAUSED') AND next_attempt_at < ?",
+                until, campaignId, until);
+    }
+
+    public int pauseCampaign(long campaignId) {
+        return jdbcTemplate.update("UPDATE email_outbox SET status = 'PAUSED' WHERE campaign_id = ? AND status = 'PENDING'",
+                campaignId);
+    }
+
+    /**
+     * Duraklatılan mesajlar, duraklatma süresi kadar ileri kaydırılarak PENDING'e döner; kampanya hızı korunur.
+     * Kampanyanın paused_at değeri temizlenmeden önce çağrılmalıdır.
+     */
+    public int resumeCampaign(long campaignId) {
+        int resumed = jdbcTemplate.update("UPDATE email_outbox SET status = 'PENDING', " +
+                "next_attempt_at = email_outbox.next_attempt_at + (CURRENT_TIMESTAMP - c.paused_at) " +
+                "FROM email_campaigns c WHERE c.id = email_outbox.campaign_id AND email_outbox.campaign_id = ? " +
+                "AND email_outbox.status = 'PAUSED'", campaignId);
+        wakeUp();
+        return resumed;
+    }
+
+    public Map<EmailOutboxStatus, Long> countByCampaign(long campaignId) {
+        Map<EmailOutboxStatus, Long> counts = new EnumMap<>(EmailOutboxStatus.class);
+        for (EmailOutboxStatus status : EmailOutboxStatus.values()) {
+            counts.put(status, 0L);
+        }
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM email_outbox WHERE campaign_id = ? GROUP BY status", rs -> {
+            counts.put(EmailOutboxStatus.valueOf(rs.getString(1)), rs.getLong(2));
+        }, campaignId);
+        return counts;
+    }
+
+    /**
+     * Kullanıcının mesajının durumu; bulunamazsa null
+     */
+    public Map<String, Object> find(String messageId, Long userId) {
+        List<Map<String, Object>> result = jdbcTemplate.query(SELECT_COLUMNS + " WHERE message_id = ? AND user_id = ?",
+                (rs, rowNum) -> toMap(rs), messageId, userId);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Tamamlanmış (SENT/FAILED) ve cutoff'tan önce oluşturulmuş mesajları siler.
+     * Kampanya mesajları kampanya COMPLETED olana (son sayılar yazılana) kadar tutulur.
+     */
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM email_outbox WHERE status IN ('SENT', 'FAILED') AND created_at < ? " +
+                "AND (campaign_id IS NULL OR EXISTS (SELECT 1 FROM email_campaigns c " +
+                "WHERE c.id = email_outbox.campaign_id AND c.status = 'COMPLETED'))", Timestamp.valueOf(cutoff));
+    }
+
+    public Map<EmailOutboxStatus, Long> countByStatus() {
+        Map<EmailOutboxStatus, Long> counts = new EnumMap<>(EmailOutboxStatus.class);
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM email_outbox GROUP BY status", rs -> {
+            counts.put(EmailOutboxStatus.valueOf(rs.getString(1)), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    private static Map<String, Object> toMap(ResultSet rs) throws SQLException {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("messageId", rs.getString("message_id"));
+        message.put("userId", rs.getLong("user_id"));
+        message.put("provider", rs.getString("provider"));
+        message.put("fromEmail", rs.getString("from_email"));
+        message.put("status", EmailOutboxStatus.valueOf(rs.getString("status")));
+        message.put("attempts", rs.getInt("attempts"));
+        message.put("lastError", rs.getString("last_error"));
+        message.put("nextAttemptAt", toLocalDateTime(rs.getTimestamp("next_attempt_at")));
+        message.put("createdAt", toLocalDateTime(rs.getTimestamp("created_at")));
+        message.put("sentAt", toLocalDateTime(rs.getTimestamp("sent_at")));
+        return message;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_ERROR_LENGTH ? value.substring(0, MAX_ERROR_LENGTH) : value;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final long id;
+        private final String messageId;
+        private final long userId;
+        private final String payload;
+        private final int attempts;
+        // Kampanyaya ait değilse null
+        private final Long campaignId;
+    }
+}
@@ -0,0 +1,305 @@
+package com.prospect.crm.email;
+
+import com.prospect.crm.config.EmailOutboxConfig;
+import com.prospect.crm.config.ProviderHttpConfig;
+import com.prospect.crm.dto.EmailSendRequestDto;
+import com.prospect.crm.exception.RateLimitException;
+import com.prospect.crm.exception.ValidationException;
+import com.prospect.crm.service.EmailService;
+import com.prospect.crm.service.SystemLogService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * email_outbox kuyruğunu işleyen gönderim thread'leri.
+ * Her thread mesajları claimBatchSize'lık gruplar halinde sahiplenir ve sağlayıcıya sırayla gönderir.
+ * Geçici hatalar üstel backoff ile yeniden denenir; 4xx gibi kalıcı hatalar ve maxAttempts'i aşan
+ * mesajlar FAILED olarak işaretlenir. Worker'lar veritabanı dışında durum tutmadığından
+ * node sayısı artırılarak gönderim kapasitesi ölçeklenir.
+ * Kilit her sağlayıcı çağrısından hemen önce koşullu UPDATE ile yenilenir; kilidi süresi dolup başka worker'a
+ * geçmiş mesaj gönderilmeden bırakılır, böylece aynı mail iki node'dan gönderilmez.
+ * Gönderimler ProviderThrottle ile sağlayıcı başına hız sınırına tabidir. Günlük limiti dolan kullanıcının
+ * kampanya mesajları başarısız sayılmaz, kampanya limitin sıfırlandığı güne ertelenir.
+ */
+@Slf4j
+@Component
+public class EmailOutboxWorker {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 30000;
+
+    private final EmailOutboxConfig emailOutboxConfig;
+    private final long leaseMillis;
+    private final EmailOutbox emailOutbox;
+    private final EmailCampaignStore emailCampaignStore;
+    private final EmailService emailService;
+    private final ProviderThrottle providerThrottle;
+    private final SystemLogService systemLogService;
+    private final String owner;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder lostLeases = new LongAdder();
+    private final LongAdder skippedLeases = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+
+    private volatile boolean running;
+    private final List<Thread> workers = new ArrayList<>();
+
+    public EmailOutboxWorker(EmailOutboxConfig emailOutboxConfig, EmailOutbox emailOutbox,
+                             EmailCampaignStore emailCampaignStore, EmailService emailService,
+                             ProviderThrottle providerThrottle, ProviderHttpConfig providerHttpConfig,
+                             SystemLogService systemLogService) {
+        this.emailOutboxConfig = emailOutboxConfig;
+        this.leaseMillis = leaseMillis(emailOutboxConfig, providerHttpConfig);
+        this.emailOutbox = emailOutbox;
+        this.emailCampaignStore = emailCampaignStore;
+        this.emailService = emailService;
+        this.providerThrottle = providerThrottle;
+        this.systemLogService = systemLogService;
+        this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running || !emailOutboxConfig.isWorkerEnabled()) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < emailOutboxConfig.getWorkerThreads(); i++) {
+            Thread worker = new Thread(this::runLoop, "email-outbox-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Email outbox workers started - owner: {}, threads: {}", owner, workers.size());
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                List<EmailOutbox.Entry> claimed = emailOutbox.claim(owner, emailOutboxConfig.getClaimBatchSize(),
+                        leaseMillis);
+                if (claimed.isEmpty()) {
+                    emailOutbox.awaitWork(emailOutboxConfig.getPollInterval());
+                    continue;
+                }
+                for (EmailOutbox.Entry entry : claimed) {
+                    if (running) {
+                        process(entry);
+                    } else {
+                        emailOutbox.release(entry, owner);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Email outbox worker loop error: {}", e.getMessage());
+                sleepQuietly(emailOutboxConfig.getPollInterval());
+            }
+        }
+    }
+
+    private void process(EmailOutbox.Entry entry) {
+        EmailSendRequestDto request = null;
+        try {
+            request = emailOutbox.readPayload(entry);
+            providerThrottle.acquire(request.getProvider());
+            if (!emailOutbox.renewLease(entry, owner, leaseMillis)) {
+                // Batch'teki sırası gelene kadar kilidin süresi doldu ve mesaj başka bir worker'a geçti
+                skippedLeases.increment();
+                log.warn("Outbox lease expired before sending message {}, leaving it to its new owner", entry.getMessageId());
+                return;
+            }
+            emailService.deliverQueuedEmail(entry.getUserId(), request);
+            if (!emailOutbox.markSent(entry, owner)) {
+                // Tek gönderim lease süresini aştı ve mesaj başka bir worker'a geçti
+                lostLeases.increment();
+                log.warn("Outbox lease lost for message {} after it was sent", entry.getMessageId());
+            }
+            sent.increment();
+            completeCampaignIfFinished(entry);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emailOutbox.release(entry, owner);
+        } catch (Exception e) {
+            String error = rootMessage(e);
+            if (e instanceof RateLimitException && entry.getCampaignId() != null) {
+                deferCampaign(entry, error);
+            } else if (isPermanent(e) || entry.getAttempts() >= emailOutboxConfig.getMaxAttempts()) {
+                failed.increment();
+                emailOutbox.markFailed(entry, owner, error);
+                emailService.recordFailedDelivery(entry.getUserId(), request, e);
+                completeCampaignIfFinished(entry);
+            } else {
+                retried.increment();
+                long delay = retryDelay(entry.getAttempts());
+                emailOutbox.markRetry(entry, owner, delay, error);
+                systemLogService.logWarn("Queued email send failed, will retry",
+                        "Message: " + entry.getMessageId() + ", Attempt: " + entry.getAttempts()
+                                + ", Retry in: " + delay + " ms, Error: " + error,
+                        "EmailOutboxWorker", "process");
+            }
+        }
+    }
+
+    /**
+     * Kampanyanın son mesajı sonuçlandıysa kampanya COMPLETED yapılır ve son sayılar yazılır
+     */
+    private void completeCampaignIfFinished(EmailOutbox.Entry entry) {
+        if (entry.getCampaignId() == null) {
+            return;
+        }
+        try {
+            if (emailCampaignStore.completeIfFinished(entry.getCampaignId())) {
+                systemLogService.logBusiness("Email campaign completed",
+                        "Campaign: " + entry.getCampaignId(), String.valueOf(entry.getUserId()));
+            }
+        } catch (Exception e) {
+            log.warn("Could not complete email campaign {}: {}", entry.getCampaignId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Günlük limit dolduğunda kampanyanın bekleyen mesajları ertesi güne kaydırılır; deneme sayılmaz
+     */
+    private void deferCampaign(EmailOutbox.Entry entry, String error) {
+        deferred.increment();
+        Timestamp until = Timestamp.valueOf(LocalDate.now().plusDays(1).atStartOfDay());
+        int shifted = emailOutbox.deferCampaign(entry.getCampaignId(), until);
+        emailOutbox.defer(entry, owner, until, error);
+        if (shifted > 0) {
+            systemLogService.logWarn("Email campaign deferred until daily limit resets",
+                    "User: " + entry.getUserId() + ", Campaign: " + entry.getCampaignId()
+                            + ", Deferred messages: " + (shifted + 1) + ", Until: " + until,
+                    "EmailOutboxWorker", "deferCampaign");
+        }
+    }
+
+    /**
+     * Tekrar denemenin sonucu değiştirmeyeceği hatalar: limit/validasyon, geçersiz istek ve 4xx yanıtlar (408/429 hariç)
+     */
+    private static boolean isPermanent(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ValidationException || cause instanceof IllegalArgumentException
+                    || cause instanceof RateLimitException) {
+                return true;
+            }
+            if (cause instanceof HttpClientErrorException clientError) {
+                int status = clientError.getStatusCode().value();
+                return status != HttpStatus.REQUEST_TIMEOUT.value() && status != HttpStatus.TOO_MANY_REQUESTS.value();
+            }
+        }
+        return false;
+    }
+
+    // retryBackoff * 2^(attempt-1), üst sınırlı ve ±%20 jitter'lı; aynı anda düşen mesajlar aynı anda tekrar denenmez
+    private long retryDelay(int attempt) {
+        long delay = emailOutboxConfig.getRetryBackoff() << Math.min(Math.max(attempt - 1, 0), 20);
+        delay = Math.min(delay, emailOutboxConfig.getMaxRetryBackoff());
+        return (long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+
+    /**
+     * Bir batch'in tamamı ilk kilit süresi içinde başlayabilmelidir: claimBatchSize x (bağlantı + okuma zaman aşımı
+     * + en yavaş sağlayıcının throttle aralığı). Yapılandırılan leaseTimeout bundan kısaysa bu değer kullanılır.
+     */
+    private static long leaseMillis(EmailOutboxConfig emailOutboxConfig, ProviderHttpConfig providerHttpConfig) {
+        double slowestRate = emailOutboxConfig.getProviderRatePerSecond().values().stream()
+                .filter(rate -> rate != null && rate > 0)
+                .mapToDouble(Double::doubleValue)
+                .min()
+                .orElse(0);
+        long throttleInterval = slowestRate > 0 ? (long) Math.ceil(1000 / slowestRate) : 0;
+        long perMessage = providerHttpConfig.getConnectionRequestTimeout() + providerHttpConfig.getConnectTimeout()
+                + providerHttpConfig.getReadTimeout() + throttleInterval;
+        long required = emailOutboxConfig.getClaimBatchSize() * perMessage;
+        if (emailOutboxConfig.getLeaseTimeout() < required) {
+            log.warn("email-outbox.lease-timeout {} ms is shorter than a claimed batch can take, using {} ms",
+                    emailOutboxConfig.getLeaseTimeout(), required);
+            return required;
+        }
+        return emailOutboxConfig.getLeaseTimeout();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+
+    /**
+     * Devam eden gönderimlerin bitmesi beklenir; sahiplenilip başlanmamış mesajlar kuyruğa geri bırakılır
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        emailOutbox.wakeUp();
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("owner", owner);
+        stats.put("running", running);
+        stats.put("threads", emailOutboxConfig.getWorkerThreads());
+        stats.put("sent", sent.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        stats.put("leaseMillis", leaseMillis);
+        stats.put("lostLeases", lostLeases.sum());
+        stats.put("expiredBeforeSend", skippedLeases.sum());
+        stats.put("deferredByDailyLimit", deferred.sum());
+        stats.put("providerThrottle", providerThrottle.getStats());
+        stats.put("queue", emailOutbox.countByStatus());
+        return stats;
+    }
+}
@@ -0,0 +1,307 @@
+package com.prospect.crm.email;
+
+import com.prospect.crm.config.ProviderHttpConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Microsoft Graph alt isteklerini JSON $batch çağrılarına paketler (çağrı başına en fazla 20).
+ * Graph kısıtlamayı $batch çağrısına değil her alt isteğe ayrı uygular; bu yüzden posta kutusu başına
+ * eşzamanlılık alt istek sayısıyla sınırlanır (graphMailboxConcurrency). Aynı posta kutusuna yönelik
+ * tüm execute çağrıları aynı izinleri paylaşır ve batch boyutu bu sınırı aşmaz.
+ * 429/503/504 dönen alt istekler Retry-After süresi beklendikten sonra yalnızca kendileri yeniden
+ * gönderilir. Sonuçlar anahtar (mesaj id) bazında döner.
+ */
+@Slf4j
+@Component
+public class GraphBatchExecutor {
+
+    private static final String BATCH_URL = "https://graph.microsoft.com/v1.0/$batch";
+    private static final int MAX_REQUESTS_PER_BATCH = 20;
+    private static final long DEFAULT_RETRY_AFTER_MS = 1000;
+
+    private final RestTemplate restTemplate;
+    private final ProviderHttpConfig providerHttpConfig;
+    private final ExecutorService executor;
+
+    // Posta kutusu başına alt istek izinleri; kullanan çağrı ve batch kalmayınca silinir
+    private final Map<String, MailboxPermits> mailboxes = new ConcurrentHashMap<>();
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder subRequests = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    public GraphBatchExecutor(RestTemplate providerRestTemplate, ProviderHttpConfig providerHttpConfig) {
+        this.restTemplate = providerRestTemplate;
+        this.providerHttpConfig = providerHttpConfig;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(providerHttpConfig.getGraphBatchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "graph-batch-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * İstekleri çalıştırır ve bitene kadar bekler. Aynı anahtar birden fazla kez verilmemelidir.
+     * mailbox, eşzamanlılık sınırının paylaşıldığı posta kutusunu (kullanıcıyı) belirtir.
+     */
+    public Result execute(String mailbox, String accessToken, List<Request> requests) {
+        Result result = new Result(new ArrayList<>(), new LinkedHashMap<>());
+        if (requests.isEmpty()) {
+            return result;
+        }
+
+        int limit = Math.max(1, providerHttpConfig.getGraphMailboxConcurrency());
+        int batchSize = Math.min(MAX_REQUESTS_PER_BATCH, limit);
+        MailboxPermits permits = acquireMailbox(mailbox, limit);
+        List<Future<Result>> futures = new ArrayList<>();
+        try {
+            for (int from = 0; from < requests.size(); from += batchSize) {
+                List<Request> batch = requests.subList(from, Math.min(from + batchSize, requests.size()));
+                permits.semaphore.acquire(batch.size());
+                // Çağrı hata ile dönse bile çalışan batch izinlerini tutarken kayıt silinmemeli
+                acquireMailbox(mailbox, limit);
+                futures.add(executor.submit(() -> {
+                    try {
+                        return runBatch(accessToken, batch);
+                    } finally {
+                        permits.semaphore.release(batch.size());
+                        releaseMailbox(mailbox);
+                    }
+                }));
+            }
+            for (Future<Result> future : futures) {
+                Result batchResult = future.get();
+                result.succeeded.addAll(batchResult.succeeded);
+                result.failed.putAll(batchResult.failed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Graph batch interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Graph batch failed", e.getCause());
+        } finally {
+            releaseMailbox(mailbox);
+        }
+        return result;
+    }
+
+    private MailboxPermits acquireMailbox(String mailbox, int limit) {
+        return mailboxes.compute(mailbox, (key, permits) -> {
+            MailboxPermits current = permits != null ? permits : new MailboxPermits(limit);
+            current.users++;
+            return current;
+        });
+    }
+
+    private void releaseMailbox(String mailbox) {
+        mailboxes.computeIfPresent(mailbox, (key, permits) -> --permits.users == 0 ? null : permits);
+    }
+
+    private Result runBatch(String accessToken, List<Request> batch) throws InterruptedException {
+        Result result = new Result(new ArrayList<>(), new LinkedHashMap<>());
+        List<Request> pending = batch;
+
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            boolean canRetry = attempt < providerHttpConfig.getGraphBatchMaxRetries();
+            List<Request> retry = new ArrayList<>();
+            long retryAfter = 0;
+
+            List<Map<String, Object>> responses;
+            try {
+                responses = post(accessToken, pending);
+            } catch (HttpStatusCodeException e) {
+                // $batch çağrısının kendisi kısıtlandıysa tüm alt istekler yeniden denenir
+                int status = e.getStatusCode().value();
+                if (isRetryable(status) && canRetry) {
+                    throttled.increment();
+                    retry.addAll(pending);
+                    retryAfter = retryAfterMillis(e.getResponseHeaders() != null
+                            ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null, attempt);
+                    pending = waitAndRetry(retry, retryAfter);
+                    continue;
+                }
+                pending.forEach(request -> result.failed.put(request.getKey(), status + " " + e.getStatusText()));
+                return result;
+            } catch (RestClientException e) {
+                pending.forEach(request -> result.failed.put(request.getKey(), e.getMessage()));
+                return result;
+            }
+
+            Map<String, Map<String, Object>> byId = new LinkedHashMap<>();
+            for (Map<String, Object> response : responses) {
+                byId.put(String.valueOf(response.get("id")), response);
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                Request request = pending.get(i);
+                Map<String, Object> response = byId.get(String.valueOf(i));
+                int status = response != null && response.get("status") instanceof Number number ? number.intValue() : 0;
+                if (status >= 200 && status < 300) {
+                    result.succeeded.add(request.getKey());
+                } else if (isRetryable(status) && canRetry) {
+                    throttled.increment();
+                    retry.add(request);
+                    retryAfter = Math.max(retryAfter, retryAfterMillis(header(response, HttpHeaders.RETRY_AFTER), attempt));
+                } else {
+                    result.failed.put(request.getKey(), status == 0 ? "missing response" : status + " " + errorCode(response));
+                }
+            }
+            pending = retry.isEmpty() ? List.of() : waitAndRetry(retry, retryAfter);
+        }
+        return result;
+    }
+
+    private List<Request> waitAndRetry(List<Request> retry, long retryAfter) throws InterruptedException {
+        Thread.sleep(Math.min(retryAfter, providerHttpConfig.getGraphBatchMaxRetryAfter()));
+        return retry;
+    }
+
+    private List<Map<String, Object>> post(String accessToken, List<Request> pending) {
+        List<Map<String, Object>> subRequests = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            Request request = pending.get(i);
+            Map<String, Object> subRequest = new LinkedHashMap<>();
+            subRequest.put("id", String.valueOf(i));
+            subRequest.put("method", request.getMethod().name());
+            subRequest.put("url", request.getUrl());
+            if (request.getBody() != null) {
+                subRequest.put("body", request.getBody());
+                subRequest.put("headers", Map.of(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+            }
+            subRequests.add(subRequest);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                BATCH_URL,
+                HttpMethod.POST,
+                new HttpEntity<>(Map.of("requests", subRequests), headers),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+        batches.increment();
+        this.subRequests.add(pending.size());
+
+        Object responses = response.getBody() != null ? response.getBody().get("responses") : null;
+        List<Map<String, Object>> result = new ArrayList<>();
+        if (responses instanceof List<?> list) {
+            for (Object item : list) {
+                if (item instanceof Map<?, ?> map) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> typed = (Map<String, Object>) map;
+                    result.add(typed);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status == 503 || status == 504;
+    }
+
+    // Retry-After saniye cinsindendir; yoksa denemeye göre artan varsayılan bekleme
+    private static long retryAfterMillis(String retryAfter, int attempt) {
+        if (retryAfter != null) {
+            try {
+                return Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException ignored) {
+                // HTTP-date formatı kullanılmaz; varsayılana düş
+            }
+        }
+        return DEFAULT_RETRY_AFTER_MS << Math.min(attempt, 5);
+    }
+
+    private static String header(Map<String, Object> response, String name) {
+        if (response.get("headers") instanceof Map<?, ?> headers) {
+            for (Map.Entry<?, ?> entry : headers.entrySet()) {
+                if (name.equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+                    return String.valueOf(entry.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String errorCode(Map<String, Object> response) {
+        if (response.get("body") instanceof Map<?, ?> body && body.get("error") instanceof Map<?, ?> error) {
+            return String.valueOf(error.get("code"));
+        }
+        return "";
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("batches", batches.sum());
+        stats.put("subRequests", subRequests.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("activeMailboxes", mailboxes.size());
+        return stats;
+    }
+
+    private static final class MailboxPermits {
+        private final Semaphore semaphore;
+        // Yalnızca mailboxes.compute içinde değişir
+        private int users;
+
+        private MailboxPermits(int limit) {
+            this.semaphore = new Semaphore(limit);
+        }
+    }
+
+    /**
+     * Tek bir Graph alt isteği; key sonuçların eşleneceği mesaj id'sidir, url /me/... biçiminde göreli yoldur
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Request {
+        private final String key;
+        private final HttpMethod method;
+        private final String url;
+        private final Object body;
+    }
+
+    /**
+     * Başarılı anahtarlar ve başarısız anahtar -> "status hataKodu"
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final List<String> succeeded;
+        private final Map<String, String> failed;
+    }
+}
@@ -0,0 +1,76 @@
+package com.prospect.crm.email;
+
+import com.prospect.crm.config.EmailOutboxConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbox worker'larının sağlayıcı başına gönderim hızını providerRatePerSecond ile sınırlar.
+ * Her gönderim sağlayıcının bir sonraki boş zaman dilimini ayırır ve o ana kadar bekler; böylece
+ * bu node'daki tüm worker thread'leri birlikte saniyede izin verilenden fazla istek göndermez.
+ * Sınır node başınadır; gönderen hesap başına hız kampanya mesajlarının next_attempt_at aralığıyla sağlanır.
+ */
+@Component
+public class ProviderThrottle {
+
+    private final EmailOutboxConfig emailOutboxConfig;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder throttledMillis = new LongAdder();
+
+    public ProviderThrottle(EmailOutboxConfig emailOutboxConfig) {
+        this.emailOutboxConfig = emailOutboxConfig;
+    }
+
+    /**
+     * Sağlayıcıya gönderim sırası gelene kadar bekler; hız tanımlı değilse hemen döner
+     */
+    public void acquire(String provider) throws InterruptedException {
+        if (provider == null) {
+            return;
+        }
+        String key = provider.toLowerCase(Locale.ROOT);
+        Double rate = emailOutboxConfig.getProviderRatePerSecond().get(key);
+        if (rate == null || rate <= 0) {
+            return;
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot(System.nanoTime()));
+
+        long waitNanos;
+        synchronized (slot) {
+            long now = System.nanoTime();
+            long at = slot.next - now > 0 ? slot.next : now;
+            slot.next = at + intervalNanos;
+            waitNanos = at - now;
+        }
+        if (waitNanos > 0) {
+            throttled.increment();
+            throttledMillis.add(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ratePerSecond", emailOutboxConfig.getProviderRatePerSecond());
+        stats.put("throttledSends", throttled.sum());
+        stats.put("throttledMillis", throttledMillis.sum());
+        return stats;
+    }
+
+    private static final class Slot {
+        private long next;
+
+        private Slot(long next) {
+            this.next = next;
+        }
+    }
+}
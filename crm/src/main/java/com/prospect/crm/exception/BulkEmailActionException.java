@@ -0,0 +1,31 @@
+package com.prospect.crm.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Toplu email işleminde bazı mesajlar başarısız olduğunda fırlatılır;
+ * başarılı ve başarısız id'ler ayrı ayrı loglanabilsin diye taşınır.
+ */
+@Getter
+public class BulkEmailActionException extends EmailException {
+
+    // Mesajda gösterilecek en fazla hata örneği
+    private static final int MAX_LISTED_FAILURES = 3;
+
+    private final List<String> succeededIds;
+    private final Map<String, String> failedIds;
+
+    public BulkEmailActionException(List<String> succeededIds, Map<String, String> failedIds) {
+        super(failedIds.size() + " of " + (succeededIds.size() + failedIds.size()) + " messages failed: "
+                + failedIds.entrySet().stream()
+                    .limit(MAX_LISTED_FAILURES)
+                    .map(entry -> entry.getKey() + " -> " + entry.getValue())
+                    .collect(Collectors.joining("; ")));
+        this.succeededIds = succeededIds;
+        this.failedIds = failedIds;
+    }
+}
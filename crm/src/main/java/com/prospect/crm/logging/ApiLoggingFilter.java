@@ -0,0 +1,224 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.ApiLoggingConfig;
+import com.prospect.crm.security.VerifiedToken;
+import com.prospect.crm.service.SystemLogService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Her API çağrısı için endpoint, metot, status, süre, kullanıcı ve IP bilgisini
+ * SystemLogService.logApi üzerinden asenkron log hattına yazar.
+ * İstek başına bir request id atar (gelen X-Request-Id geçerliyse korunur); id yanıt başlığına,
+ * request attribute'a ve MDC'ye konur, böylece istek sırasında yazılan tüm loglar aynı id'yi taşır.
+ * Gövdeler yalnızca metin içerik tiplerinde ve en fazla maxBodyBytes kadar yakalanır.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ApiLoggingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+    public static final String REQUEST_ID_ATTRIBUTE = ApiLoggingFilter.class.getName() + ".requestId";
+
+    private static final int MAX_REQUEST_ID_LENGTH = 100;
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1," + MAX_REQUEST_ID_LENGTH + "}");
+
+    private final ApiLoggingConfig apiLoggingConfig;
+    private final SystemLogService systemLogService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Pattern> maskPatterns;
+    // application/x-www-form-urlencoded gövdeleri ve metindeki query string'ler için key=value biçimi
+    private final List<Pattern> formMaskPatterns;
+
+    public ApiLoggingFilter(ApiLoggingConfig apiLoggingConfig, SystemLogService systemLogService) {
+        this.apiLoggingConfig = apiLoggingConfig;
+        this.systemLogService = systemLogService;
+        this.maskPatterns = apiLoggingConfig.getMaskedFields().stream()
+                .map(field -> Pattern.compile("\"(" + Pattern.quote(field) + ")\"\\s*:\\s*\"(?:[^\"\\\\]|\\\\.)*\""))
+                .toList();
+        this.formMaskPatterns = apiLoggingConfig.getMaskedFields().stream()
+                .map(field -> Pattern.compile("(^|[&?])(" + Pattern.quote(field) + ")=[^&\\s\"]*"))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String requestId = resolveRequestId(request);
+        request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+
+        try {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            if (!apiLoggingConfig.isEnabled() || matches(apiLoggingConfig.getExcludePaths(), path)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            int limit = apiLoggingConfig.getMaxBodyBytes();
+            boolean captureBody = limit > 0 && !matches(apiLoggingConfig.getBodyExcludePaths(), path);
+            CapturingRequestWrapper requestWrapper = captureBody && isTextual(request.getContentType())
+                    ? new CapturingRequestWrapper(request, limit) : null;
+            CapturingResponseWrapper responseWrapper = captureBody ? new CapturingResponseWrapper(response, limit) : null;
+
+            long start = System.nanoTime();
+            try {
+                filterChain.doFilter(requestWrapper != null ? requestWrapper : request,
+                        responseWrapper != null ? responseWrapper : response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                logCall(request, path, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, start, requestId,
+                        requestWrapper, null);
+                throw e;
+            }
+
+            if (request.isAsyncStarted()) {
+                // StreamingResponseBody/DeferredResult: süre ve status istek tamamlandığında bilinir
+                request.getAsyncContext().addListener(new CompletionListener(request, response, path, start,
+                        requestId, requestWrapper, responseWrapper));
+            } else {
+                if (responseWrapper != null) {
+                    responseWrapper.flushWriter();
+                }
+                logCall(request, path, response.getStatus(), start, requestId, requestWrapper, responseWrapper);
+            }
+        } finally {
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    private void logCall(HttpServletRequest request, String path, int status, long start, String requestId,
+                         CapturingRequestWrapper requestWrapper, CapturingResponseWrapper responseWrapper) {
+        try {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            String requestBody = requestWrapper != null ? mask(requestWrapper.getCapturedBody()) : null;
+            String responseBody = responseWrapper != null && isTextual(responseWrapper.getContentType())
+                    ? mask(responseWrapper.getCapturedBody()) : null;
+
+            systemLogService.logApi(request.getMethod() + " " + SystemLogCounts.normalizeEndpoint(path),
+                    path, request.getMethod(), status, requestBody, responseBody, elapsed,
+                    currentUserId(request), request.getRemoteAddr(), request.getHeader("User-Agent"), requestId);
+        } catch (Exception e) {
+            log.warn("Failed to log API call {} {}: {}", request.getMethod(), path, e.getMessage());
+        }
+    }
+
+    private String resolveRequestId(HttpServletRequest request) {
+        String incoming = request.getHeader(REQUEST_ID_HEADER);
+        if (incoming != null && VALID_REQUEST_ID.matcher(incoming).matches()) {
+            return incoming;
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private static String currentUserId(HttpServletRequest request) {
+        Object token = request.getAttribute(VerifiedToken.REQUEST_ATTRIBUTE);
+        if (token instanceof VerifiedToken verifiedToken && verifiedToken.getUserId() != null) {
+            return verifiedToken.getUserId().toString();
+        }
+        return null;
+    }
+
+    private boolean matches(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Yalnızca okunabilir metin gövdeleri yakalanır; dosya, görsel ve akış formatları atlanır
+     */
+    private static boolean isTextual(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/event-stream") || type.startsWith("text/csv")) {
+            return false;
+        }
+        return type.startsWith("text/")
+                || type.startsWith("application/json")
+                || type.contains("+json")
+                || type.startsWith("application/xml")
+                || type.contains("+xml")
+                || type.startsWith("application/x-www-form-urlencoded");
+    }
+
+    private String mask(String body) {
+        if (body == null) {
+            return null;
+        }
+        for (Pattern pattern : maskPatterns) {
+            body = pattern.matcher(body).replaceAll("\"$1\":\"***\"");
+        }
+        for (Pattern pattern : formMaskPatterns) {
+            body = pattern.matcher(body).replaceAll("$1$2=***");
+        }
+        return body;
+    }
+
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final String path;
+        private final long start;
+        private final String requestId;
+        private final CapturingRequestWrapper requestWrapper;
+        private final CapturingResponseWrapper responseWrapper;
+
+        private CompletionListener(HttpServletRequest request, HttpServletResponse response, String path, long start,
+                                   String requestId, CapturingRequestWrapper requestWrapper,
+                                   CapturingResponseWrapper responseWrapper) {
+            this.request = request;
+            this.response = response;
+            this.path = path;
+            this.start = start;
+            this.requestId = requestId;
+            this.requestWrapper = requestWrapper;
+            this.responseWrapper = responseWrapper;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            logCall(request, path, response.getStatus(), start, requestId, requestWrapper, responseWrapper);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.constant.LogOverflowPolicy;
+import com.prospect.crm.model.SystemLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * System log kayıtlarını istek thread'inden ayırır.
+ * Kayıtlar sınırlı bir kuyruğa alınır, tek bir yazıcı thread batchSize dolduğunda
+ * veya flushInterval geçtiğinde JDBC batch insert ile yazar.
+ * Kuyruk dolduğunda davranış overflowPolicy ile belirlenir.
+ * Yazım başarısız olursa veya gecikme bütçesini aşarsa kayıtlar disk spool'una alınır;
+ * ayrı bir geri yükleme thread'i veritabanı toparlandığında spool'u batch'ler halinde boşaltır.
+ */
+@Slf4j
+@Component
+public class AsyncSystemLogWriter {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final SystemLogConfig systemLogConfig;
+    private final SystemLogJdbcWriter jdbcWriter;
+    private final SystemLogSpool spool;
+    private final SystemLogWriteBudget writeBudget;
+    private final BlockingQueue<SystemLog> queue;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private Thread replayerThread;
+
+    public AsyncSystemLogWriter(SystemLogConfig systemLogConfig, SystemLogJdbcWriter jdbcWriter, SystemLogSpool spool,
+                                SystemLogWriteBudget writeBudget) {
+        this.systemLogConfig = systemLogConfig;
+        this.jdbcWriter = jdbcWriter;
+        this.spool = spool;
+        this.writeBudget = writeBudget;
+        this.queue = new ArrayBlockingQueue<>(systemLogConfig.getQueueCapacity());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runLoop, "system-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        replayerThread = new Thread(this::replayLoop, "system-log-replayer");
+        replayerThread.setDaemon(true);
+        replayerThread.start();
+        log.info("System log writer started - capacity: {}, batch size: {}, policy: {}",
+                systemLogConfig.getQueueCapacity(), systemLogConfig.getBatchSize(), systemLogConfig.getOverflowPolicy());
+    }
+
+    /**
+     * Kaydı kuyruğa ekler; istek thread'ini en fazla blockTimeout kadar bekletir
+     */
+    public void enqueue(SystemLog systemLog) {
+        enqueued.increment();
+        if (queue.offer(systemLog)) {
+            return;
+        }
+
+        LogOverflowPolicy policy = systemLogConfig.getOverflowPolicy();
+        switch (policy) {
+            case DROP_OLDEST -> {
+                // Yer açmak için en eski kaydı at; yarışta yine dolabilir, o durumda yeni kayıt düşer
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+                if (!queue.offer(systemLog)) {
+                    dropped.increment();
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(systemLog, systemLogConfig.getBlockTimeout(), TimeUnit.MILLISECONDS)) {
+                        dropped.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+            case SPILL -> spill(List.of(systemLog));
+        }
+    }
+
+    private void runLoop() {
+        int batchSize = systemLogConfig.getBatchSize();
+        List<SystemLog> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                fillBatch(batch, batchSize);
+                if (!batch.isEmpty()) {
+                    writeBatch(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                // Kesilirse kalan kayıtları boşaltıp çık
+                running = false;
+            } catch (Exception e) {
+                log.error("System log writer loop error: {}", e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * İlk kaydı flushInterval kadar bekler, sonra batch dolana veya süre bitene kadar toplar
+     */
+    private void fillBatch(List<SystemLog> batch, int batchSize) throws InterruptedException {
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(systemLogConfig.getFlushInterval());
+        SystemLog first = running ? queue.poll(flushNanos, TimeUnit.NANOSECONDS) : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                break;
+            }
+            SystemLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<SystemLog> batch) {
+        if (!writeBudget.allowDatabaseWrite() && systemLogConfig.isSpoolEnabled()) {
+            // Veritabanı yavaş veya erişilemez; istek yolu ve kuyruk beklemeden spool'a yaz
+            writeBudget.recordFallback(batch.size());
+            spill(batch);
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            jdbcWriter.insertBatch(batch);
+            writeBudget.recordSuccess(System.nanoTime() - start);
+            written.add(batch.size());
+            batches.increment();
+
+        } catch (Exception e) {
+            log.error("Failed to write system log batch of {}: {}", batch.size(), e.getMessage());
+            writeBudget.recordFailure(e);
+            if (systemLogConfig.isSpoolEnabled() || systemLogConfig.getOverflowPolicy() == LogOverflowPolicy.SPILL) {
+                writeBudget.recordFallback(batch.size());
+                spill(batch);
+            } else {
+                failed.add(batch.size());
+            }
+        }
+    }
+
+    /**
+     * async-enabled=false iken çağıran thread'de yazar; bütçe aşılmışsa veya yazım başarısızsa spool'a alır
+     */
+    public void writeSync(SystemLog systemLog) {
+        enqueued.increment();
+        writeBatch(new ArrayList<>(List.of(systemLog)));
+    }
+
+    private void spill(List<SystemLog> records) {
+        for (SystemLog systemLog : records) {
+            if (spool.append(systemLog)) {
+                spilled.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Veritabanı sağlıklı olduğu sürece spool'u batch'ler halinde boşaltır.
+     * Her batch aynı gecikme bütçesiyle ölçülür; bütçe aşılırsa geri yükleme durur.
+     */
+    private void replayLoop() {
+        long idleMillis = Math.max(systemLogConfig.getFlushInterval(), 100);
+        long total = 0;
+        while (running) {
+            try {
+                if (!spool.hasPending() || !writeBudget.allowDatabaseWrite()) {
+                    if (total > 0) {
+                        log.info("Replayed {} spooled system logs", total);
+                        total = 0;
+                    }
+                    spool.force();
+                    Thread.sleep(idleMillis);
+                    continue;
+                }
+                int count = spool.replayBatch(systemLogConfig.getBatchSize(), this::replayBatch);
+                replayed.add(count);
+                total += count;
+                Thread.sleep(systemLogConfig.getReplayPause());
+
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                writeBudget.recordFailure(e);
+                log.warn("System log spool replay paused: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void replayBatch(List<SystemLog> batch) {
+        long start = System.nanoTime();
+        jdbcWriter.insertBatch(batch);
+        writeBudget.recordSuccess(System.nanoTime() - start);
+        written.add(batch.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = writerThread;
+        }
+        // Yazıcı thread en geç flushInterval içinde bayrağı görür, kuyruğu boşaltıp çıkar
+        thread.join(SHUTDOWN_TIMEOUT_MS);
+        // Geri yükleme thread'i kesilmez (devam eden JDBC yazımı bozulmasın); spool'da kalanlar sonraki açılışta yüklenir
+        replayerThread.join(SHUTDOWN_TIMEOUT_MS);
+        if (!queue.isEmpty()) {
+            log.warn("System log writer stopped with {} records still queued", queue.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running);
+        stats.put("overflowPolicy", systemLogConfig.getOverflowPolicy());
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", systemLogConfig.getQueueCapacity());
+        stats.put("enqueued", enqueued.sum());
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("spilled", spilled.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("spoolPending", spool.getPendingRecords());
+        stats.put("writeBudget", writeBudget.getStats());
+        stats.put("spool", spool.getStats());
+        return stats;
+    }
+}
@@ -0,0 +1,65 @@
+package com.prospect.crm.logging;
+
+import java.nio.charset.Charset;
+
+/**
+ * İstek/yanıt gövdesinin yalnızca ilk limit baytını tutan tampon.
+ * Gövdenin geri kalanı sayılır ama saklanmaz; tüm payload bellekte biriktirilmez.
+ */
+final class BodyCapture {
+
+    private final byte[] buffer;
+    private int size;
+    private long total;
+
+    BodyCapture(int limit) {
+        this.buffer = new byte[Math.max(0, limit)];
+    }
+
+    void write(int b) {
+        total++;
+        if (size < buffer.length) {
+            buffer[size++] = (byte) b;
+        }
+    }
+
+    void write(byte[] bytes, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        total += length;
+        int copy = Math.min(length, buffer.length - size);
+        if (copy > 0) {
+            System.arraycopy(bytes, offset, buffer, size, copy);
+            size += copy;
+        }
+    }
+
+    void write(char[] chars, int offset, int length, Charset charset) {
+        if (length <= 0) {
+            return;
+        }
+        if (size >= buffer.length) {
+            // Sınır dolduktan sonra yalnızca yaklaşık boyut tutulur
+            total += length;
+            return;
+        }
+        byte[] bytes = new String(chars, offset, length).getBytes(charset);
+        write(bytes, 0, bytes.length);
+    }
+
+    boolean isEmpty() {
+        return total == 0;
+    }
+
+    /**
+     * Yakalanan kısmı metin olarak döner; kesildiyse toplam boyut eklenir
+     */
+    String text(Charset charset) {
+        if (total == 0) {
+            return null;
+        }
+        String text = new String(buffer, 0, size, charset);
+        return total > size ? text + "... [truncated, " + total + " bytes]" : text;
+    }
+}
@@ -0,0 +1,126 @@
+package com.prospect.crm.logging;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Uygulamanın okuduğu istek gövdesinin ilk baytlarını BodyCapture'a kopyalar.
+ * Okuma akışı değişmez; gövde önceden okunmaz veya tamponlanmaz.
+ */
+final class CapturingRequestWrapper extends HttpServletRequestWrapper {
+
+    private final BodyCapture capture;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    CapturingRequestWrapper(HttpServletRequest request, int limit) {
+        super(request);
+        this.capture = new BodyCapture(limit);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new CapturingInputStream(super.getInputStream(), capture);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            reader = new BufferedReader(new CapturingReader(super.getReader(), capture, charset()));
+        }
+        return reader;
+    }
+
+    String getCapturedBody() {
+        return capture.text(charset());
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static final class CapturingInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+        private final BodyCapture capture;
+
+        private CapturingInputStream(ServletInputStream delegate, BodyCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b >= 0) {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = delegate.read(bytes, offset, length);
+            if (read > 0) {
+                capture.write(bytes, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            delegate.setReadListener(listener);
+        }
+    }
+
+    private static final class CapturingReader extends Reader {
+        private final Reader delegate;
+        private final BodyCapture capture;
+        private final Charset charset;
+
+        private CapturingReader(Reader delegate, BodyCapture capture, Charset charset) {
+            this.delegate = delegate;
+            this.capture = capture;
+            this.charset = charset;
+        }
+
+        @Override
+        public int read(char[] chars, int offset, int length) throws IOException {
+            int read = delegate.read(chars, offset, length);
+            if (read > 0) {
+                capture.write(chars, offset, read, charset);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
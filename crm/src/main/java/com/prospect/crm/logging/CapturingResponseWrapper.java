@@ -0,0 +1,145 @@
+package com.prospect.crm.logging;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Yanıt gövdesinin ilk baytlarını BodyCapture'a kopyalar.
+ * Yazılan veri doğrudan asıl yanıta gider; ContentCachingResponseWrapper'ın aksine
+ * yanıt bellekte biriktirilmez ve streaming yanıtlar etkilenmez.
+ */
+final class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final BodyCapture capture;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CapturingResponseWrapper(HttpServletResponse response, int limit) {
+        super(response);
+        this.capture = new BodyCapture(limit);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CapturingOutputStream(super.getOutputStream(), capture);
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new CapturingWriter(super.getWriter(), capture, charset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * PrintWriter'daki karakterleri asıl yanıta aktarır; istek bitmeden çağrılmalıdır
+     */
+    void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    String getCapturedBody() {
+        return capture.text(charset());
+    }
+
+    private Charset charset() {
+        String encoding = getCharacterEncoding();
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static final class CapturingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final BodyCapture capture;
+
+        private CapturingOutputStream(ServletOutputStream delegate, BodyCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            capture.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            capture.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+
+    private static final class CapturingWriter extends Writer {
+        private final Writer delegate;
+        private final BodyCapture capture;
+        private final Charset charset;
+
+        private CapturingWriter(Writer delegate, BodyCapture capture, Charset charset) {
+            this.delegate = delegate;
+            this.capture = capture;
+            this.charset = charset;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            delegate.write(chars, offset, length);
+            capture.write(chars, offset, length, charset);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
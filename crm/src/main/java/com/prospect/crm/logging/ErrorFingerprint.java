@@ -0,0 +1,124 @@
+package com.prospect.crm.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Hata kayıtlarını gruplamak için stack trace'ten kararlı bir parmak izi üretir.
+ * Parmak izi exception sınıfları ve frame'lerin sınıf/metot adlarından oluşur;
+ * mesajlar, satır numaraları ve proxy/lambda üretilmiş sınıf adları dahil edilmez,
+ * böylece aynı hatanın tekrarları aynı gruba düşer.
+ */
+public final class ErrorFingerprint {
+
+    // Exception bloğu başına ve toplamda dikkate alınan en fazla frame / neden sayısı
+    private static final int MAX_FRAMES_PER_CAUSE = 8;
+    private static final int MAX_CAUSES = 3;
+
+    private static final String FRAME_PREFIX = "at ";
+    private static final String CAUSED_BY = "Caused by: ";
+
+    private static final Pattern GENERATED_SUFFIX = Pattern.compile(
+            "\\$\\$(Lambda|SpringCGLIB|EnhancerBySpringCGLIB|FastClassBySpringCGLIB)[^.(]*");
+    private static final Pattern GENERATED_ACCESSOR = Pattern.compile("(GeneratedMethodAccessor|\\$Proxy)[0-9]+");
+    private static final Pattern DIGITS = Pattern.compile("[0-9]+");
+
+    private ErrorFingerprint() {
+    }
+
+    /**
+     * stackTrace, Throwable.printStackTrace formatındadır. Stack trace yoksa
+     * className, methodName ve sayılardan arındırılmış mesaj kullanılır.
+     */
+    public static String compute(String stackTrace, String className, String methodName, String message) {
+        String signature = signature(stackTrace);
+        if (signature == null) {
+            signature = "no-trace\n" + className + '.' + methodName + '\n'
+                    + (message != null ? DIGITS.matcher(message).replaceAll("#") : "");
+        }
+        return sha256(signature);
+    }
+
+    /**
+     * Stack trace'in ilk satırındaki exception sınıfı; ayrıştırılamazsa null
+     */
+    public static String exceptionClass(String stackTrace) {
+        if (stackTrace == null || stackTrace.isBlank()) {
+            return null;
+        }
+        int end = stackTrace.indexOf('\n');
+        String first = (end >= 0 ? stackTrace.substring(0, end) : stackTrace).trim();
+        return looksLikeHeader(first) ? headerClass(first) : null;
+    }
+
+    private static String signature(String stackTrace) {
+        if (stackTrace == null || stackTrace.isBlank()) {
+            return null;
+        }
+        StringBuilder signature = new StringBuilder(512);
+        int causes = 0;
+        int frames = 0;
+        boolean header = true;
+
+        for (String rawLine : stackTrace.split("\n")) {
+            String line = rawLine.trim();
+            if (header) {
+                if (!looksLikeHeader(line)) {
+                    // Örn. StackTraceElement[].toString() çıktısı; ayrıştırılabilir bir trace değil
+                    return null;
+                }
+                signature.append(headerClass(line)).append('\n');
+                causes = 1;
+                header = false;
+            } else if (line.startsWith(CAUSED_BY)) {
+                if (++causes > MAX_CAUSES) {
+                    break;
+                }
+                signature.append("caused by ").append(headerClass(line.substring(CAUSED_BY.length()))).append('\n');
+                frames = 0;
+            } else if (line.startsWith(FRAME_PREFIX) && frames < MAX_FRAMES_PER_CAUSE) {
+                signature.append(frame(line.substring(FRAME_PREFIX.length()))).append('\n');
+                frames++;
+            }
+        }
+        return signature.toString();
+    }
+
+    private static boolean looksLikeHeader(String line) {
+        String className = headerClass(line);
+        return !className.isEmpty() && className.indexOf('.') > 0 && className.indexOf('[') < 0
+                && className.indexOf(' ') < 0;
+    }
+
+    private static String headerClass(String line) {
+        int colon = line.indexOf(':');
+        return (colon >= 0 ? line.substring(0, colon) : line).trim();
+    }
+
+    // "com.x.Foo.bar(Foo.java:42)" -> "com.x.Foo.bar"; modül önekleri ve üretilmiş sınıf ekleri atılır
+    private static String frame(String frame) {
+        int paren = frame.indexOf('(');
+        String method = paren >= 0 ? frame.substring(0, paren) : frame;
+        // Lambda adları da '/' içerdiği için modül öneki üretilmiş ekler atıldıktan sonra ayrılır
+        method = GENERATED_SUFFIX.matcher(method).replaceAll("");
+        int slash = method.lastIndexOf('/');
+        if (slash >= 0) {
+            method = method.substring(slash + 1);
+        }
+        return GENERATED_ACCESSOR.matcher(method).replaceAll("$1");
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+            // 128 bit gruplama için yeterli
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
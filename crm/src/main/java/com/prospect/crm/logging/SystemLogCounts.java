@@ -0,0 +1,288 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.constant.LogLevel;
+import com.prospect.crm.constant.LogType;
+import com.prospect.crm.exception.ValidationException;
+import com.prospect.crm.model.SystemLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * system_log_counts tablosunda dakikalık log sayılarını (level, type, endpoint, http status) tutar.
+ * Sayılar log yazılırken bellekte toplanır ve periyodik olarak upsert ile eklenir;
+ * dashboard ve istatistik sorguları ham system_logs yerine bu tablodan okur,
+ * böylece maliyet log hacmine değil bucket sayısına bağlıdır. Politika veya hata grubu sınırı nedeniyle
+ * system_logs'a yazılmayan olaylar da sayılır; sayılar satır değil olay sayısıdır.
+ */
+@Slf4j
+@Component
+public class SystemLogCounts {
+
+    // Bir flush aralığındaki farklı anahtar sınırı; aşılırsa endpoint "*" altında toplanır
+    private static final int MAX_PENDING_KEYS = 10000;
+    private static final int MAX_ENDPOINT_LENGTH = 255;
+    private static final String OTHER_ENDPOINT = "*";
+
+    // /v1/logs/123 ve /v1/users/<uuid> gibi yollar tek endpoint altında toplanır
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/[0-9]+(?=/|$)");
+    private static final Pattern UUID_SEGMENT = Pattern.compile("/[0-9a-fA-F-]{32,36}(?=/|$)");
+
+    private static final String UPSERT_SQL = "INSERT INTO system_log_counts (bucket, level, type, endpoint, http_status, count) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (bucket, level, type, endpoint, http_status) " +
+            "DO UPDATE SET count = system_log_counts.count + EXCLUDED.count";
+
+    // SQL tarafındaki normalizasyon normalizeEndpoint ile aynı kuralları uygular
+    private static final String NORMALIZED_ENDPOINT_SQL = "left(regexp_replace(regexp_replace(" +
+            "split_part(coalesce(endpoint, ''), '?', 1), '/[0-9]+(?=/|$)', '/{id}', 'g'), " +
+            "'/[0-9a-fA-F-]{32,36}(?=/|$)', '/{id}', 'g'), " + MAX_ENDPOINT_LENGTH + ")";
+
+    private static final String REBUILD_SQL = "INSERT INTO system_log_counts (bucket, level, type, endpoint, http_status, count) " +
+            "SELECT date_trunc('minute', timestamp), coalesce(level, ''), coalesce(type, ''), " +
+            NORMALIZED_ENDPOINT_SQL + ", coalesce(http_status, 0), COUNT(*) FROM system_logs " +
+            "WHERE timestamp >= ? AND timestamp < ? GROUP BY 1, 2, 3, 4, 5 " +
+            "ON CONFLICT (bucket, level, type, endpoint, http_status) DO UPDATE SET count = EXCLUDED.count";
+
+    private static final String RANGE = " WHERE bucket >= date_trunc('minute', ?::timestamp) AND bucket <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SystemLogConfig systemLogConfig;
+
+    // Henüz yazılmamış sayılar; kayıt batch'ler halinde geldiği için kilit çekişmesi düşüktür
+    private Map<Key, long[]> pending = new HashMap<>();
+
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public SystemLogCounts(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           SystemLogConfig systemLogConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.systemLogConfig = systemLogConfig;
+    }
+
+    public void record(SystemLog systemLog) {
+        synchronized (this) {
+            add(systemLog);
+        }
+    }
+
+    public void record(Collection<SystemLog> logs) {
+        synchronized (this) {
+            for (SystemLog systemLog : logs) {
+                add(systemLog);
+            }
+        }
+    }
+
+    private void add(SystemLog systemLog) {
+        LocalDateTime timestamp = systemLog.getTimestamp() != null ? systemLog.getTimestamp() : LocalDateTime.now();
+        String endpoint = normalizeEndpoint(systemLog.getEndpoint());
+        Key key = new Key(timestamp.truncatedTo(ChronoUnit.MINUTES),
+                systemLog.getLevel() != null ? systemLog.getLevel().name() : "",
+                systemLog.getType() != null ? systemLog.getType().name() : "",
+                endpoint,
+                systemLog.getHttpStatus() != null ? systemLog.getHttpStatus() : 0);
+
+        long[] count = pending.get(key);
+        if (count == null) {
+            if (pending.size() >= MAX_PENDING_KEYS && !endpoint.isEmpty()) {
+                key = new Key(key.bucket, key.level, key.type, OTHER_ENDPOINT, key.httpStatus);
+            }
+            count = pending.computeIfAbsent(key, k -> new long[1]);
+        }
+        count[0]++;
+    }
+
+    static String normalizeEndpoint(String endpoint) {
+        if (endpoint == null || endpoint.isEmpty()) {
+            return "";
+        }
+        int query = endpoint.indexOf('?');
+        String path = query >= 0 ? endpoint.substring(0, query) : endpoint;
+        path = NUMERIC_SEGMENT.matcher(path).replaceAll("/{id}");
+        path = UUID_SEGMENT.matcher(path).replaceAll("/{id}");
+        return path.length() > MAX_ENDPOINT_LENGTH ? path.substring(0, MAX_ENDPOINT_LENGTH) : path;
+    }
+
+    /**
+     * Bekleyen sayıları tabloya ekler. Hata durumunda sayılar bir sonraki flush'a bırakılır.
+     */
+    public int flush() {
+        Map<Key, long[]> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((key, count) -> rows.add(new Object[]{
+                Timestamp.valueOf(key.bucket), key.level, key.type, key.endpoint, key.httpStatus, count[0]}));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            flushedRows.add(rows.size());
+            return rows.size();
+
+        } catch (Exception e) {
+            failedFlushes.increment();
+            log.warn("Failed to flush {} system log counts, will retry: {}", rows.size(), e.getMessage());
+            synchronized (this) {
+                batch.forEach((key, count) -> pending.computeIfAbsent(key, k -> new long[1])[0] += count[0]);
+            }
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    /**
+     * [startDate, endDate) aralığındaki dakikaları ham system_logs'tan yeniden hesaplar.
+     * Migration sonrası geçmişi doldurmak veya kayıp sayıları düzeltmek içindir.
+     * Silme ve yeniden hesaplama tek transaction'da yapılır; henüz flush edilmemiş olabilecek son dakikalar
+     * (count-flush-interval içinde kalanlar) kabul edilmez, aksi halde bekleyen sayılar ikinci kez eklenir.
+     * Ham kayıtların saklama süresi kontrolü çağırana aittir (SystemLogService.rebuildLogCounts).
+     * Yalnızca yazılmış satırlar sayılabildiğinden aralıktaki bastırılmış olaylar sonuçta yer almaz.
+     */
+    public int rebuild(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime fromBucket = startDate.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime toBucket = endDate.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime latest = LocalDateTime.now()
+                .minus(systemLogConfig.getCountFlushInterval(), ChronoUnit.MILLIS)
+                .truncatedTo(ChronoUnit.MINUTES);
+        if (!fromBucket.isBefore(toBucket)) {
+            throw new ValidationException("startDate must be before endDate");
+        }
+        if (toBucket.isAfter(latest)) {
+            throw new ValidationException("endDate must not be later than " + latest + "; newer minutes may still be flushing");
+        }
+
+        Timestamp from = Timestamp.valueOf(fromBucket);
+        Timestamp to = Timestamp.valueOf(toBucket);
+        Integer rebuilt = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM system_log_counts WHERE bucket >= ? AND bucket < ?", from, to);
+            return jdbcTemplate.update(REBUILD_SQL, from, to);
+        });
+        return rebuilt != null ? rebuilt : 0;
+    }
+
+    /**
+     * Saklama süresinden eski bucket'ları siler
+     */
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM system_log_counts WHERE bucket < ?", Timestamp.valueOf(cutoff));
+    }
+
+    public List<Object[]> countByLevel(LocalDateTime startDate, LocalDateTime endDate) {
+        return jdbcTemplate.query("SELECT level, SUM(count) FROM system_log_counts" + RANGE +
+                        " AND level <> '' GROUP BY level ORDER BY level",
+                (rs, rowNum) -> new Object[]{LogLevel.valueOf(rs.getString(1)), rs.getLong(2)},
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+    }
+
+    public List<Object[]> countByType(LocalDateTime startDate, LocalDateTime endDate) {
+        return jdbcTemplate.query("SELECT type, SUM(count) FROM system_log_counts" + RANGE +
+                        " AND type <> '' GROUP BY type ORDER BY type",
+                (rs, rowNum) -> new Object[]{LogType.valueOf(rs.getString(1)), rs.getLong(2)},
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+    }
+
+    public List<Object[]> countByEndpoint(LocalDateTime startDate, LocalDateTime endDate, int limit) {
+        return jdbcTemplate.query("SELECT endpoint, SUM(count) AS total FROM system_log_counts" + RANGE +
+                        " AND endpoint <> '' GROUP BY endpoint ORDER BY total DESC LIMIT ?",
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)},
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate), limit);
+    }
+
+    public List<Object[]> countByHttpStatus(LocalDateTime startDate, LocalDateTime endDate) {
+        return jdbcTemplate.query("SELECT http_status, SUM(count) FROM system_log_counts" + RANGE +
+                        " AND http_status <> 0 GROUP BY http_status ORDER BY http_status",
+                (rs, rowNum) -> new Object[]{rs.getInt(1), rs.getLong(2)},
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+    }
+
+    public long countByLevelSince(LogLevel level, LocalDateTime startDate) {
+        Long count = jdbcTemplate.queryForObject("SELECT coalesce(SUM(count), 0) FROM system_log_counts" + RANGE +
+                        " AND level = ?",
+                Long.class, Timestamp.valueOf(startDate), Timestamp.valueOf(LocalDateTime.now()), level.name());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Saklanan tüm bucket'lar üzerinden seviye bazında toplamlar
+     */
+    public Map<LogLevel, Long> totalsByLevel() {
+        Map<LogLevel, Long> totals = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT level, SUM(count) FROM system_log_counts WHERE level <> '' GROUP BY level",
+                rs -> {
+                    totals.put(LogLevel.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        return totals;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("pendingKeys", pending.size());
+        }
+        stats.put("flushedRows", flushedRows.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        stats.put("retentionDays", systemLogConfig.getCountRetentionDays());
+        return stats;
+    }
+
+    private static final class Key {
+        private final LocalDateTime bucket;
+        private final String level;
+        private final String type;
+        private final String endpoint;
+        private final int httpStatus;
+
+        private Key(LocalDateTime bucket, String level, String type, String endpoint, int httpStatus) {
+            this.bucket = bucket;
+            this.level = level;
+            this.type = type;
+            this.endpoint = endpoint;
+            this.httpStatus = httpStatus;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return httpStatus == other.httpStatus && bucket.equals(other.bucket) && level.equals(other.level)
+                    && type.equals(other.type) && endpoint.equals(other.endpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucket, level, type, endpoint, httpStatus);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.constant.LogLevel;
+import com.prospect.crm.model.SystemLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ERROR/FATAL logları parmak izine (ErrorFingerprint) göre gruplar.
+ * Her grup için system_log_error_groups tablosunda tek bir kanonik stack trace,
+ * tekrar sayısı ve ilk/son görülme zamanı tutulur. Aynı hatanın sonraki kayıtları
+ * system_logs'a stack trace'siz yazılır ve dakikada errorGroupRowsPerMinute'tan
+ * fazlası yalnızca sayaca eklenir; hata fırtınalarında yazma hacmi grup sayısıyla sınırlı kalır.
+ */
+@Slf4j
+@Component
+public class SystemLogErrorGroups {
+
+    // Bellekte izlenen grup sınırı; aşılırsa flush sonrası boşta kalan gruplar unutulur
+    private static final int MAX_TRACKED_GROUPS = 5000;
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private static final String UPSERT_SQL = "INSERT INTO system_log_error_groups (fingerprint, exception_class, " +
+            "class_name, method_name, message, stack_trace, occurrences, first_seen, last_seen) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (fingerprint) DO UPDATE SET " +
+            "occurrences = system_log_error_groups.occurrences + EXCLUDED.occurrences, " +
+            "last_seen = GREATEST(system_log_error_groups.last_seen, EXCLUDED.last_seen), " +
+            "message = EXCLUDED.message, " +
+            "stack_trace = COALESCE(system_log_error_groups.stack_trace, EXCLUDED.stack_trace)";
+
+    private static final String SELECT_COLUMNS = "SELECT fingerprint, exception_class, class_name, method_name, message, " +
+            "occurrences, first_seen, last_seen";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SystemLogConfig systemLogConfig;
+
+    private final Map<String, GroupState> groups = new HashMap<>();
+
+    private final LongAdder suppressedRows = new LongAdder();
+    private final LongAdder strippedTraces = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public SystemLogErrorGroups(JdbcTemplate jdbcTemplate, SystemLogConfig systemLogConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.systemLogConfig = systemLogConfig;
+    }
+
+    /**
+     * Kaydı grubuna ekler ve errorFingerprint alanını doldurur.
+     * Grubun stack trace'i daha önce yazıldıysa kayıttan çıkarılır.
+     * Kayıt system_logs'a yazılmamalıysa (dakikalık sınır aşıldı) false döner; FATAL her zaman yazılır.
+     */
+    public boolean admit(SystemLog systemLog) {
+        String fingerprint = ErrorFingerprint.compute(systemLog.getStackTrace(), systemLog.getClassName(),
+                systemLog.getMethodName(), systemLog.getMessage());
+        systemLog.setErrorFingerprint(fingerprint);
+        LocalDateTime now = systemLog.getTimestamp() != null ? systemLog.getTimestamp() : LocalDateTime.now();
+        LocalDateTime minute = now.truncatedTo(ChronoUnit.MINUTES);
+
+        synchronized (this) {
+            GroupState group = groups.get(fingerprint);
+            if (group == null) {
+                group = new GroupState(systemLog, now);
+                groups.put(fingerprint, group);
+            }
+            group.pending++;
+            group.lastSeen = now;
+            group.message = systemLog.getMessage();
+
+            if (!minute.equals(group.windowMinute)) {
+                group.windowMinute = minute;
+                group.windowRows = 0;
+            }
+            if (systemLog.getLevel() != LogLevel.FATAL && group.windowRows >= systemLogConfig.getErrorGroupRowsPerMinute()) {
+                suppressedRows.increment();
+                return false;
+            }
+            group.windowRows++;
+
+            if (group.traceWritten && systemLog.getStackTrace() != null) {
+                systemLog.setStackTrace(null);
+                strippedTraces.increment();
+            } else if (systemLog.getStackTrace() != null) {
+                group.traceWritten = true;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Bekleyen sayaçları system_log_error_groups tablosuna ekler
+     */
+    public int flush() {
+        List<Object[]> rows = new ArrayList<>();
+        Map<GroupState, Long> flushed = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<String, GroupState> entry : groups.entrySet()) {
+                GroupState group = entry.getValue();
+                if (group.pending == 0) {
+                    continue;
+                }
+                rows.add(new Object[]{entry.getKey(), group.exceptionClass, group.className, group.methodName,
+                        truncate(group.message), group.stored ? null : group.stackTrace, group.pending,
+                        Timestamp.valueOf(group.firstSeen), Timestamp.valueOf(group.lastSeen)});
+                flushed.put(group, group.pending);
+                group.pending = 0;
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (Exception e) {
+            failedFlushes.increment();
+            log.warn("Failed to flush {} error groups, will retry: {}", rows.size(), e.getMessage());
+            synchronized (this) {
+                flushed.forEach((group, pending) -> group.pending += pending);
+            }
+            return 0;
+        }
+
+        synchronized (this) {
+            for (GroupState group : flushed.keySet()) {
+                // Kanonik stack trace tabloya yazıldı; bellekte tutmaya gerek yok
+                group.stored = true;
+                group.stackTrace = null;
+            }
+            if (groups.size() > MAX_TRACKED_GROUPS) {
+                groups.values().removeIf(group -> group.pending == 0);
+            }
+        }
+        return rows.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    /**
+     * since sonrasında görülen grupları tekrar sayısına göre sıralı döner
+     */
+    public List<Map<String, Object>> topGroups(LocalDateTime since, int limit) {
+        return jdbcTemplate.query(SELECT_COLUMNS + " FROM system_log_error_groups WHERE last_seen >= ? " +
+                        "ORDER BY occurrences DESC, last_seen DESC LIMIT ?",
+                (rs, rowNum) -> toMap(rs), Timestamp.valueOf(since), limit);
+    }
+
+    public Map<String, Object> findGroup(String fingerprint) {
+        List<Map<String, Object>> result = jdbcTemplate.query(SELECT_COLUMNS + ", stack_trace " +
+                        "FROM system_log_error_groups WHERE fingerprint = ?",
+                (rs, rowNum) -> {
+                    Map<String, Object> group = toMap(rs);
+                    group.put("stackTrace", rs.getString("stack_trace"));
+                    return group;
+                }, fingerprint);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * last_seen değeri cutoff'tan eski grupları siler
+     */
+    public int deleteBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM system_log_error_groups WHERE last_seen < ?", Timestamp.valueOf(cutoff));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("trackedGroups", groups.size());
+        }
+        stats.put("suppressedRows", suppressedRows.sum());
+        stats.put("strippedTraces", strippedTraces.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        return stats;
+    }
+
+    private static Map<String, Object> toMap(ResultSet rs) throws SQLException {
+        Map<String, Object> group = new LinkedHashMap<>();
+        group.put("fingerprint", rs.getString("fingerprint"));
+        group.put("exceptionClass", rs.getString("exception_class"));
+        group.put("className", rs.getString("class_name"));
+        group.put("methodName", rs.getString("method_name"));
+        group.put("message", rs.getString("message"));
+        group.put("occurrences", rs.getLong("occurrences"));
+        group.put("firstSeen", rs.getTimestamp("first_seen").toLocalDateTime());
+        group.put("lastSeen", rs.getTimestamp("last_seen").toLocalDateTime());
+        return group;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_MESSAGE_LENGTH ? value.substring(0, MAX_MESSAGE_LENGTH) : value;
+    }
+
+    private static final class GroupState {
+        private final String exceptionClass;
+        private final String className;
+        private final String methodName;
+        private final LocalDateTime firstSeen;
+        private String stackTrace;
+        private String message;
+        private LocalDateTime lastSeen;
+        private long pending;
+        private boolean stored;
+        private boolean traceWritten;
+        private LocalDateTime windowMinute;
+        private int windowRows;
+
+        private GroupState(SystemLog systemLog, LocalDateTime firstSeen) {
+            this.exceptionClass = ErrorFingerprint.exceptionClass(systemLog.getStackTrace());
+            this.className = systemLog.getClassName();
+            this.methodName = systemLog.getMethodName();
+            this.stackTrace = systemLog.getStackTrace();
+            this.firstSeen = firstSeen;
+            this.lastSeen = firstSeen;
+        }
+    }
+}
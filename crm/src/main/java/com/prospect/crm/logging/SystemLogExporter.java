@@ -0,0 +1,235 @@
+package com.prospect.crm.logging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.prospect.crm.constant.LogExportFormat;
+import com.prospect.crm.constant.LogLevel;
+import com.prospect.crm.constant.LogType;
+import com.prospect.crm.exception.BadRequestException;
+import com.prospect.crm.model.SystemLog;
+import com.prospect.crm.repository.SystemLogRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * System logları sunucu taraflı cursor ile okuyup NDJSON veya CSV olarak akıtır.
+ * Kayıtlar tek tek yazılıp persistence context'ten çıkarılır; bellek kullanımı
+ * satır sayısından bağımsızdır.
+ */
+@Slf4j
+@Component
+public class SystemLogExporter {
+
+    private static final LocalDateTime EXPORT_MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Export edilebilen alanlar, varsayılan sırasıyla
+    private static final Map<String, Function<SystemLog, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", SystemLog::getId);
+        FIELDS.put("timestamp", SystemLog::getTimestamp);
+        FIELDS.put("level", SystemLog::getLevel);
+        FIELDS.put("type", SystemLog::getType);
+        FIELDS.put("message", SystemLog::getMessage);
+        FIELDS.put("details", SystemLog::getDetails);
+        FIELDS.put("stackTrace", SystemLog::getStackTrace);
+        FIELDS.put("className", SystemLog::getClassName);
+        FIELDS.put("methodName", SystemLog::getMethodName);
+        FIELDS.put("userId", SystemLog::getUserId);
+        FIELDS.put("ipAddress", SystemLog::getIpAddress);
+        FIELDS.put("userAgent", SystemLog::getUserAgent);
+        FIELDS.put("executionTime", SystemLog::getExecutionTime);
+        FIELDS.put("requestId", SystemLog::getRequestId);
+        FIELDS.put("endpoint", SystemLog::getEndpoint);
+        FIELDS.put("httpMethod", SystemLog::getHttpMethod);
+        FIELDS.put("httpStatus", SystemLog::getHttpStatus);
+        FIELDS.put("requestBody", SystemLog::getRequestBody);
+        FIELDS.put("responseBody", SystemLog::getResponseBody);
+        FIELDS.put("errorFingerprint", SystemLog::getErrorFingerprint);
+    }
+
+    private final SystemLogRepository systemLogRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    // Her değer yazımında çıktıyı flush etmez; flush yalnızca sonda yapılır
+    private final ObjectWriter valueWriter;
+
+    public SystemLogExporter(SystemLogRepository systemLogRepository, EntityManager entityManager,
+                             TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.systemLogRepository = systemLogRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.valueWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * İstenen alan adlarını doğrular; boşsa tüm alanlar döner
+     */
+    public List<String> resolveFields(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return new ArrayList<>(FIELDS.keySet());
+        }
+        List<String> fields = new ArrayList<>(requested.size());
+        for (String field : requested) {
+            String name = field.trim();
+            if (!FIELDS.containsKey(name)) {
+                throw new BadRequestException("Unknown export field: " + name + ". Allowed: " + FIELDS.keySet());
+            }
+            if (!fields.contains(name)) {
+                fields.add(name);
+            }
+        }
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * Filtreye uyan logları out'a yazar ve yazılan satır sayısını döner.
+     * Çağıran thread'de okuma amaçlı bir transaction açılır; PostgreSQL sürücüsü
+     * fetch size'ı yalnızca transaction içinde cursor olarak uygular.
+     */
+    public long export(OutputStream out, LogExportFormat format, List<String> fields, boolean gzip,
+                       LogLevel level, LogType type, LocalDateTime startDate, LocalDateTime endDate) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        RowWriter writer = format == LogExportFormat.CSV ? new CsvRowWriter(target, fields) : new NdjsonRowWriter(target, fields);
+        LocalDateTime start = startDate != null ? startDate : EXPORT_MIN_DATE;
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now().plusMinutes(1);
+
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<SystemLog> logs = systemLogRepository.streamForExport(level, type, start, end)) {
+                    for (SystemLog systemLog : (Iterable<SystemLog>) logs::iterator) {
+                        writer.write(systemLog);
+                        entityManager.detach(systemLog);
+                        count++;
+                    }
+                }
+                return count;
+            });
+            writer.finish();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            return rows != null ? rows : 0;
+
+        } catch (UncheckedIOException e) {
+            // İstemci bağlantıyı kapattıysa transaction geri alınır, cursor serbest kalır
+            log.warn("System log export aborted: {}", e.getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private interface RowWriter {
+        void write(SystemLog systemLog);
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final List<String> fields;
+
+        private NdjsonRowWriter(OutputStream out, List<String> fields) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Kök nesneler arasına varsayılan boşluk yerine yalnızca satır sonu yazılır
+            this.generator.setRootValueSeparator(null);
+            this.fields = fields;
+        }
+
+        @Override
+        public void write(SystemLog systemLog) {
+            try {
+                generator.writeStartObject();
+                for (String field : fields) {
+                    generator.writeFieldName(field);
+                    valueWriter.writeValue(generator, FIELDS.get(field).apply(systemLog));
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<String> fields;
+        private final StringBuilder line = new StringBuilder(256);
+
+        private CsvRowWriter(OutputStream out, List<String> fields) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            this.fields = fields;
+            writer.write(String.join(",", fields));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(SystemLog systemLog) {
+            line.setLength(0);
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                Object value = FIELDS.get(fields.get(i)).apply(systemLog);
+                if (value != null) {
+                    appendEscaped(line, value.toString());
+                }
+            }
+            line.append("\r\n");
+            try {
+                writer.write(line.toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void appendEscaped(StringBuilder target, String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                target.append(value);
+                return;
+            }
+            target.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+    }
+}
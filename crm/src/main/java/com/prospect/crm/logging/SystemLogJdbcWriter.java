@@ -0,0 +1,87 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.model.SystemLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * system_logs tablosuna JDBC batch insert yapar.
+ * Hibernate persistence context'ine girmeden tek round-trip'te çok sayıda kayıt yazar.
+ * Id'ler entity ile aynı pooled-lo düzeniyle ayrılır: her nextval SystemLog.ID_ALLOCATION_SIZE'lık
+ * bir blok verir, böylece Hibernate ile çakışmadan tek sequence çağrısıyla yüzlerce kayıt yazılır.
+ */
+@Component
+public class SystemLogJdbcWriter {
+
+    private static final String NEXT_BLOCK_SQL = "SELECT nextval('system_logs_id_seq')";
+
+    private static final String INSERT_SQL = "INSERT INTO system_logs (id, level, type, message, details, stack_trace, " +
+            "class_name, method_name, user_id, ip_address, user_agent, timestamp, execution_time, request_id, " +
+            "endpoint, http_method, http_status, request_body, response_body, error_fingerprint) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SystemLogCounts systemLogCounts;
+
+    // Ayrılmış bloktaki sıradaki id ve bloğun üst sınırı (hariç)
+    private long nextId;
+    private long blockEnd;
+
+    public SystemLogJdbcWriter(JdbcTemplate jdbcTemplate, SystemLogCounts systemLogCounts, SystemLogConfig systemLogConfig) {
+        // Takılan bir veritabanı yazıcı thread'ini writeTimeout'tan uzun bekletmesin diye ayrı şablon
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(systemLogConfig.getWriteTimeout())));
+        this.systemLogCounts = systemLogCounts;
+    }
+
+    public void insertBatch(List<SystemLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        // Spool'dan dönen kayıtlar da yeni id alır; yarım kalmış bir batch'in id'leri tekrar kullanılmaz
+        for (SystemLog log : logs) {
+            log.setId(nextId());
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, logs.size(), SystemLogJdbcWriter::bind);
+        systemLogCounts.record(logs);
+    }
+
+    private synchronized long nextId() {
+        if (nextId >= blockEnd) {
+            Long lo = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+            nextId = lo;
+            blockEnd = lo + SystemLog.ID_ALLOCATION_SIZE;
+        }
+        return nextId++;
+    }
+
+    private static void bind(PreparedStatement ps, SystemLog log) throws SQLException {
+        ps.setLong(1, log.getId());
+        ps.setString(2, log.getLevel() != null ? log.getLevel().name() : null);
+        ps.setString(3, log.getType() != null ? log.getType().name() : null);
+        ps.setString(4, log.getMessage());
+        ps.setString(5, log.getDetails());
+        ps.setString(6, log.getStackTrace());
+        ps.setString(7, log.getClassName());
+        ps.setString(8, log.getMethodName());
+        ps.setString(9, log.getUserId());
+        ps.setString(10, log.getIpAddress());
+        ps.setString(11, log.getUserAgent());
+        ps.setObject(12, log.getTimestamp());
+        ps.setObject(13, log.getExecutionTime(), Types.BIGINT);
+        ps.setString(14, log.getRequestId());
+        ps.setString(15, log.getEndpoint());
+        ps.setString(16, log.getHttpMethod());
+        ps.setObject(17, log.getHttpStatus(), Types.INTEGER);
+        ps.setString(18, log.getRequestBody());
+        ps.setString(19, log.getResponseBody());
+        ps.setString(20, log.getErrorFingerprint());
+    }
+}
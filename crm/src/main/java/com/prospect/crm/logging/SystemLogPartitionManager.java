@@ -0,0 +1,221 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.constant.LogPartitionInterval;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * system_logs tablosunun timestamp üzerinden range partition'larını yönetir.
+ * Gelecek partition'lar önceden oluşturulur; saklama süresi dolan partition'lar
+ * DELETE yerine detach edilip drop edilir. ERROR/FATAL kayıtlar drop öncesinde
+ * system_logs_archive tablosuna taşınır.
+ * Tablo partition'lı değilse (migration çalıştırılmamış) hiçbir şey yapmaz.
+ */
+@Slf4j
+@Component
+public class SystemLogPartitionManager {
+
+    private static final String PARENT_TABLE = "system_logs";
+    private static final String DEFAULT_PARTITION = "system_logs_default";
+    private static final String PARTITION_PREFIX = "system_logs_p";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // pg_get_expr çıktısı: FOR VALUES FROM ('2026-01-01 00:00:00') TO ('2026-01-02 00:00:00')
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([0-9-]+)");
+
+    private static final String IS_PARTITIONED_SQL = "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+            "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ? AND pg_table_is_visible(c.oid))";
+
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), " +
+            "GREATEST(c.reltuples, 0)::bigint FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? AND pg_table_is_visible(p.oid)";
+
+    private static final String ARCHIVE_ERRORS_SQL = "INSERT INTO system_logs_archive SELECT * FROM %s " +
+            "WHERE level IN ('ERROR', 'FATAL') ON CONFLICT (id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SystemLogConfig systemLogConfig;
+
+    public SystemLogPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                     SystemLogConfig systemLogConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.systemLogConfig = systemLogConfig;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            ensurePartitions();
+        } catch (Exception e) {
+            log.error("Failed to create system log partitions: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class, PARENT_TABLE));
+    }
+
+    /**
+     * Bugünü ve sonraki partitionPremake aralığı kapsayan partition'ları oluşturur
+     */
+    public int ensurePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        LogPartitionInterval interval = systemLogConfig.getPartitionInterval();
+        LocalDate start = interval.floor(LocalDate.now());
+        int created = 0;
+
+        for (int i = 0; i <= systemLogConfig.getPartitionPremake(); i++) {
+            LocalDate end = interval.next(start);
+            if (createPartition(start, end)) {
+                created++;
+            }
+            start = end;
+        }
+        if (created > 0) {
+            log.info("Created {} system log partitions", created);
+        }
+        return created;
+    }
+
+    private boolean createPartition(LocalDate start, LocalDate end) {
+        String name = PARTITION_PREFIX + start.format(NAME_FORMAT);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return false;
+        }
+
+        Timestamp from = Timestamp.valueOf(start.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(end.atStartOfDay());
+        String bounds = String.format("FOR VALUES FROM ('%s 00:00:00') TO ('%s 00:00:00')", start, end);
+
+        Boolean defaultHasRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE timestamp >= ? AND timestamp < ?)",
+                Boolean.class, from, to);
+
+        try {
+            if (!Boolean.TRUE.equals(defaultHasRows)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT_TABLE + " " + bounds);
+                return true;
+            }
+
+            // Partition yokken default'a düşen kayıtlar yeni partition'a taşınıp öyle bağlanır
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE timestamp >= ? AND timestamp < ? RETURNING *) INSERT INTO " + name + " SELECT * FROM moved",
+                        from, to);
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + name + " " + bounds);
+            });
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to create system log partition {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Tamamı cutoff'tan eski olan partition'ları kaldırır.
+     * archiveErrors true ise ERROR/FATAL kayıtlar önce system_logs_archive'a kopyalanır.
+     * Sınırdaki partition'a dokunulmaz; kalan kısmı çağıran taraf DELETE ile temizler.
+     */
+    public RetentionResult dropPartitionsBefore(LocalDateTime cutoff, boolean archiveErrors) {
+        if (!isPartitioned()) {
+            return RetentionResult.EMPTY;
+        }
+
+        List<String> expired = new ArrayList<>();
+        long estimatedRows = 0;
+        for (PartitionInfo partition : listPartitions()) {
+            if (partition.upperBound != null && !partition.upperBound.isAfter(cutoff)) {
+                expired.add(partition.name);
+                estimatedRows += partition.estimatedRows;
+            }
+        }
+
+        long archived = 0;
+        int dropped = 0;
+        for (String name : expired) {
+            Long count = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + name);
+                long copied = archiveErrors ? jdbcTemplate.update(String.format(ARCHIVE_ERRORS_SQL, name)) : 0;
+                jdbcTemplate.execute("DROP TABLE " + name);
+                return copied;
+            });
+            archived += count != null ? count : 0;
+            dropped++;
+            log.info("Dropped system log partition {}", name);
+        }
+        return new RetentionResult(dropped, archived, estimatedRows);
+    }
+
+    private List<PartitionInfo> listPartitions() {
+        return jdbcTemplate.query(LIST_PARTITIONS_SQL, (rs, rowNum) -> {
+            String name = rs.getString(1);
+            Matcher matcher = UPPER_BOUND.matcher(rs.getString(2));
+            // Default partition'ın üst sınırı yoktur ve asla drop edilmez
+            LocalDateTime upperBound = matcher.find() ? LocalDate.parse(matcher.group(1)).atStartOfDay() : null;
+            return new PartitionInfo(name, upperBound, rs.getLong(3));
+        }, PARENT_TABLE);
+    }
+
+    private static final class PartitionInfo {
+        private final String name;
+        private final LocalDateTime upperBound;
+        private final long estimatedRows;
+
+        private PartitionInfo(String name, LocalDateTime upperBound, long estimatedRows) {
+            this.name = name;
+            this.upperBound = upperBound;
+            this.estimatedRows = estimatedRows;
+        }
+    }
+
+    public static final class RetentionResult {
+        static final RetentionResult EMPTY = new RetentionResult(0, 0, 0);
+
+        private final int partitionsDropped;
+        private final long rowsArchived;
+        private final long rowsDroppedEstimate;
+
+        RetentionResult(int partitionsDropped, long rowsArchived, long rowsDroppedEstimate) {
+            this.partitionsDropped = partitionsDropped;
+            this.rowsArchived = rowsArchived;
+            this.rowsDroppedEstimate = rowsDroppedEstimate;
+        }
+
+        public int getPartitionsDropped() {
+            return partitionsDropped;
+        }
+
+        public long getRowsArchived() {
+            return rowsArchived;
+        }
+
+        /**
+         * pg_class.reltuples tahmini; satırları saymak partition drop'un amacını bozar
+         */
+        public long getRowsDroppedEstimate() {
+            return rowsDroppedEstimate;
+        }
+    }
+}
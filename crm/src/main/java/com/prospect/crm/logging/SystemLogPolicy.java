@@ -0,0 +1,237 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.constant.LogLevel;
+import com.prospect.crm.constant.LogType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Yüksek frekanslı log olayları için örnekleme ve hız sınırı politikası.
+ * Kurallar LogType veya LogType + mesaj bazında tanımlanır; her (tip, mesaj) anahtarı için
+ * ayrı token bucket tutulur. Bastırılan olaylar sayılır ve periyodik olarak tek bir özet
+ * kaydı halinde yazılır, böylece nadir olaylar ve toplam hacim görünür kalır.
+ * WARN ve üzeri seviyeler her zaman yazılır.
+ */
+@Slf4j
+@Component
+public class SystemLogPolicy {
+
+    // Farklı mesaj sayısı bu sınırı aşarsa yeni mesajlar kuralın ortak anahtarını paylaşır
+    private static final int MAX_TRACKED_KEYS = 1024;
+
+    private final Map<LogType, Map<String, Rule>> messageRules = new EnumMap<>(LogType.class);
+    private final Map<LogType, Rule> typeRules = new EnumMap<>(LogType.class);
+    private final Map<String, KeyState> states = new ConcurrentHashMap<>();
+
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    private volatile long lastDrainNanos = System.nanoTime();
+
+    public SystemLogPolicy(SystemLogConfig systemLogConfig) {
+        for (SystemLogConfig.PolicyRule ruleConfig : systemLogConfig.getPolicies()) {
+            if (ruleConfig.getType() == null) {
+                log.warn("Ignoring system log policy without type: {}", ruleConfig);
+                continue;
+            }
+            Rule rule = new Rule(ruleConfig);
+            String message = ruleConfig.getMessage();
+            if (message == null || message.isBlank()) {
+                typeRules.put(ruleConfig.getType(), rule);
+            } else {
+                messageRules.computeIfAbsent(ruleConfig.getType(), t -> new HashMap<>()).put(message, rule);
+            }
+        }
+        if (!systemLogConfig.getPolicies().isEmpty()) {
+            log.info("System log policy loaded with {} rules", systemLogConfig.getPolicies().size());
+        }
+    }
+
+    /**
+     * Olayın system_logs tablosuna yazılıp yazılmayacağını belirler.
+     * Yazılmayan olaylar rollup sayacına eklenir.
+     */
+    public boolean shouldWrite(LogLevel level, LogType type, String message) {
+        if (type == null || (level != null && level.compareTo(LogLevel.WARN) >= 0)) {
+            return true;
+        }
+        Rule rule = findRule(type, message);
+        if (rule == null) {
+            return true;
+        }
+
+        KeyState state = stateFor(rule, type, message);
+        if (rule.sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rule.sampleRate) {
+            state.suppressed.increment();
+            sampledOut.increment();
+            return false;
+        }
+        if (state.bucket != null && !state.bucket.tryAcquire()) {
+            state.suppressed.increment();
+            rateLimited.increment();
+            return false;
+        }
+        state.written.increment();
+        return true;
+    }
+
+    private Rule findRule(LogType type, String message) {
+        Map<String, Rule> byMessage = messageRules.get(type);
+        if (byMessage != null && message != null) {
+            Rule rule = byMessage.get(message);
+            if (rule != null) {
+                return rule;
+            }
+        }
+        return typeRules.get(type);
+    }
+
+    private KeyState stateFor(Rule rule, LogType type, String message) {
+        String key = type.name() + ':' + (message != null ? message : "");
+        KeyState state = states.get(key);
+        if (state != null) {
+            return state;
+        }
+        if (states.size() >= MAX_TRACKED_KEYS) {
+            key = type.name() + ":*";
+            message = "*";
+        }
+        String stateMessage = message;
+        return states.computeIfAbsent(key, k -> new KeyState(type, stateMessage, rule));
+    }
+
+    /**
+     * Son çağrıdan bu yana bastırılan olayların sayılarını döner ve sıfırlar
+     */
+    public List<Rollup> drainRollups() {
+        long now = System.nanoTime();
+        long windowSeconds = Math.max(1, (now - lastDrainNanos) / 1_000_000_000L);
+        lastDrainNanos = now;
+
+        List<Rollup> rollups = new ArrayList<>();
+        for (KeyState state : states.values()) {
+            long suppressed = state.suppressed.sumThenReset();
+            long written = state.written.sumThenReset();
+            if (suppressed > 0) {
+                rollups.add(new Rollup(state.type, state.message, suppressed, written, windowSeconds));
+            }
+        }
+        return rollups;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rules", typeRules.size() + messageRules.values().stream().mapToInt(Map::size).sum());
+        stats.put("trackedKeys", states.size());
+        stats.put("sampledOut", sampledOut.sum());
+        stats.put("rateLimited", rateLimited.sum());
+
+        Map<String, Long> pending = new LinkedHashMap<>();
+        states.forEach((key, state) -> {
+            long suppressed = state.suppressed.sum();
+            if (suppressed > 0) {
+                pending.put(key, suppressed);
+            }
+        });
+        stats.put("pendingRollups", pending);
+        return stats;
+    }
+
+    public static final class Rollup {
+        private final LogType type;
+        private final String message;
+        private final long suppressed;
+        private final long written;
+        private final long windowSeconds;
+
+        private Rollup(LogType type, String message, long suppressed, long written, long windowSeconds) {
+            this.type = type;
+            this.message = message;
+            this.suppressed = suppressed;
+            this.written = written;
+            this.windowSeconds = windowSeconds;
+        }
+
+        public LogType getType() {
+            return type;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public long getSuppressed() {
+            return suppressed;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public long getWindowSeconds() {
+            return windowSeconds;
+        }
+    }
+
+    private static final class Rule {
+        private final double sampleRate;
+        private final double ratePerSecond;
+        private final double burst;
+
+        private Rule(SystemLogConfig.PolicyRule config) {
+            this.sampleRate = Math.max(0.0, Math.min(1.0, config.getSampleRate()));
+            this.ratePerSecond = Math.max(0.0, config.getRatePerSecond());
+            this.burst = config.getBurst() > 0 ? config.getBurst() : Math.max(1.0, ratePerSecond);
+        }
+    }
+
+    private static final class KeyState {
+        private final LogType type;
+        private final String message;
+        private final TokenBucket bucket;
+        private final LongAdder suppressed = new LongAdder();
+        private final LongAdder written = new LongAdder();
+
+        private KeyState(LogType type, String message, Rule rule) {
+            this.type = type;
+            this.message = message;
+            this.bucket = rule.ratePerSecond > 0 ? new TokenBucket(rule.ratePerSecond, rule.burst) : null;
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(double ratePerSecond, double capacity) {
+            this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        private synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = now;
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.prospect.crm.logging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.model.SystemLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Veritabanına yazılamayan, bütçeyi aşan veya kuyruğa sığmayan log kayıtları için yerel disk spool'u.
+ * Kayıtlar sabit boyutlu, memory-mapped segment dosyalarına sırayla eklenir (append-only).
+ * Segment düzeni: [8 bayt okuma ofseti][kayıt]... ; kayıt: [uzunluk][crc32][JSON].
+ * Uzunluk en son yazılır, böylece yarım kalmış bir kayıt okuyucu için dosya sonu gibi görünür.
+ * Geri yüklenen kayıtların ofseti segment başlığına işlenir; tamamen okunan segment silinir.
+ * Toplam boyut spoolMaxBytes ile sınırlıdır, dolduğunda yeni kayıtlar reddedilir.
+ */
+@Slf4j
+@Component
+public class SystemLogSpool {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    // Sıra numarasına göre segmentler; sonuncusu aktif (yazılan) segment olabilir
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextSequence;
+    private boolean initialized;
+
+    // Aynı anda tek geri yükleme çalışır; mühürlenmiş segmentler değişmediği için okuma kilitsizdir
+    private final Object replayLock = new Object();
+
+    private final AtomicLong pendingRecords = new AtomicLong();
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder corrupt = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+
+    public SystemLogSpool(ObjectMapper objectMapper, SystemLogConfig systemLogConfig) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(systemLogConfig.getSpoolDirectory());
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(64 * 1024, systemLogConfig.getSpoolSegmentSize()));
+        this.maxSegments = (int) Math.max(1, systemLogConfig.getSpoolMaxBytes() / segmentSize);
+    }
+
+    public boolean append(SystemLog systemLog) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(systemLog);
+        } catch (IOException e) {
+            log.error("Failed to serialize system log for spool: {}", e.getMessage());
+            rejected.increment();
+            return false;
+        }
+        synchronized (this) {
+            try {
+                ensureInitialized();
+                return appendPayload(payload);
+            } catch (IOException e) {
+                log.error("Failed to spool system log: {}", e.getMessage());
+                rejected.increment();
+                return false;
+            }
+        }
+    }
+
+    private boolean appendPayload(byte[] payload) throws IOException {
+        int required = RECORD_HEADER_BYTES + payload.length;
+        if (required > segmentSize - SEGMENT_HEADER_BYTES) {
+            log.warn("System log of {} bytes exceeds spool segment size, dropped", payload.length);
+            rejected.increment();
+            return false;
+        }
+        if (active == null || active.writePosition + required > segmentSize) {
+            if (active != null) {
+                seal(active);
+            }
+            if (segments.size() >= maxSegments) {
+                rejected.increment();
+                return false;
+            }
+            active = openSegment(nextSequence++, true);
+            segments.put(active.sequence, active);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.writePosition;
+        buffer.put(position + RECORD_HEADER_BYTES, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+        active.writePosition = position + required;
+        active.records++;
+
+        pendingRecords.incrementAndGet();
+        appended.increment();
+        return true;
+    }
+
+    public boolean hasPending() {
+        return pendingRecords.get() > 0;
+    }
+
+    public long getPendingRecords() {
+        return pendingRecords.get();
+    }
+
+    /**
+     * Spool'daki tüm kayıtları batchSize'lık gruplar halinde sink'e verir.
+     * Sink hata fırlatırsa işlenmemiş kayıtlar bir sonraki denemeye kalır.
+     */
+    public int replay(int batchSize, Consumer<List<SystemLog>> sink) {
+        int total = 0;
+        int count;
+        while ((count = replayBatch(batchSize, sink)) > 0) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * En eski segmentten en fazla batchSize kaydı sink'e verir ve işlenen kayıt sayısını döner.
+     * Sink hata fırlatırsa ofset ilerlemez ve hata çağırana iletilir.
+     */
+    public int replayBatch(int batchSize, Consumer<List<SystemLog>> sink) {
+        synchronized (replayLock) {
+            Segment segment;
+            while ((segment = nextReplaySegment()) != null) {
+                List<SystemLog> batch = new ArrayList<>(batchSize);
+                int position = segment.readPosition;
+                int frames = 0;
+                int next;
+                while (frames < batchSize && (next = readRecord(segment, position, batch)) > 0) {
+                    position = next;
+                    frames++;
+                }
+
+                if (!batch.isEmpty()) {
+                    sink.accept(batch);
+                }
+                segment.readPosition = position;
+                segment.buffer.putLong(0, position);
+                segment.records -= frames;
+                pendingRecords.addAndGet(-frames);
+                replayed.add(batch.size());
+
+                if (segment.corrupted || readRecord(segment, position, null) < 0) {
+                    deleteSegment(segment);
+                }
+                if (frames > 0) {
+                    return frames;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Okunacak ilk segment; yalnızca aktif segment kaldıysa mühürlenir ve yeni kayıtlar yeni segmente yazılır
+     */
+    private synchronized Segment nextReplaySegment() {
+        try {
+            ensureInitialized();
+        } catch (IOException e) {
+            log.error("Failed to open system log spool: {}", e.getMessage());
+            return null;
+        }
+        if (segments.isEmpty()) {
+            return null;
+        }
+        Segment first = segments.firstEntry().getValue();
+        if (first == active) {
+            if (active.records == 0) {
+                return null;
+            }
+            seal(active);
+            active = null;
+        }
+        return first;
+    }
+
+    /**
+     * position'daki kaydı okur ve target'a ekler (target null ise yalnızca kontrol eder).
+     * Sonraki kaydın konumunu, kayıt yoksa veya bozuksa -1 döner.
+     */
+    private int readRecord(Segment segment, int position, List<SystemLog> target) {
+        if (position + RECORD_HEADER_BYTES > segmentSize) {
+            return -1;
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + RECORD_HEADER_BYTES + length > segmentSize) {
+            return -1;
+        }
+        if (target == null) {
+            return position + RECORD_HEADER_BYTES + length;
+        }
+
+        byte[] payload = new byte[length];
+        buffer.get(position + RECORD_HEADER_BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            // Yarım kalmış veya bozuk kayıt; segmentin geri kalanı okunamaz
+            segment.corrupted = true;
+            corrupt.increment();
+            log.warn("Corrupt record in system log spool segment {} at {}", segment.sequence, position);
+            return -1;
+        }
+        try {
+            target.add(objectMapper.readValue(payload, SystemLog.class));
+        } catch (IOException e) {
+            corrupt.increment();
+            log.warn("Unreadable record in system log spool segment {}: {}", segment.sequence, e.getMessage());
+        }
+        return position + RECORD_HEADER_BYTES + length;
+    }
+
+    private void ensureInitialized() throws IOException {
+        if (initialized) {
+            return;
+        }
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                long sequence = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                Segment segment = openSegment(sequence, false);
+                segments.put(sequence, segment);
+                pendingRecords.addAndGet(segment.records);
+            }
+        }
+        nextSequence = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        initialized = true;
+        if (!segments.isEmpty()) {
+            log.info("System log spool opened with {} segments, {} pending records", segments.size(), pendingRecords.get());
+        }
+    }
+
+    private Segment openSegment(long sequence, boolean create) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        MappedByteBuffer buffer;
+        // Mapping kanal kapatıldıktan sonra da geçerlidir; dosya tanıtıcısı tutulmaz
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        Segment segment = new Segment(sequence, path, buffer);
+        if (create) {
+            buffer.putLong(0, SEGMENT_HEADER_BYTES);
+            segment.readPosition = SEGMENT_HEADER_BYTES;
+            segment.writePosition = SEGMENT_HEADER_BYTES;
+            return segment;
+        }
+
+        // Kurtarma: okuma ofsetinden itibaren geçerli kayıtlar sayılır
+        long stored = buffer.getLong(0);
+        segment.readPosition = stored >= SEGMENT_HEADER_BYTES && stored <= segmentSize ? (int) stored : SEGMENT_HEADER_BYTES;
+        int position = segment.readPosition;
+        int next;
+        while ((next = readRecord(segment, position, null)) > 0) {
+            position = next;
+            segment.records++;
+        }
+        segment.writePosition = position;
+        return segment;
+    }
+
+    private void seal(Segment segment) {
+        segment.buffer.force();
+    }
+
+    private void deleteSegment(Segment segment) {
+        synchronized (this) {
+            segments.remove(segment.sequence);
+            if (segment == active) {
+                active = null;
+            }
+        }
+        if (segment.records > 0) {
+            // Bozuk kayıttan sonrası okunamadı
+            pendingRecords.addAndGet(-segment.records);
+            log.warn("Discarded {} unreadable records from system log spool segment {}", segment.records, segment.sequence);
+        }
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.error("Failed to delete replayed spool segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    /**
+     * Aktif segmentteki kayıtları diske zorlar; süreç çökmesinde sayfa önbelleği zaten korunur,
+     * bu çağrı işletim sistemi çökmesine karşıdır
+     */
+    public synchronized void force() {
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            seal(active);
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingRecords", pendingRecords.get());
+        stats.put("segments", segments.size());
+        stats.put("maxSegments", maxSegments);
+        stats.put("segmentSize", segmentSize);
+        stats.put("utilization", maxSegments > 0 ? (double) segments.size() / maxSegments : 0.0);
+        stats.put("appended", appended.sum());
+        stats.put("replayed", replayed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("corrupt", corrupt.sum());
+        return stats;
+    }
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+        private long records;
+        private boolean corrupted;
+
+        private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.prospect.crm.logging;
+
+import com.prospect.crm.config.SystemLogConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * system_logs yazımlarının gecikme bütçesini izler.
+ * Bir yazım writeLatencyBudget'ı aşarsa veya hata verirse veritabanı "degraded" kabul edilir;
+ * bu süre boyunca kayıtlar doğrudan disk spool'una yazılır. Bekleme süresi (degradedBackoff)
+ * dolunca bir sonraki yazım veritabanını yeniden dener, başarısız olursa süre ikiye katlanır.
+ */
+@Slf4j
+@Component
+public class SystemLogWriteBudget {
+
+    private static final long MAX_BACKOFF_MS = 60000;
+
+    private final long budgetNanos;
+    private final long initialBackoffMs;
+
+    private volatile boolean degraded;
+    private volatile long retryAtNanos;
+    private long backoffMs;
+    private long degradedSinceMillis;
+
+    private final LongAdder slowWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final LongAdder fallbackRecords = new LongAdder();
+    private volatile long lastLatencyMillis;
+
+    public SystemLogWriteBudget(SystemLogConfig systemLogConfig) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(systemLogConfig.getWriteLatencyBudget());
+        this.initialBackoffMs = systemLogConfig.getDegradedBackoff();
+        this.backoffMs = initialBackoffMs;
+    }
+
+    /**
+     * Veritabanı sağlıklıysa veya bekleme süresi dolduysa (yeniden deneme) true
+     */
+    public boolean allowDatabaseWrite() {
+        return !degraded || System.nanoTime() - retryAtNanos >= 0;
+    }
+
+    public void recordSuccess(long elapsedNanos) {
+        lastLatencyMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedNanos > budgetNanos) {
+            slowWrites.increment();
+            trip("write took " + lastLatencyMillis + " ms");
+        } else if (degraded) {
+            recover();
+        }
+    }
+
+    public void recordFailure(Exception e) {
+        failedWrites.increment();
+        trip(e.getMessage());
+    }
+
+    public void recordFallback(int records) {
+        fallbackRecords.add(records);
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    private synchronized void trip(String reason) {
+        if (degraded) {
+            backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+        } else {
+            backoffMs = initialBackoffMs;
+            degradedSinceMillis = System.currentTimeMillis();
+            log.warn("System log database writes degraded, spooling to disk: {}", reason);
+        }
+        retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        degraded = true;
+    }
+
+    private synchronized void recover() {
+        if (!degraded) {
+            return;
+        }
+        degraded = false;
+        backoffMs = initialBackoffMs;
+        log.info("System log database writes recovered after {} ms", System.currentTimeMillis() - degradedSinceMillis);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("degraded", degraded);
+        stats.put("latencyBudgetMs", TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+        stats.put("lastLatencyMs", lastLatencyMillis);
+        stats.put("slowWrites", slowWrites.sum());
+        stats.put("failedWrites", failedWrites.sum());
+        stats.put("fallbackRecords", fallbackRecords.sum());
+        synchronized (this) {
+            stats.put("backoffMs", degraded ? backoffMs : 0);
+        }
+        return stats;
+    }
+}
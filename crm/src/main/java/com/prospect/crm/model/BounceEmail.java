@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class BounceEmail {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bounce_emails_seq")
-    @SequenceGenerator(name = "bounce_emails_seq", sequenceName = "bounce_emails_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "bounce_emails_seq", sequenceName = "bounce_emails_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 public class DailyEmailLimit {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_email_limits_seq")
-    @SequenceGenerator(name = "daily_email_limits_seq", sequenceName = "daily_email_limits_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "daily_email_limits_seq", sequenceName = "daily_email_limits_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
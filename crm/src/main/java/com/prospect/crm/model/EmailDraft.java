@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 public class EmailDraft {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_drafts_id_gen")
-    @SequenceGenerator(name = "email_drafts_id_gen", sequenceName = "email_drafts_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "email_drafts_id_gen", sequenceName = "email_drafts_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class EmailLog {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_logs_id_gen")
-    @SequenceGenerator(name = "email_logs_id_gen", sequenceName = "email_logs_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "email_logs_id_gen", sequenceName = "email_logs_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
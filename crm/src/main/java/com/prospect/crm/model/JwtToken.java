@@ -13,18 +13,17 @@ import java.time.LocalDateTime;
 @Table(name = "jwt_token")
 public class JwtToken {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jwt_token_id_gen")
+    @SequenceGenerator(name = "jwt_token_id_gen", sequenceName = "jwt_token_id_seq", initialValue = 1001, allocationSize = 500)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private Users userId;
 
-    @Column(columnDefinition = "TEXT")
-    private String accessToken;
-    
-    @Column(columnDefinition = "TEXT")
-    private String refreshToken;
+    // Token'ın SHA-256 özeti (64 hex karakter), ham token saklanmaz
+    @Column(length = 64, nullable = false, unique = true)
+    private String tokenDigest;
     
     private String tokenType; // ACCESS, REFRESH
     private LocalDateTime issuedAt;
@@ -33,6 +32,8 @@ public class JwtToken {
     @ColumnDefault("false")
     private Boolean revoked;
     
+    private LocalDateTime revokedAt;
+    
     @ColumnDefault("false")
     private Boolean expired;
 }
\ No newline at end of file
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 public class Lead {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leads_id_gen")
-    @SequenceGenerator(name = "leads_id_gen", sequenceName = "leads_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "leads_id_gen", sequenceName = "leads_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "users_id", nullable = false)
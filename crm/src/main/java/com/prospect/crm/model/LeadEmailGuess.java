@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class LeadEmailGuess {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lead_email_guesses_id_gen")
-    @SequenceGenerator(name = "lead_email_guesses_id_gen", sequenceName = "lead_email_guesses_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "lead_email_guesses_id_gen", sequenceName = "lead_email_guesses_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 public class OauthToken {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "oauth_tokens_id_gen")
-    @SequenceGenerator(name = "oauth_tokens_id_gen", sequenceName = "oauth_tokens_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "oauth_tokens_id_gen", sequenceName = "oauth_tokens_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
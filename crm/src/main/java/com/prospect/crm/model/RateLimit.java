@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class RateLimit {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rate_limit_seq")
-    @SequenceGenerator(name = "rate_limit_seq", sequenceName = "rate_limits_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "rate_limit_seq", sequenceName = "rate_limits_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class RobotInstance {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "robot_instance_seq")
-    @SequenceGenerator(name = "robot_instance_seq", sequenceName = "robot_instances_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "robot_instance_seq", sequenceName = "robot_instances_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     private String robotType;
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class RobotLog {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "robot_log_seq")
-    @SequenceGenerator(name = "robot_log_seq", sequenceName = "robot_logs_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "robot_log_seq", sequenceName = "robot_logs_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -15,7 +15,7 @@ import org.hibernate.annotations.ColumnDefault;
 public class Role {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_seq")
-    @SequenceGenerator(name = "role_seq", sequenceName = "roles_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "role_seq", sequenceName = "roles_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @NotNull
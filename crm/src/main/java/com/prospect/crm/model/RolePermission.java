@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 public class RolePermission {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "role_permission_seq")
-    @SequenceGenerator(name = "role_permission_seq", sequenceName = "role_permissions_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "role_permission_seq", sequenceName = "role_permissions_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -13,7 +13,7 @@ import java.math.BigDecimal;
 public class SubscriptionType {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscription_type_seq")
-    @SequenceGenerator(name = "subscription_type_seq", sequenceName = "subscription_type_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "subscription_type_seq", sequenceName = "subscription_type_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     private String name;
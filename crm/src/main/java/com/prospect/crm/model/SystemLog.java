@@ -22,11 +22,16 @@ import java.time.LocalDateTime;
     @Index(name = "idx_system_logs_user_timestamp", columnList = "userId, timestamp"),
     @Index(name = "idx_system_logs_http_status", columnList = "httpStatus"),
     @Index(name = "idx_system_logs_endpoint", columnList = "endpoint"),
-    @Index(name = "idx_system_logs_execution_time", columnList = "executionTime")
+    @Index(name = "idx_system_logs_execution_time", columnList = "executionTime"),
+    @Index(name = "idx_system_logs_error_fingerprint", columnList = "errorFingerprint, timestamp")
 })
 public class SystemLog {
+    // Yüksek hacimli tablo; JDBC batch yazıcısı da aynı blok boyutuyla id ayırır
+    public static final int ID_ALLOCATION_SIZE = 500;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "system_logs_id_gen")
+    @SequenceGenerator(name = "system_logs_id_gen", sequenceName = "system_logs_id_seq", initialValue = 1001, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -81,4 +86,8 @@ public class SystemLog {
     
     @Column(columnDefinition = "TEXT")
     private String responseBody;
+    
+    // ERROR/FATAL kayıtlarının grubu (system_log_error_groups.fingerprint)
+    @Column(length = 64)
+    private String errorFingerprint;
 } 
\ No newline at end of file
@@ -15,7 +15,7 @@ public class UserSubsInfo {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usersubsinfo_id_seq")
-    @SequenceGenerator(name = "usersubsinfo_id_seq", sequenceName = "usersubsinfo_id_seq", initialValue = 1001, allocationSize = 1)
+    @SequenceGenerator(name = "usersubsinfo_id_seq", sequenceName = "usersubsinfo_id_seq", initialValue = 1001, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,4 +46,8 @@ public interface BounceEmailRepository extends JpaRepository<BounceEmail, Long>
     // Find recent bounces for an email address
     @Query("SELECT be FROM BounceEmail be WHERE be.emailAddress = :emailAddress AND be.bounceDate > :since")
     List<BounceEmail> findRecentBouncesByEmailAddress(@Param("emailAddress") String emailAddress, @Param("since") LocalDateTime since);
+    
+    // Find addresses with recent hard bounces among the given addresses
+    @Query("SELECT DISTINCT be.emailAddress FROM BounceEmail be WHERE be.emailAddress IN :emailAddresses AND be.bounceType = 'HARD_BOUNCE' AND be.bounceDate > :since")
+    List<String> findRecentHardBouncedAddresses(@Param("emailAddresses") Collection<String> emailAddresses, @Param("since") LocalDateTime since);
 } 
\ No newline at end of file
@@ -9,15 +9,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface JwtTokenRepository extends JpaRepository<JwtToken, Long> {
     
-    // Token ile bulma
-    Optional<JwtToken> findByAccessToken(String accessToken);
-    Optional<JwtToken> findByRefreshToken(String refreshToken);
+    // Token özeti ile bulma
+    Optional<JwtToken> findByTokenDigest(String tokenDigest);
     
     // Kullanıcının aktif tokenları
     List<JwtToken> findByUserIdAndRevokedFalseAndExpiredFalse(Users userId);
@@ -28,15 +28,22 @@ public interface JwtTokenRepository extends JpaRepository<JwtToken, Long> {
     // Süresi dolmuş tokenlar
     List<JwtToken> findByExpiresAtBefore(LocalDateTime dateTime);
     
+    // Süresi dolmamış iptal edilmiş tokenlar (revocation index yüklemesi)
+    List<JwtToken> findByRevokedTrueAndExpiresAtAfter(LocalDateTime dateTime);
+    
+    // Belirli bir zamandan sonra iptal edilmiş ve süresi dolmamış tokenlar (revocation index senkronizasyonu)
+    @Query("SELECT t FROM JwtToken t WHERE t.revoked = true AND t.revokedAt >= :since AND t.expiresAt > :now")
+    List<JwtToken> findRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+    
     // Kullanıcının tüm tokenlarını iptal etme
     @Modifying
-    @Query("UPDATE JwtToken t SET t.revoked = true, t.expired = true WHERE t.userId = :userId")
-    void revokeAllUserTokens(@Param("userId") Users userId);
+    @Query("UPDATE JwtToken t SET t.revoked = true, t.expired = true, t.revokedAt = :revokedAt WHERE t.userId = :userId")
+    void revokeAllUserTokens(@Param("userId") Users userId, @Param("revokedAt") LocalDateTime revokedAt);
     
-    // Belirli tokenı iptal etme
+    // Belirli tokenları özetleri ile iptal etme
     @Modifying
-    @Query("UPDATE JwtToken t SET t.revoked = true, t.expired = true WHERE t.accessToken = :accessToken OR t.refreshToken = :refreshToken")
-    void revokeToken(@Param("accessToken") String accessToken, @Param("refreshToken") String refreshToken);
+    @Query("UPDATE JwtToken t SET t.revoked = true, t.expired = true, t.revokedAt = :revokedAt WHERE t.tokenDigest IN :tokenDigests")
+    void revokeByTokenDigests(@Param("tokenDigests") Collection<String> tokenDigests, @Param("revokedAt") LocalDateTime revokedAt);
     
     // Süresi dolmuş tokenları işaretleme
     @Modifying
@@ -5,6 +5,7 @@ import com.prospect.crm.model.LeadEmailGuess;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,5 +16,6 @@ public interface LeadEmailGuessRepository extends JpaRepository<LeadEmailGuess,
     List<LeadEmailGuess> findByLeadId(Lead lead);
     Optional<LeadEmailGuess> findByLeadIdAndGuessedEmail(Lead lead, String guessedEmail);
     List<LeadEmailGuess> findByGuessedEmail(String guessedEmail);
+    List<LeadEmailGuess> findByLeadIdIn(Collection<Lead> leads);
 
 } 
\ No newline at end of file
@@ -3,20 +3,26 @@ package com.prospect.crm.repository;
 import com.prospect.crm.constant.LogLevel;
 import com.prospect.crm.constant.LogType;
 import com.prospect.crm.model.SystemLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
     
+    String SEARCH_VECTOR = "to_tsvector('simple', coalesce(s.message, '') || ' ' || coalesce(s.details, '') || ' ' || coalesce(s.class_name, ''))";
+    
     // Temel sorgular
     List<SystemLog> findByLevel(LogLevel level);
     List<SystemLog> findByType(LogType type);
@@ -46,9 +52,37 @@ public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
     Page<SystemLog> findByType(LogType type, Pageable pageable);
     Page<SystemLog> findByTimestampBetween(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
     
-    // Özel sorgular
-    @Query("SELECT s FROM SystemLog s WHERE s.message LIKE %:keyword% OR s.details LIKE %:keyword%")
-    List<SystemLog> findByKeyword(@Param("keyword") String keyword);
+    // Full-text arama; ifade idx_system_logs_search GIN index'i ile birebir aynı olmalıdır
+    @Query(value = "SELECT s.* FROM system_logs s " +
+           "WHERE " + SEARCH_VECTOR + " @@ to_tsquery('simple', :query) " +
+           "AND s.timestamp >= :startDate AND s.timestamp < :endDate " +
+           "AND (CAST(:level AS VARCHAR) IS NULL OR s.level = CAST(:level AS VARCHAR)) " +
+           "AND (CAST(:type AS VARCHAR) IS NULL OR s.type = CAST(:type AS VARCHAR)) " +
+           "ORDER BY ts_rank(" + SEARCH_VECTOR + ", to_tsquery('simple', :query)) DESC, s.timestamp DESC " +
+           "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<SystemLog> searchFullText(@Param("query") String query,
+                                   @Param("level") String level,
+                                   @Param("type") String type,
+                                   @Param("startDate") LocalDateTime startDate,
+                                   @Param("endDate") LocalDateTime endDate,
+                                   @Param("limit") int limit,
+                                   @Param("offset") long offset);
+    
+    // Eşleşme sayısı :cap ile sınırlandırılır; büyük tabloda tam COUNT sayfalamayı yavaşlatır
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM system_logs s " +
+           "WHERE " + SEARCH_VECTOR + " @@ to_tsquery('simple', :query) " +
+           "AND s.timestamp >= :startDate AND s.timestamp < :endDate " +
+           "AND (CAST(:level AS VARCHAR) IS NULL OR s.level = CAST(:level AS VARCHAR)) " +
+           "AND (CAST(:type AS VARCHAR) IS NULL OR s.type = CAST(:type AS VARCHAR)) " +
+           "LIMIT :cap) matched",
+           nativeQuery = true)
+    long countFullText(@Param("query") String query,
+                       @Param("level") String level,
+                       @Param("type") String type,
+                       @Param("startDate") LocalDateTime startDate,
+                       @Param("endDate") LocalDateTime endDate,
+                       @Param("cap") int cap);
     
     @Query("SELECT COUNT(s) FROM SystemLog s WHERE s.level = :level AND s.timestamp >= :startDate")
     Long countByLevelAndDateAfter(@Param("level") LogLevel level, @Param("startDate") LocalDateTime startDate);
@@ -83,6 +117,22 @@ public interface SystemLogRepository extends JpaRepository<SystemLog, Long> {
     @Query("DELETE FROM SystemLog s WHERE s.timestamp < :cutoffDate AND s.type = :type")
     int deleteOldLogsByType(@Param("cutoffDate") LocalDateTime cutoffDate, @Param("type") LogType type);
     
+    // Partition drop öncesi arşivlenen ERROR/FATAL loglar
+    @Query(value = "SELECT * FROM system_logs_archive WHERE timestamp BETWEEN :startDate AND :endDate ORDER BY timestamp DESC",
+           countQuery = "SELECT COUNT(*) FROM system_logs_archive WHERE timestamp BETWEEN :startDate AND :endDate",
+           nativeQuery = true)
+    Page<SystemLog> findArchivedBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate, Pageable pageable);
+    
+    // Export için sunucu taraflı cursor; çağıran açık bir transaction içinde tüketmeli ve stream'i kapatmalıdır
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM SystemLog s WHERE s.timestamp >= :startDate AND s.timestamp < :endDate " +
+           "AND (:level IS NULL OR s.level = :level) AND (:type IS NULL OR s.type = :type) ORDER BY s.timestamp")
+    Stream<SystemLog> streamForExport(@Param("level") LogLevel level, @Param("type") LogType type,
+                                      @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
     // Log sayım metodları
     Long countByLevel(LogLevel level);
 } 
\ No newline at end of file
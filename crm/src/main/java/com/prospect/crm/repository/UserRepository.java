@@ -1,6 +1,7 @@
 package com.prospect.crm.repository;
 
 import com.prospect.crm.model.Users;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -12,5 +13,9 @@ public interface UserRepository extends JpaRepository<Users, Long> {
     Optional<Users> findByEmail(String email);
     Optional<Users> findByUsername(String username);
     List<Users>  findAllByIsActiveTrue();
+    
+    // Kullanıcıyı rolü ile birlikte tek sorguda getirir
+    @EntityGraph(attributePaths = "roleId")
+    Optional<Users> findWithRoleById(Long id);
 
 } 
\ No newline at end of file
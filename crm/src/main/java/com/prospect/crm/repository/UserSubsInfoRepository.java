@@ -3,6 +3,8 @@ package com.prospect.crm.repository;
 import com.prospect.crm.model.UserSubsInfo;
 import com.prospect.crm.model.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -16,4 +18,8 @@ public interface UserSubsInfoRepository extends JpaRepository<UserSubsInfo, Long
     List<UserSubsInfo> findByIsActiveTrue();
     Optional<UserSubsInfo> findByUsersId(Users usersId);
     Optional<UserSubsInfo> findByUsersIdAndIsActiveTrue(Users usersId);
+
+    @Query("SELECT s FROM UserSubsInfo s LEFT JOIN FETCH s.subscriptionTypeId " +
+           "WHERE s.usersId.id = :userId AND s.isActive = true ORDER BY s.subsEndDate DESC")
+    List<UserSubsInfo> findActiveWithTypeByUserId(@Param("userId") Long userId);
 }
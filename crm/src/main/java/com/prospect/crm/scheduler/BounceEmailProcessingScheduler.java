@@ -35,7 +35,7 @@ public class BounceEmailProcessingScheduler {
         } catch (Exception e) {
             log.error("Error processing unprocessed bounces", e);
             systemLogService.logError("Failed to process unprocessed bounces", 
-                e.getMessage(), e.getStackTrace().toString(),
+                e.getMessage(), e,
                 "BounceEmailProcessingScheduler", "processUnprocessedBounces");
         }
     }
@@ -58,7 +58,7 @@ public class BounceEmailProcessingScheduler {
         } catch (Exception e) {
             log.error("Error logging bounce email statistics", e);
             systemLogService.logError("Failed to log bounce email statistics", 
-                e.getMessage(), e.getStackTrace().toString(),
+                e.getMessage(), e,
                 "BounceEmailProcessingScheduler", "logBounceEmailStatistics");
         }
     }
@@ -44,7 +44,7 @@ public class DailyEmailLimitCleanupScheduler {
         } catch (Exception e) {
             log.error("Error cleaning up old daily email limits", e);
             systemLogService.logError("Failed to cleanup old daily email limits", 
-                e.getMessage(), e.getStackTrace().toString(),
+                e.getMessage(), e,
                 "DailyEmailLimitCleanupScheduler", "cleanupOldDailyEmailLimits");
         }
     }
@@ -76,7 +76,7 @@ public class DailyEmailLimitCleanupScheduler {
         } catch (Exception e) {
             log.error("Error logging daily email limit statistics", e);
             systemLogService.logError("Failed to log daily email limit statistics", 
-                e.getMessage(), e.getStackTrace().toString(),
+                e.getMessage(), e,
                 "DailyEmailLimitCleanupScheduler", "logDailyEmailLimitStatistics");
         }
     }
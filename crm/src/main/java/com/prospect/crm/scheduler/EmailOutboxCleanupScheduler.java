@@ -0,0 +1,47 @@
+package com.prospect.crm.scheduler;
+
+import com.prospect.crm.config.EmailOutboxConfig;
+import com.prospect.crm.email.EmailOutbox;
+import com.prospect.crm.service.SystemLogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxCleanupScheduler {
+
+    private final EmailOutbox emailOutbox;
+    private final EmailOutboxConfig emailOutboxConfig;
+    private final SystemLogService systemLogService;
+
+    /**
+     * Her gün 01:30'da saklama süresi dolmuş SENT/FAILED outbox kayıtlarını siler
+     * Cron: Her gün saat 01:30'da çalışır
+     */
+    @Scheduled(cron = "0 30 1 * * ?")
+    public void cleanupFinishedMessages() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(emailOutboxConfig.getRetentionDays());
+            int deletedCount = emailOutbox.deleteFinishedBefore(cutoff);
+            
+            if (deletedCount > 0) {
+                systemLogService.logInfo("Email outbox cleaned up", 
+                    "Deleted " + deletedCount + " finished outbox messages created before " + cutoff,
+                    "EmailOutboxCleanupScheduler", "cleanupFinishedMessages");
+                
+                log.info("Cleaned up {} finished email outbox messages", deletedCount);
+            }
+            
+        } catch (Exception e) {
+            log.error("Error cleaning up email outbox", e);
+            systemLogService.logError("Failed to cleanup email outbox", 
+                e.getMessage(), e,
+                "EmailOutboxCleanupScheduler", "cleanupFinishedMessages");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.prospect.crm.scheduler;
 
+import com.prospect.crm.security.TokenRevocationIndex;
 import com.prospect.crm.service.JwtService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -10,9 +11,11 @@ import org.springframework.stereotype.Component;
 public class JwtTokenCleanupScheduler {
     
     private final JwtService jwtService;
+    private final TokenRevocationIndex tokenRevocationIndex;
     
-    public JwtTokenCleanupScheduler(JwtService jwtService) {
+    public JwtTokenCleanupScheduler(JwtService jwtService, TokenRevocationIndex tokenRevocationIndex) {
         this.jwtService = jwtService;
+        this.tokenRevocationIndex = tokenRevocationIndex;
     }
     
     /**
@@ -25,11 +28,21 @@ public class JwtTokenCleanupScheduler {
             log.info("Starting JWT token cleanup process...");
             
             jwtService.markExpiredTokens();
+            int pruned = tokenRevocationIndex.pruneExpired();
             
-            log.info("JWT token cleanup completed successfully");
+            log.info("JWT token cleanup completed successfully. Pruned {} entries from revocation index", pruned);
             
         } catch (Exception e) {
             log.error("Error during JWT token cleanup: {}", e.getMessage(), e);
         }
     }
+    
+    /**
+     * Diğer node'larda iptal edilen tokenları revocation index'e alır.
+     * İptallerin tüm node'larda etkili olma gecikmesi bu aralıkla sınırlıdır.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation-sync-interval:30000}")
+    public void syncRevokedTokens() {
+        tokenRevocationIndex.syncFromDatabase();
+    }
 } 
\ No newline at end of file
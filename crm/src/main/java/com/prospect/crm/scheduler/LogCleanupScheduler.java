@@ -15,8 +15,21 @@ public class LogCleanupScheduler {
         this.systemLogService = systemLogService;
     }
     
+    /**
+     * Her gün saat 01:00'de gelecek günlerin system_logs partition'larını oluşturur
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void ensureLogPartitions() {
+        try {
+            systemLogService.ensurePartitions();
+        } catch (Exception e) {
+            log.error("Failed to create system log partitions: {}", e.getMessage(), e);
+        }
+    }
+    
     /**
      * Her gün saat 02:00'de 1 ay önceki hata olmayan logları temizler
+     * Partition'lı tabloda süresi dolan partition'lar drop edilir, hata logları arşive taşınır
      * Cron format: saniye dakika saat gün ay hafta
      */
     @Scheduled(cron = "0 0 2 * * ?")
@@ -24,20 +37,16 @@ public class LogCleanupScheduler {
         try {
             log.info("Starting automatic log cleanup process...");
             
-            // Silinecek log sayısını kontrol et
-            Long countBefore = systemLogService.getOldLogsCount();
+            // Sayım yapılmaz; partition drop sabit maliyetlidir, sayım ise eski partition'ları tarar
+            int deletedCount = systemLogService.cleanupOldLogs();
             
-            if (countBefore > 0) {
-                // Logları temizle
-                int deletedCount = systemLogService.cleanupOldLogs();
-                
-                log.info("Log cleanup completed successfully. Deleted {} logs older than 1 month (non-error logs). Total old logs before cleanup: {}", 
-                    deletedCount, countBefore);
+            if (deletedCount > 0) {
+                log.info("Log cleanup completed successfully. Deleted {} logs older than 1 month (non-error logs)", deletedCount);
                 
                 // Temizlik sonrası bilgi logu
                 systemLogService.logInfo(
                     "Automatic log cleanup completed",
-                    String.format("Deleted %d logs older than 1 month. Total old logs before cleanup: %d", deletedCount, countBefore),
+                    String.format("Deleted %d logs older than 1 month", deletedCount),
                     "LogCleanupScheduler",
                     "cleanupOldLogs"
                 );
@@ -52,7 +61,7 @@ public class LogCleanupScheduler {
             systemLogService.logError(
                 "Automatic log cleanup failed",
                 "Failed to cleanup old logs: " + e.getMessage(),
-                e.getStackTrace().toString(),
+                e,
                 "LogCleanupScheduler",
                 "cleanupOldLogs"
             );
@@ -94,7 +103,7 @@ public class LogCleanupScheduler {
             systemLogService.logError(
                 "Weekly log analysis failed",
                 "Failed to perform weekly log analysis: " + e.getMessage(),
-                e.getStackTrace().toString(),
+                e,
                 "LogCleanupScheduler",
                 "weeklyLogAnalysis"
             );
@@ -142,7 +151,7 @@ public class LogCleanupScheduler {
             systemLogService.logError(
                 "Monthly log report generation failed",
                 "Failed to generate monthly log report: " + e.getMessage(),
-                e.getStackTrace().toString(),
+                e,
                 "LogCleanupScheduler",
                 "monthlyLogReport"
             );
@@ -0,0 +1,29 @@
+package com.prospect.crm.scheduler;
+
+import com.prospect.crm.security.RolePermissionTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class PermissionTableRefreshScheduler {
+    
+    private final RolePermissionTable rolePermissionTable;
+    
+    public PermissionTableRefreshScheduler(RolePermissionTable rolePermissionTable) {
+        this.rolePermissionTable = rolePermissionTable;
+    }
+    
+    /**
+     * Diğer node'larda yapılan rol izni değişikliklerini derlenmiş izin tablosuna alır
+     */
+    @Scheduled(fixedDelayString = "${security.permission-table.refresh-interval:60000}")
+    public void refreshPermissionTable() {
+        try {
+            rolePermissionTable.reload();
+        } catch (Exception e) {
+            log.error("Error refreshing role permission table: {}", e.getMessage(), e);
+        }
+    }
+}
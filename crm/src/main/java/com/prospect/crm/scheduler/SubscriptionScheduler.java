@@ -2,6 +2,7 @@ package com.prospect.crm.scheduler;
 
 import com.prospect.crm.model.UserSubsInfo;
 import com.prospect.crm.repository.UserSubsInfoRepository;
+import com.prospect.crm.service.SubscriptionEntitlementCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -14,6 +15,7 @@ import java.util.List;
 public class SubscriptionScheduler {
 
     private final UserSubsInfoRepository userSubsInfoRepository;
+    private final SubscriptionEntitlementCache entitlementCache;
 
     @Scheduled(cron = "0 0 0 * * ?")
     public void deactivateExpiredSubscriptions() {
@@ -22,5 +24,6 @@ public class SubscriptionScheduler {
 
         expiredSubs.forEach(sub -> sub.setIsActive(false));
         userSubsInfoRepository.saveAll(expiredSubs);
+        expiredSubs.forEach(sub -> entitlementCache.invalidate(sub.getUsersId().getId()));
     }
 }
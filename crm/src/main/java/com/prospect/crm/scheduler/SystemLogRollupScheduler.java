@@ -0,0 +1,81 @@
+package com.prospect.crm.scheduler;
+
+import com.prospect.crm.service.SystemLogService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class SystemLogRollupScheduler {
+    
+    private final SystemLogService systemLogService;
+    
+    public SystemLogRollupScheduler(SystemLogService systemLogService) {
+        this.systemLogService = systemLogService;
+    }
+    
+    /**
+     * Örnekleme ve hız sınırı ile bastırılan log olaylarının özetlerini yazar
+     */
+    @Scheduled(fixedDelayString = "${system-log.rollup-interval:60000}")
+    public void writeSuppressedRollups() {
+        try {
+            int written = systemLogService.writeSuppressedRollups();
+            if (written > 0) {
+                log.debug("Wrote {} system log rollups", written);
+            }
+        } catch (Exception e) {
+            log.error("Error writing system log rollups: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Bellekte toplanan dakikalık log sayılarını system_log_counts tablosuna ekler
+     */
+    @Scheduled(fixedDelayString = "${system-log.count-flush-interval:10000}")
+    public void flushLogCounts() {
+        try {
+            int written = systemLogService.flushLogCounts();
+            if (written > 0) {
+                log.debug("Flushed {} system log count buckets", written);
+            }
+        } catch (Exception e) {
+            log.error("Error flushing system log counts: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Hata grubu sayaçlarını system_log_error_groups tablosuna yazar
+     */
+    @Scheduled(fixedDelayString = "${system-log.error-group-flush-interval:10000}")
+    public void flushErrorGroups() {
+        try {
+            int written = systemLogService.flushErrorGroups();
+            if (written > 0) {
+                log.debug("Flushed {} error groups", written);
+            }
+        } catch (Exception e) {
+            log.error("Error flushing error groups: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Her gün saat 02:30'da saklama süresi dolan dakikalık sayımları ve hata gruplarını siler
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void deleteExpiredLogCounts() {
+        try {
+            int deleted = systemLogService.deleteExpiredLogCounts();
+            if (deleted > 0) {
+                log.info("Deleted {} expired system log count buckets", deleted);
+            }
+            int deletedGroups = systemLogService.deleteExpiredErrorGroups();
+            if (deletedGroups > 0) {
+                log.info("Deleted {} expired error groups", deletedGroups);
+            }
+        } catch (Exception e) {
+            log.error("Error deleting expired system log counts: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.prospect.crm.security;
+
+import com.prospect.crm.config.JwtConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Refresh token başına access token yenilemesini tekilleştirir (single-flight).
+ * Access token süresi dolduğunda paralel gelen istekler kısa bir pencere içinde
+ * aynı yeni access token'ı paylaşır; böylece her istek için ayrı token imzalanmaz,
+ * jwt_token ve system_logs tablolarına tekrar tekrar kayıt atılmaz.
+ */
+@Component
+public class AccessTokenRefreshCoordinator {
+
+    private final JwtConfig jwtConfig;
+
+    // refresh token özeti -> devam eden veya yeni tamamlanmış yenileme
+    private final Map<String, Refresh> refreshes = new ConcurrentHashMap<>();
+
+    private final LongAdder minted = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public AccessTokenRefreshCoordinator(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+    }
+
+    /**
+     * Pencere içinde aynı refresh token için üretilmiş bir access token varsa onu döner,
+     * yoksa minter ile üretir. Eşzamanlı çağrılar tek bir üretimin sonucunu bekler.
+     * minter null dönerse sonuç paylaşılmaz.
+     */
+    public String getOrMint(VerifiedToken refreshToken, Supplier<String> minter) {
+        String key = TokenDigests.sha256Hex(refreshToken.getToken());
+        long now = System.nanoTime();
+        long windowNanos = windowNanos();
+        prune(now, windowNanos);
+
+        Refresh candidate = new Refresh(now);
+        Refresh existing = refreshes.compute(key, (k, current) ->
+                current != null && now - current.startedAt < windowNanos ? current : candidate);
+
+        if (existing != candidate) {
+            suppressed.increment();
+            return existing.result.join();
+        }
+
+        try {
+            String accessToken = minter.get();
+            if (accessToken == null) {
+                refreshes.remove(key, candidate);
+            } else {
+                minted.increment();
+            }
+            candidate.result.complete(accessToken);
+            return accessToken;
+
+        } catch (RuntimeException e) {
+            failed.increment();
+            refreshes.remove(key, candidate);
+            candidate.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        prune(System.nanoTime(), windowNanos());
+        long inFlight = 0;
+        long cached = 0;
+        for (Refresh refresh : refreshes.values()) {
+            if (refresh.result.isDone()) {
+                cached++;
+            } else {
+                inFlight++;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", inFlight);
+        stats.put("cached", cached);
+        stats.put("minted", minted.sum());
+        stats.put("suppressed", suppressed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("windowMs", jwtConfig.getRefreshCoalesceWindow());
+        return stats;
+    }
+
+    private long windowNanos() {
+        return jwtConfig.getRefreshCoalesceWindow() * 1_000_000L;
+    }
+
+    /**
+     * Penceresi geçmiş kayıtları siler; pencere kısa olduğundan map yalnızca son birkaç
+     * saniyedeki yenilemeleri tutar ve her çağrıda taranması ucuzdur
+     */
+    private void prune(long now, long windowNanos) {
+        refreshes.values().removeIf(refresh -> now - refresh.startedAt >= windowNanos);
+    }
+
+    private static final class Refresh {
+        private final long startedAt;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private Refresh(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.prospect.crm.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JWT ile doğrulanmış kullanıcının değişmez (immutable) görüntüsü.
+ * Şifre taşımaz; PrincipalCache içinde istekler arasında paylaşılır.
+ * Username formatı geriye dönük uyumluluk için "email:userId" şeklindedir.
+ */
+@Getter
+public final class AuthenticatedUser implements UserDetails {
+
+    private final Long userId;
+    private final String email;
+    private final Long roleId;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final boolean active;
+
+    public AuthenticatedUser(Long userId, String email, Long roleId,
+                             Collection<? extends GrantedAuthority> authorities, boolean active) {
+        this.userId = userId;
+        this.email = email;
+        this.roleId = roleId;
+        this.username = email + ":" + userId;
+        this.authorities = List.copyOf(authorities);
+        this.active = active;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return active;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser[" + username + "]";
+    }
+}
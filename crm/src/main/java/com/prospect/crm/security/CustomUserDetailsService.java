@@ -18,9 +18,11 @@ import java.util.List;
 public class CustomUserDetailsService implements UserDetailsService {
     
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
     
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
     
     @Override
@@ -32,19 +34,50 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
     
     /**
-     * ID ile kullanıcı yükler
+     * ID ile kullanıcı yükler (PrincipalCache üzerinden)
      */
-    public UserDetails loadUserById(Long userId) {
-        Users user = userRepository.findById(userId)
+    public AuthenticatedUser loadUserById(Long userId) {
+        return principalCache.get(userId, this::loadPrincipal);
+    }
+    
+    /**
+     * Kullanıcıyı rolü ile birlikte tek sorguda yükleyip değişmez principal oluşturur
+     */
+    private AuthenticatedUser loadPrincipal(Long userId) {
+        Users user = userRepository.findWithRoleById(userId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with ID: " + userId));
         
-        return createUserDetails(user);
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getRoleId() != null ? user.getRoleId().getId() : null,
+                buildAuthorities(user),
+                Boolean.TRUE.equals(user.getIsActive())
+        );
     }
     
     /**
      * UserDetails oluşturur
      */
     private UserDetails createUserDetails(Users user) {
+        // User ID'yi username'e ekle (format: email:userId)
+        String usernameWithId = user.getEmail() + ":" + user.getId();
+        
+        return User.builder()
+                .username(usernameWithId)
+                .password(user.getPassword())
+                .authorities(buildAuthorities(user))
+                .accountExpired(false)
+                .accountLocked(!user.getIsActive())
+                .credentialsExpired(false)
+                .disabled(!user.getIsActive())
+                .build();
+    }
+    
+    /**
+     * Kullanıcının rolüne göre yetki listesini oluşturur
+     */
+    private List<SimpleGrantedAuthority> buildAuthorities(Users user) {
         List<SimpleGrantedAuthority> authorities = new ArrayList<>();
         
         // Temel USER yetkisi
@@ -61,17 +94,6 @@ public class CustomUserDetailsService implements UserDetailsService {
             }
         }
         
-        // User ID'yi username'e ekle (format: email:userId)
-        String usernameWithId = user.getEmail() + ":" + user.getId();
-        
-        return User.builder()
-                .username(usernameWithId)
-                .password(user.getPassword())
-                .authorities(authorities)
-                .accountExpired(false)
-                .accountLocked(!user.getIsActive())
-                .credentialsExpired(false)
-                .disabled(!user.getIsActive())
-                .build();
+        return authorities;
     }
 } 
\ No newline at end of file
@@ -32,14 +32,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtConfig jwtConfig;
     private final SubscriptionService subscriptionService;
     private final UserRepository userRepository;
+    private final AccessTokenRefreshCoordinator refreshCoordinator;
     
     public JwtAuthenticationFilter(JwtService jwtService, CustomUserDetailsService userDetailsService, 
-                                 JwtConfig jwtConfig, SubscriptionService subscriptionService, UserRepository userRepository) {
+                                 JwtConfig jwtConfig, SubscriptionService subscriptionService, UserRepository userRepository,
+                                 AccessTokenRefreshCoordinator refreshCoordinator) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
         this.jwtConfig = jwtConfig;
         this.subscriptionService = subscriptionService;
         this.userRepository = userRepository;
+        this.refreshCoordinator = refreshCoordinator;
     }
     
     @Override
@@ -54,123 +57,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 accessToken = getTokenFromHeader(request);
             }
             
-            if (accessToken != null && jwtService.isAccessToken(accessToken)) {
+            // Her token istek başına yalnızca bir kez doğrulanır
+            VerifiedToken verifiedAccessToken = jwtService.tryVerifyToken(accessToken);
+            
+            if (verifiedAccessToken != null && verifiedAccessToken.isAccessToken()) {
+                request.setAttribute(VerifiedToken.REQUEST_ATTRIBUTE, verifiedAccessToken);
+                
                 try {
-                    Long userId = jwtService.getUserIdFromToken(accessToken);
+                    Long userId = verifiedAccessToken.getUserId();
                     
                     if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                         UserDetails userDetails = userDetailsService.loadUserById(userId);
                         
-                        if (userDetails != null) {
-                            if (isProtectedEndpoint(request.getRequestURI()) && !subscriptionService.hasValidSubscription(userId)) {
-                                sendSubscriptionRequiredResponse(response);
-                                return;
-                            }
-                            
-                            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                            );
-                            
-                            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                            SecurityContextHolder.getContext().setAuthentication(authToken);
+                        if (userDetails != null && !authenticate(request, response, userDetails, userId)) {
+                            return;
                         }
                     }
                 } catch (Exception e) {
                     log.warn("Access token validation failed: {}", e.getMessage());
                     
-                    if (refreshToken != null && jwtService.isRefreshToken(refreshToken)) {
-                        try {
-                            Long userId = jwtService.getUserIdFromToken(refreshToken);
-                            
-                            if (userId != null) {
-                                Users user = userRepository.findById(userId).orElse(null);
-                                
-                                if (user != null) {
-                                    String newAccessToken = jwtService.generateAccessToken(user);
-                                    
-                                    setCookie(response, jwtConfig.getAccessTokenCookieName(), newAccessToken, 
-                                            (int) jwtConfig.getAccessTokenExpiration());
-                                    
-                                    UserDetails userDetails = userDetailsService.loadUserById(userId);
-                                    
-                                    if (userDetails != null) {
-                                        if (isProtectedEndpoint(request.getRequestURI()) && !subscriptionService.hasValidSubscription(userId)) {
-                                            sendSubscriptionRequiredResponse(response);
-                                            return;
-                                        }
-                                        
-                                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                            userDetails,
-                                            null,
-                                            userDetails.getAuthorities()
-                                        );
-                                        
-                                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                                        
-                                        log.info("Access token refreshed successfully for user: {}", user.getEmail());
-                                    }
-                                } else {
-                                    log.warn("User not found for refresh token, clearing cookies");
-                                    clearAuthCookies(response);
-                                }
-                            } else {
-                                log.warn("Invalid refresh token, clearing cookies");
-                                clearAuthCookies(response);
-                            }
-                        } catch (Exception refreshException) {
-                            log.warn("Refresh token validation failed: {}", refreshException.getMessage());
-                            clearAuthCookies(response);
-                        }
-                    } else {
-                        clearAuthCookies(response);
-                    }
-                }
-            } else if (refreshToken != null && jwtService.isRefreshToken(refreshToken)) {
-                try {
-                    Long userId = jwtService.getUserIdFromToken(refreshToken);
+                    VerifiedToken verifiedRefreshToken = jwtService.tryVerifyToken(refreshToken);
                     
-                    if (userId != null) {
-                        Users user = userRepository.findById(userId).orElse(null);
-                        
-                        if (user != null) {
-                            String newAccessToken = jwtService.generateAccessToken(user);
-                            
-                            setCookie(response, jwtConfig.getAccessTokenCookieName(), newAccessToken, 
-                                    (int) jwtConfig.getAccessTokenExpiration());
-                            
-                            UserDetails userDetails = userDetailsService.loadUserById(userId);
-                            
-                            if (userDetails != null) {
-                                if (isProtectedEndpoint(request.getRequestURI()) && !subscriptionService.hasValidSubscription(userId)) {
-                                    sendSubscriptionRequiredResponse(response);
-                                    return;
-                                }
-                                
-                                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                                );
-                                
-                                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                                SecurityContextHolder.getContext().setAuthentication(authToken);
-                                
-                                log.info("Access token generated from refresh token for user: {}", user.getEmail());
-                            }
-                        } else {
-                            log.warn("User not found for refresh token, clearing cookies");
-                            clearAuthCookies(response);
+                    if (verifiedRefreshToken != null && verifiedRefreshToken.isRefreshToken()) {
+                        if (!refreshAccessToken(request, response, verifiedRefreshToken, "Access token refreshed successfully")) {
+                            return;
                         }
                     } else {
-                        log.warn("Invalid refresh token, clearing cookies");
                         clearAuthCookies(response);
                     }
-                } catch (Exception refreshException) {
-                    log.warn("Refresh token validation failed: {}", refreshException.getMessage());
-                    clearAuthCookies(response);
+                }
+            } else {
+                VerifiedToken verifiedRefreshToken = jwtService.tryVerifyToken(refreshToken);
+                
+                if (verifiedRefreshToken != null && verifiedRefreshToken.isRefreshToken()
+                        && !refreshAccessToken(request, response, verifiedRefreshToken, "Access token generated from refresh token")) {
+                    return;
                 }
             }
             
@@ -181,6 +102,75 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Doğrulanmış refresh token ile yeni access token üretir ve kullanıcıyı doğrular.
+     * Aynı refresh token ile eşzamanlı gelen istekler tek bir access token'ı paylaşır.
+     * İstek zincirinin devam etmemesi gerekiyorsa false döner.
+     */
+    private boolean refreshAccessToken(HttpServletRequest request, HttpServletResponse response,
+                                       VerifiedToken verifiedRefreshToken, String successMessage) throws IOException {
+        try {
+            Long userId = verifiedRefreshToken.getUserId();
+            
+            if (userId == null) {
+                log.warn("Invalid refresh token, clearing cookies");
+                clearAuthCookies(response);
+                return true;
+            }
+            
+            String newAccessToken = refreshCoordinator.getOrMint(verifiedRefreshToken, () -> {
+                Users user = userRepository.findById(userId).orElse(null);
+                return user != null ? jwtService.generateAccessToken(user) : null;
+            });
+            
+            if (newAccessToken == null) {
+                log.warn("User not found for refresh token, clearing cookies");
+                clearAuthCookies(response);
+                return true;
+            }
+            
+            setCookie(response, jwtConfig.getAccessTokenCookieName(), newAccessToken, 
+                    (int) jwtConfig.getAccessTokenExpiration());
+            
+            AuthenticatedUser userDetails = userDetailsService.loadUserById(userId);
+            
+            if (userDetails != null) {
+                if (!authenticate(request, response, userDetails, userId)) {
+                    return false;
+                }
+                log.info("{} for user: {}", successMessage, userDetails.getEmail());
+            }
+            return true;
+            
+        } catch (Exception refreshException) {
+            log.warn("Refresh token validation failed: {}", refreshException.getMessage());
+            clearAuthCookies(response);
+            return true;
+        }
+    }
+    
+    /**
+     * Abonelik kontrolünden sonra SecurityContext'e kimlik bilgisini yerleştirir.
+     * Abonelik gerekli yanıtı yazıldıysa false döner.
+     */
+    private boolean authenticate(HttpServletRequest request, HttpServletResponse response,
+                                 UserDetails userDetails, Long userId) throws IOException {
+        if (isProtectedEndpoint(request.getRequestURI()) && !subscriptionService.hasValidSubscription(userId)) {
+            sendSubscriptionRequiredResponse(response);
+            return false;
+        }
+        
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+            userDetails,
+            null,
+            userDetails.getAuthorities()
+        );
+        
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return true;
+    }
+    
     private String getTokenFromCookie(HttpServletRequest request, String cookieName) {
         if (request.getCookies() != null) {
             return Arrays.stream(request.getCookies())
@@ -237,6 +227,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                !requestUri.startsWith("/v1/payments/cancel") &&
                !requestUri.startsWith("/v1/payments/webhook") &&
                !requestUri.startsWith("/v1/health") &&
+               !requestUri.startsWith("/.well-known") &&
                !requestUri.startsWith("/v1/test") &&
                !requestUri.startsWith("/error") &&
                !requestUri.startsWith("/swagger-ui") &&
@@ -5,57 +5,64 @@ import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Slf4j
 @Aspect
 @Component
 public class PermissionAspect {
-    
+
     private final PermissionEvaluator permissionEvaluator;
-    
-    public PermissionAspect(PermissionEvaluator permissionEvaluator) {
+    private final PermissionRegistry permissionRegistry;
+
+    // Method -> derlenmiş izin gereksinimi; annotation her çağrıda yeniden okunmaz
+    private final Map<Method, PermissionRequirement> requirements = new ConcurrentHashMap<>();
+
+    public PermissionAspect(PermissionEvaluator permissionEvaluator, PermissionRegistry permissionRegistry) {
         this.permissionEvaluator = permissionEvaluator;
+        this.permissionRegistry = permissionRegistry;
     }
-    
+
     /**
      * @HasPermission annotation'ını işler
      */
     @Before("@annotation(hasPermission)")
     public void checkPermission(JoinPoint joinPoint, HasPermission hasPermission) {
         try {
-            boolean hasAccess = false;
-            
-            // Tekil izin kontrolü
-            if (!hasPermission.value().isEmpty()) {
-                hasAccess = permissionEvaluator.hasPermission(hasPermission.value());
-            }
-            
-            // Birden fazla izin kontrolü (herhangi biri)
-            if (!hasAccess && hasPermission.any().length > 0) {
-                hasAccess = permissionEvaluator.hasAnyPermission(hasPermission.any());
-            }
-            
-            // Birden fazla izin kontrolü (hepsi)
-            if (!hasAccess && hasPermission.all().length > 0) {
-                hasAccess = permissionEvaluator.hasAllPermissions(hasPermission.all());
-            }
-            
-            if (!hasAccess) {
-                log.warn("Access denied for method {} - required permission: {}", 
-                    joinPoint.getSignature().getName(), hasPermission.value());
+            PermissionRequirement requirement = getRequirement(joinPoint, hasPermission);
+
+            if (!permissionEvaluator.satisfies(requirement)) {
+                log.warn("Access denied for method {} - required permission: {}",
+                    joinPoint.getSignature().getName(), requirement.getDescription());
                 throw new AccessDeniedException("Access denied - insufficient permissions");
             }
-            
-            log.debug("Permission check passed for method {} - permission: {}", 
-                joinPoint.getSignature().getName(), hasPermission.value());
-                
+
+            if (log.isDebugEnabled()) {
+                log.debug("Permission check passed for method {} - permission: {}",
+                    joinPoint.getSignature().getName(), requirement.getDescription());
+            }
+
         } catch (AccessDeniedException e) {
             throw e;
         } catch (Exception e) {
-            log.error("Error checking permission for method {}: {}", 
+            log.error("Error checking permission for method {}: {}",
                 joinPoint.getSignature().getName(), e.getMessage());
             throw new AccessDeniedException("Error checking permissions");
         }
     }
-} 
\ No newline at end of file
+
+    private PermissionRequirement getRequirement(JoinPoint joinPoint, HasPermission hasPermission) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        PermissionRequirement requirement = requirements.get(method);
+        if (requirement == null) {
+            requirement = requirements.computeIfAbsent(method,
+                    m -> PermissionRequirement.compile(hasPermission, permissionRegistry));
+        }
+        return requirement;
+    }
+}
@@ -6,8 +6,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-
 
 @Slf4j
 @Component
@@ -29,13 +27,8 @@ public class PermissionEvaluator {
                 return false;
             }
             
-            // Get user ID from authentication
-            Long userId = getUserIdFromAuthentication(authentication);
-            if (userId == null) {
-                return false;
-            }
-            
-            return permissionService.hasPermission(userId, permissionKey);
+            PermissionSet granted = getGrantedPermissions(authentication);
+            return granted != null && permissionService.hasPermission(granted, permissionKey);
             
         } catch (Exception e) {
             log.error("Error checking permission {}: {}", permissionKey, e.getMessage());
@@ -53,13 +46,8 @@ public class PermissionEvaluator {
                 return false;
             }
             
-            Long userId = getUserIdFromAuthentication(authentication);
-            if (userId == null) {
-                return false;
-            }
-            
-            return Arrays.stream(permissionKeys)
-                    .anyMatch(permissionKey -> permissionService.hasPermission(userId, permissionKey));
+            PermissionSet granted = getGrantedPermissions(authentication);
+            return granted != null && permissionService.hasAnyPermission(granted, permissionKeys);
             
         } catch (Exception e) {
             log.error("Error checking permissions: {}", e.getMessage());
@@ -77,13 +65,8 @@ public class PermissionEvaluator {
                 return false;
             }
             
-            Long userId = getUserIdFromAuthentication(authentication);
-            if (userId == null) {
-                return false;
-            }
-            
-            return Arrays.stream(permissionKeys)
-                    .allMatch(permissionKey -> permissionService.hasPermission(userId, permissionKey));
+            PermissionSet granted = getGrantedPermissions(authentication);
+            return granted != null && permissionService.hasAllPermissions(granted, permissionKeys);
             
         } catch (Exception e) {
             log.error("Error checking permissions: {}", e.getMessage());
@@ -91,11 +74,41 @@ public class PermissionEvaluator {
         }
     }
     
+    /**
+     * Check a precompiled @HasPermission requirement against the current user
+     */
+    public boolean satisfies(PermissionRequirement requirement) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        
+        PermissionSet granted = getGrantedPermissions(authentication);
+        return granted != null && requirement.isSatisfiedBy(granted);
+    }
+    
+    /**
+     * Resolve compiled permissions of the current user.
+     * AuthenticatedUser already carries the role, so no lookup is needed.
+     */
+    private PermissionSet getGrantedPermissions(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return permissionService.getRolePermissions(authenticatedUser.getRoleId());
+        }
+        
+        Long userId = getUserIdFromAuthentication(authentication);
+        return userId != null ? permissionService.getGrantedPermissions(userId) : null;
+    }
+    
     /**
      * Get user ID from authentication
      */
     private Long getUserIdFromAuthentication(Authentication authentication) {
         try {
+            if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+                return authenticatedUser.getUserId();
+            }
+            
             // Try to get user ID from JWT token claims
             if (authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.User) {
                 org.springframework.security.core.userdetails.User userDetails = 
@@ -103,11 +116,9 @@ public class PermissionEvaluator {
                 
                 // Extract user ID from username (format: email:userId)
                 String username = userDetails.getUsername();
-                if (username != null && username.contains(":")) {
-                    String[] parts = username.split(":");
-                    if (parts.length == 2) {
-                        return Long.parseLong(parts[1]);
-                    }
+                int separator = username != null ? username.lastIndexOf(':') : -1;
+                if (separator >= 0) {
+                    return Long.parseLong(username, separator + 1, username.length(), 10);
                 }
             }
             
@@ -0,0 +1,85 @@
+package com.prospect.crm.security;
+
+import com.prospect.crm.constant.PermissionConstants;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * İzin anahtarlarına bit indeksi atar.
+ * PermissionConstants'taki tüm anahtarlar açılışta kaydedilir; veritabanında olup
+ * sabitlerde bulunmayan anahtarlar rol izinleri derlenirken eklenir.
+ */
+@Component
+public class PermissionRegistry {
+
+    private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    public PermissionRegistry() {
+        for (Field field : PermissionConstants.class.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers) && field.getType() == String.class) {
+                try {
+                    register((String) field.get(null));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Cannot read permission constant " + field.getName(), e);
+                }
+            }
+        }
+    }
+
+    public int register(String permissionKey) {
+        return indexes.computeIfAbsent(permissionKey, key -> nextIndex.getAndIncrement());
+    }
+
+    /**
+     * Kayıtlı değilse -1 döner
+     */
+    public int indexOf(String permissionKey) {
+        Integer index = permissionKey != null ? indexes.get(permissionKey) : null;
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Rol izinlerini derler; bilinmeyen anahtarları kaydeder
+     */
+    public PermissionSet compile(Collection<String> permissionKeys) {
+        return PermissionSet.of(permissionKeys.stream()
+                .filter(key -> key != null)
+                .mapToInt(this::register)
+                .toArray());
+    }
+
+    /**
+     * Kontrol edilecek izinleri kümeye çevirir; bilinmeyen anahtarlar atlanır
+     */
+    public PermissionSet lookup(String... permissionKeys) {
+        int[] bits = new int[permissionKeys.length];
+        for (int i = 0; i < permissionKeys.length; i++) {
+            bits[i] = indexOf(permissionKeys[i]);
+        }
+        return PermissionSet.of(bits);
+    }
+
+    /**
+     * Anahtarlardan herhangi biri kayıtlı değilse false döner
+     */
+    public boolean isRegistered(String... permissionKeys) {
+        for (String permissionKey : permissionKeys) {
+            if (indexOf(permissionKey) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+}
@@ -0,0 +1,58 @@
+package com.prospect.crm.security;
+
+/**
+ * Bir @HasPermission annotation'ının derlenmiş hali.
+ * Tekil izin bit indeksi, "any" ve "all" listeleri bit maskesi olarak tutulur.
+ */
+public final class PermissionRequirement {
+
+    private final String description;
+    private final int single;
+    private final PermissionSet anyOf;
+    private final PermissionSet allOf;
+
+    private PermissionRequirement(String description, int single, PermissionSet anyOf, PermissionSet allOf) {
+        this.description = description;
+        this.single = single;
+        this.anyOf = anyOf;
+        this.allOf = allOf;
+    }
+
+    /**
+     * Annotation'daki anahtarlar registry'ye kaydedilir; böylece sonradan bir role verilen izin
+     * aynı bit indeksine düşer ve derlenmiş gereksinim geçerliliğini korur
+     */
+    public static PermissionRequirement compile(HasPermission annotation, PermissionRegistry registry) {
+        int single = annotation.value().isEmpty() ? -1 : registry.register(annotation.value());
+        return new PermissionRequirement(
+                annotation.value(),
+                single,
+                compileKeys(annotation.any(), registry),
+                compileKeys(annotation.all(), registry));
+    }
+
+    private static PermissionSet compileKeys(String[] keys, PermissionRegistry registry) {
+        int[] bits = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            bits[i] = registry.register(keys[i]);
+        }
+        return PermissionSet.of(bits);
+    }
+
+    /**
+     * Tekil izin, "any" listesinden biri veya "all" listesinin tamamı verilmişse sağlanır
+     */
+    public boolean isSatisfiedBy(PermissionSet granted) {
+        if (single >= 0 && granted.contains(single)) {
+            return true;
+        }
+        if (granted.intersects(anyOf)) {
+            return true;
+        }
+        return !allOf.isEmpty() && granted.containsAll(allOf);
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
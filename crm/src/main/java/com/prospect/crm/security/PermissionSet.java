@@ -0,0 +1,93 @@
+package com.prospect.crm.security;
+
+import java.util.Arrays;
+
+/**
+ * PermissionRegistry bit indeksleriyle oluşturulmuş değişmez izin kümesi.
+ * İzin kontrolleri birkaç bitwise AND işlemine indirgenir.
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Negatif indeksler (kayıtlı olmayan izinler) yok sayılır
+     */
+    public static PermissionSet of(int... bits) {
+        int maxBit = -1;
+        for (int bit : bits) {
+            maxBit = Math.max(maxBit, bit);
+        }
+        if (maxBit < 0) {
+            return EMPTY;
+        }
+
+        long[] words = new long[(maxBit >>> 6) + 1];
+        for (int bit : bits) {
+            if (bit >= 0) {
+                words[bit >>> 6] |= 1L << bit;
+            }
+        }
+        return new PermissionSet(words);
+    }
+
+    public boolean contains(int bit) {
+        if (bit < 0) {
+            return false;
+        }
+        int word = bit >>> 6;
+        return word < words.length && (words[word] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Verilen kümedeki tüm izinler bu kümede varsa true döner
+     */
+    public boolean containsAll(PermissionSet required) {
+        long[] requiredWords = required.words;
+        for (int i = 0; i < requiredWords.length; i++) {
+            long granted = i < words.length ? words[i] : 0L;
+            if ((granted & requiredWords[i]) != requiredWords[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verilen kümedeki izinlerden en az biri bu kümede varsa true döner
+     */
+    public boolean intersects(PermissionSet other) {
+        int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PermissionSet other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
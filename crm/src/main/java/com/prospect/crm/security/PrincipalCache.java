@@ -0,0 +1,54 @@
+package com.prospect.crm.security;
+
+import com.prospect.crm.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * userId -> AuthenticatedUser için boyut sınırlı ve TTL'li önbellek.
+ * Her kimliği doğrulanmış istekte yapılan kullanıcı ve rol sorgularını ortadan kaldırır.
+ * Kullanıcı veya rol değiştiğinde UserService / RoleService tarafından geçersiz kılınır.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ExpiringCache<Long, AuthenticatedUser> cache;
+    private final long ttlNanos;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") int maxSize,
+                          @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new ExpiringCache<>(maxSize);
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Önbellekte geçerli kayıt varsa döner, yoksa loader ile yükleyip önbelleğe alır
+     */
+    public AuthenticatedUser get(Long userId, Function<Long, AuthenticatedUser> loader) {
+        return cache.get(userId, loader, principal -> System.nanoTime() + ttlNanos);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    /**
+     * Belirtilen role sahip tüm kullanıcıların kayıtlarını siler
+     */
+    public void invalidateRole(Long roleId) {
+        if (roleId != null) {
+            cache.invalidateIf(principal -> roleId.equals(principal.getRoleId()));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        return cache.getStats();
+    }
+}
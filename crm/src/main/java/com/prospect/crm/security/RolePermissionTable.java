@@ -0,0 +1,97 @@
+package com.prospect.crm.security;
+
+import com.prospect.crm.model.RolePermission;
+import com.prospect.crm.repository.RolePermissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * roleId -> derlenmiş PermissionSet tablosu.
+ * Tablo değişmezdir; rol izinleri değiştiğinde yeni tablo oluşturulup tek atamayla değiştirilir,
+ * böylece okuyucular kilit almadan tutarlı bir görüntü görür.
+ * Diğer node'lardaki değişiklikler PermissionTableRefreshScheduler ile periyodik olarak çekilir.
+ */
+@Slf4j
+@Component
+public class RolePermissionTable {
+
+    private final RolePermissionRepository rolePermissionRepository;
+    private final PermissionRegistry permissionRegistry;
+
+    private volatile Map<Long, PermissionSet> table;
+
+    public RolePermissionTable(RolePermissionRepository rolePermissionRepository,
+                               PermissionRegistry permissionRegistry) {
+        this.rolePermissionRepository = rolePermissionRepository;
+        this.permissionRegistry = permissionRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    public PermissionSet get(Long roleId) {
+        if (roleId == null) {
+            return PermissionSet.EMPTY;
+        }
+        Map<Long, PermissionSet> current = table;
+        if (current == null) {
+            current = reload();
+        }
+        return current.getOrDefault(roleId, PermissionSet.EMPTY);
+    }
+
+    /**
+     * Tüm rol izinlerini tek sorguda yükleyip tabloyu yeniden derler
+     */
+    public synchronized Map<Long, PermissionSet> reload() {
+        Map<Long, List<String>> keysByRole = rolePermissionRepository.findAll().stream()
+                .filter(rp -> rp.getRoleId() != null)
+                .collect(Collectors.groupingBy(rp -> rp.getRoleId().getId(),
+                        Collectors.mapping(RolePermission::getPermissionKey, Collectors.toList())));
+
+        Map<Long, PermissionSet> compiled = new HashMap<>();
+        keysByRole.forEach((roleId, keys) -> compiled.put(roleId, permissionRegistry.compile(keys)));
+
+        Map<Long, PermissionSet> next = Map.copyOf(compiled);
+        table = next;
+        log.debug("Role permission table compiled for {} roles, {} permission keys",
+                next.size(), permissionRegistry.size());
+        return next;
+    }
+
+    public void refreshRole(Long roleId) {
+        refreshRoles(List.of(roleId));
+    }
+
+    /**
+     * Verilen rollerin izinlerini yeniden derler ve tabloyu tek atamayla değiştirir
+     */
+    public synchronized void refreshRoles(Collection<Long> roleIds) {
+        if (table == null) {
+            reload();
+            return;
+        }
+
+        Map<Long, PermissionSet> next = new HashMap<>(table);
+        for (Long roleId : new HashSet<>(roleIds)) {
+            List<String> keys = rolePermissionRepository.findPermissionKeysByRoleId(roleId);
+            if (keys.isEmpty()) {
+                next.remove(roleId);
+            } else {
+                next.put(roleId, permissionRegistry.compile(keys));
+            }
+        }
+        table = Map.copyOf(next);
+    }
+}
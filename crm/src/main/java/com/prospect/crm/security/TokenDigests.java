@@ -0,0 +1,24 @@
+package com.prospect.crm.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * JWT'ler için sabit uzunluklu (SHA-256, 64 hex karakter) özet üretir
+ */
+public final class TokenDigests {
+
+    private TokenDigests() {
+    }
+
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
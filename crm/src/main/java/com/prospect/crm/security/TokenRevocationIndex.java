@@ -0,0 +1,152 @@
+package com.prospect.crm.security;
+
+import com.prospect.crm.model.JwtToken;
+import com.prospect.crm.repository.JwtTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * İptal edilmiş JWT'lerin bellek içi indeksi.
+ * Token özeti (SHA-256) ile anahtarlanır; Bloom filter iptal edilmemiş token'lar için
+ * hızlı negatif cevap verir, kesin kontrol ConcurrentHashMap üzerinden yapılır.
+ * Böylece her istekte jwt_token tablosuna gitmeye gerek kalmaz.
+ * Diğer node'lardaki iptaller JwtTokenCleanupScheduler tarafından periyodik olarak çekilir.
+ * İlk yükleme başarıyla bitene kadar tüm token'lar iptal edilmiş sayılır (fail closed).
+ */
+@Slf4j
+@Component
+public class TokenRevocationIndex implements SmartInitializingSingleton {
+
+    private static final int MIN_BLOOM_CAPACITY = 65_536;
+
+    // Node'lar arası saat farkı için senkronizasyon penceresi
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final JwtTokenRepository jwtTokenRepository;
+
+    // token özeti -> token'ın son geçerlilik zamanı
+    private final Map<String, LocalDateTime> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter = new BloomFilter(MIN_BLOOM_CAPACITY);
+    private volatile LocalDateTime lastSyncAt;
+
+    public TokenRevocationIndex(JwtTokenRepository jwtTokenRepository) {
+        this.jwtTokenRepository = jwtTokenRepository;
+    }
+
+    /**
+     * Süresi dolmamış tüm iptal kayıtlarını web sunucusu istek kabul etmeden önce yükler
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        syncFromDatabase();
+    }
+
+    public boolean isRevoked(String tokenDigest) {
+        // İlk yükleme başarısız olduysa boş indeks iptal edilmiş token'ları geçirirdi; senkronizasyon tekrar dener
+        if (lastSyncAt == null) {
+            return true;
+        }
+        return bloomFilter.mightContain(tokenDigest) && revokedTokens.containsKey(tokenDigest);
+    }
+
+    public synchronized void markRevoked(String tokenDigest, LocalDateTime expiresAt) {
+        revokedTokens.put(tokenDigest, expiresAt);
+        bloomFilter.put(tokenDigest);
+    }
+
+    /**
+     * Son senkronizasyondan bu yana iptal edilen token'ları veritabanından çeker.
+     * İlk çağrıda süresi dolmamış tüm iptal kayıtlarını yükler.
+     */
+    public void syncFromDatabase() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<JwtToken> revoked = lastSyncAt == null
+                    ? jwtTokenRepository.findByRevokedTrueAndExpiresAtAfter(startedAt)
+                    : jwtTokenRepository.findRevokedSince(lastSyncAt.minusSeconds(SYNC_OVERLAP_SECONDS), startedAt);
+
+            revoked.forEach(jwtToken -> markRevoked(jwtToken.getTokenDigest(), jwtToken.getExpiresAt()));
+
+            if (lastSyncAt == null) {
+                log.info("Token revocation index loaded with {} revoked tokens", revokedTokens.size());
+            }
+            lastSyncAt = startedAt;
+
+        } catch (Exception e) {
+            log.error("Error syncing token revocation index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Süresi dolmuş token'ları indeksten çıkarır ve Bloom filter'ı yeniden oluşturur.
+     * Süresi dolmuş token'lar zaten imza doğrulamasında reddedilir.
+     */
+    public synchronized int pruneExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int sizeBefore = revokedTokens.size();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt == null || expiresAt.isBefore(now));
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_BLOOM_CAPACITY, revokedTokens.size() * 2));
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+
+        return sizeBefore - revokedTokens.size();
+    }
+
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    /**
+     * SHA-256 özetleri zaten düzgün dağıldığı için hash fonksiyonu olarak
+     * özetin ilk 32 hex karakteri iki parça halinde kullanılır (double hashing).
+     */
+    private static final class BloomFilter {
+
+        private static final int HASH_COUNT = 5;
+        private static final int BITS_PER_ENTRY = 10;
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        BloomFilter(int expectedEntries) {
+            int words = (int) Math.max(1, ((long) expectedEntries * BITS_PER_ENTRY + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+        }
+
+        void put(String tokenDigest) {
+            long h1 = Long.parseUnsignedLong(tokenDigest, 0, 16, 16);
+            long h2 = Long.parseUnsignedLong(tokenDigest, 16, 32, 16);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << (bit & 63);
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String tokenDigest) {
+            long h1 = Long.parseUnsignedLong(tokenDigest, 0, 16, 16);
+            long h2 = Long.parseUnsignedLong(tokenDigest, 16, 32, 16);
+            for (int i = 0; i < HASH_COUNT; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.prospect.crm.security;
+
+import com.prospect.crm.constant.TokenType;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * İmzası ve veritabanı durumu bir kez doğrulanmış JWT.
+ * JwtAuthenticationFilter tarafından request attribute olarak taşınır,
+ * böylece aynı token istek boyunca tekrar parse edilmez.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    public static final String REQUEST_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private final String token;
+    private final Claims claims;
+    private final TokenType tokenType;
+    private final Long userId;
+
+    public boolean isAccessToken() {
+        return tokenType == TokenType.ACCESS;
+    }
+
+    public boolean isRefreshToken() {
+        return tokenType == TokenType.REFRESH;
+    }
+
+    /**
+     * Claim içindeki token tipini çözer, bilinmeyen değerler için null döner
+     */
+    public static TokenType resolveTokenType(Claims claims) {
+        String tokenType = claims.get("tokenType", String.class);
+        if (tokenType == null) {
+            return null;
+        }
+        try {
+            return TokenType.valueOf(tokenType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -6,11 +6,11 @@ import com.prospect.crm.dto.RefreshTokenRequestDto;
 import com.prospect.crm.exception.AuthenticationException;
 import com.prospect.crm.model.Users;
 import com.prospect.crm.repository.UserRepository;
+import com.prospect.crm.security.VerifiedToken;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 
 @Slf4j
 @Service
@@ -103,7 +103,7 @@ public class AuthService {
             systemLogService.logError(
                 "Login failed",
                 "Email: " + authRequestDto.getEmail() + ", Error: " + e.getMessage(),
-                    Arrays.toString(e.getStackTrace()),
+                    e,
                 "AuthService",
                 "login"
             );
@@ -117,12 +117,13 @@ public class AuthService {
     public AuthResponseDto refreshToken(RefreshTokenRequestDto refreshTokenRequestDto) {
         try {
             // Refresh token'ı doğrula
-            if (!jwtService.isRefreshToken(refreshTokenRequestDto.getRefreshToken())) {
+            VerifiedToken verifiedToken = jwtService.tryVerifyToken(refreshTokenRequestDto.getRefreshToken());
+            if (verifiedToken == null || !verifiedToken.isRefreshToken()) {
                 throw new AuthenticationException("Invalid refresh token");
             }
             
             // Kullanıcı ID'sini al
-            Long userId = jwtService.getUserIdFromToken(refreshTokenRequestDto.getRefreshToken());
+            Long userId = verifiedToken.getUserId();
             
             // Kullanıcıyı bul
             Users user = userRepository.findById(userId)
@@ -174,7 +175,7 @@ public class AuthService {
             systemLogService.logError(
                 "Token refresh failed",
                 "Refresh token: " + refreshTokenRequestDto.getRefreshToken().substring(0, Math.min(refreshTokenRequestDto.getRefreshToken().length(), 20)) + "..., Error: " + e.getMessage(),
-                    Arrays.toString(e.getStackTrace()),
+                    e,
                 "AuthService",
                 "refreshToken"
             );
@@ -187,8 +188,12 @@ public class AuthService {
      */
     public void logout(String accessToken, String refreshToken) {
         try {
-            if (accessToken != null && jwtService.isAccessToken(accessToken)) {
-                Long userId = jwtService.getUserIdFromToken(accessToken);
+            VerifiedToken verifiedAccessToken = jwtService.tryVerifyToken(accessToken);
+            VerifiedToken verifiedRefreshToken = verifiedAccessToken != null && verifiedAccessToken.isAccessToken()
+                    ? null : jwtService.tryVerifyToken(refreshToken);
+            
+            if (verifiedAccessToken != null && verifiedAccessToken.isAccessToken()) {
+                Long userId = verifiedAccessToken.getUserId();
                 Users user = userRepository.findById(userId).orElse(null);
                 
                 if (user != null) {
@@ -204,8 +209,8 @@ public class AuthService {
                         null
                     );
                 }
-            } else if (refreshToken != null && jwtService.isRefreshToken(refreshToken)) {
-                Long userId = jwtService.getUserIdFromToken(refreshToken);
+            } else if (verifiedRefreshToken != null && verifiedRefreshToken.isRefreshToken()) {
+                Long userId = verifiedRefreshToken.getUserId();
                 Users user = userRepository.findById(userId).orElse(null);
                 
                 if (user != null) {
@@ -228,7 +233,7 @@ public class AuthService {
             systemLogService.logError(
                 "Logout failed",
                 "Error: " + e.getMessage(),
-                e.getStackTrace().toString(),
+                e,
                 "AuthService",
                 "logout"
             );
@@ -240,11 +245,12 @@ public class AuthService {
      */
     public Users validateTokenAndGetUser(String token) {
         try {
-            if (!jwtService.isAccessToken(token)) {
+            VerifiedToken verifiedToken = jwtService.tryVerifyToken(token);
+            if (verifiedToken == null || !verifiedToken.isAccessToken()) {
                 throw new AuthenticationException("Invalid access token");
             }
             
-            Long userId = jwtService.getUserIdFromToken(token);
+            Long userId = verifiedToken.getUserId();
             Users user = userRepository.findById(userId)
                     .orElseThrow(() -> new AuthenticationException("User not found"));
             
@@ -259,4 +265,4 @@ public class AuthService {
             throw new AuthenticationException("Token validation failed");
         }
     }
-} 
\ No newline at end of file
+}
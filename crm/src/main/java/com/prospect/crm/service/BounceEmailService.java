@@ -12,7 +12,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 @Slf4j
@@ -20,6 +24,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BounceEmailService {
 
+    // Tek IN sorgusundaki en fazla adres
+    private static final int BOUNCE_LOOKUP_CHUNK = 1000;
+
     private final BounceEmailRepository bounceEmailRepository;
     private final LeadEmailGuessRepository leadEmailGuessRepository;
     private final UserRepository userRepository;
@@ -51,7 +58,7 @@ public class BounceEmailService {
                 "BounceEmailService", "processBounceEmail");
                 
         } catch (Exception e) {
-            systemLogService.logError("Failed to process bounce email", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to process bounce email", e.getMessage(), e,
                 "BounceEmailService", "processBounceEmail");
             throw new RuntimeException("Failed to process bounce email", e);
         }
@@ -69,12 +76,32 @@ public class BounceEmailService {
             return hardBounces.stream()
                     .anyMatch(bounce -> bounce.getBounceDate().isAfter(thirtyDaysAgo));
         } catch (Exception e) {
-            systemLogService.logError("Failed to check hard bounces", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to check hard bounces", e.getMessage(), e,
                 "BounceEmailService", "hasRecentHardBounces");
             return false;
         }
     }
 
+    /**
+     * Verilen adreslerden son 30 günde hard bounce almış olanlar; toplu gönderimde adres başına sorgu atılmaz
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findRecentHardBounces(Collection<String> emailAddresses) {
+        Set<String> bounced = new HashSet<>();
+        try {
+            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+            List<String> addresses = new ArrayList<>(emailAddresses);
+            for (int from = 0; from < addresses.size(); from += BOUNCE_LOOKUP_CHUNK) {
+                List<String> chunk = addresses.subList(from, Math.min(from + BOUNCE_LOOKUP_CHUNK, addresses.size()));
+                bounced.addAll(bounceEmailRepository.findRecentHardBouncedAddresses(chunk, thirtyDaysAgo));
+            }
+        } catch (Exception e) {
+            systemLogService.logError("Failed to check hard bounces", e.getMessage(), e,
+                "BounceEmailService", "findRecentHardBounces");
+        }
+        return bounced;
+    }
+
     /**
      * Get bounce statistics for an email address
      */
@@ -105,7 +132,7 @@ public class BounceEmailService {
                     .build();
                     
         } catch (Exception e) {
-            systemLogService.logError("Failed to get bounce statistics", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to get bounce statistics", e.getMessage(), e,
                 "BounceEmailService", "getBounceStatistics");
             throw new RuntimeException("Failed to get bounce statistics", e);
         }
@@ -136,13 +163,13 @@ public class BounceEmailService {
                 } catch (Exception e) {
                     systemLogService.logError("Failed to process individual bounce", 
                         "Email: " + bounce.getEmailAddress() + ", Error: " + e.getMessage(),
-                        e.getStackTrace().toString(),
+                        e,
                         "BounceEmailService", "processAllUnprocessedBounces");
                 }
             }
             
         } catch (Exception e) {
-            systemLogService.logError("Failed to process unprocessed bounces", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to process unprocessed bounces", e.getMessage(), e,
                 "BounceEmailService", "processAllUnprocessedBounces");
             throw new RuntimeException("Failed to process unprocessed bounces", e);
         }
@@ -189,7 +216,7 @@ public class BounceEmailService {
             }
             
         } catch (Exception e) {
-            systemLogService.logError("Failed to update lead email guess validation", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to update lead email guess validation", e.getMessage(), e,
                 "BounceEmailService", "updateLeadEmailGuessValidation");
         }
     }
@@ -49,7 +49,7 @@ public class DailyEmailLimitService {
 
             return canSend;
         } catch (Exception e) {
-            systemLogService.logError("Error checking daily email limit", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Error checking daily email limit", e.getMessage(), e,
                     "DailyEmailLimitService", "canSendEmail");
             return false;
         }
@@ -73,7 +73,7 @@ public class DailyEmailLimitService {
                     "DailyEmailLimitService", "incrementSentCount");
 
         } catch (Exception e) {
-            systemLogService.logError("Error incrementing sent count", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Error incrementing sent count", e.getMessage(), e,
                     "DailyEmailLimitService", "incrementSentCount");
             throw new RuntimeException("Failed to update email sent count");
         }
@@ -90,7 +90,7 @@ public class DailyEmailLimitService {
 
             return Math.max(0, dailyLimit.getDailyLimit() - dailyLimit.getSentCount());
         } catch (Exception e) {
-            systemLogService.logError("Error getting remaining emails", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Error getting remaining emails", e.getMessage(), e,
                     "DailyEmailLimitService", "getRemainingEmails");
             return 0;
         }
@@ -105,7 +105,7 @@ public class DailyEmailLimitService {
             LocalDate today = LocalDate.now();
             return getOrCreateDailyLimit(userId, today);
         } catch (Exception e) {
-            systemLogService.logError("Error getting daily limit info", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Error getting daily limit info", e.getMessage(), e,
                     "DailyEmailLimitService", "getDailyLimitInfo");
             throw new RuntimeException("Failed to get daily limit info");
         }
@@ -131,7 +131,7 @@ public class DailyEmailLimitService {
                         "DailyEmailLimitService", "resetDailyLimit");
             }
         } catch (Exception e) {
-            systemLogService.logError("Error resetting daily limit", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Error resetting daily limit", e.getMessage(), e,
                     "DailyEmailLimitService", "resetDailyLimit");
             throw new RuntimeException("Failed to reset daily limit");
         }
@@ -199,7 +199,7 @@ public class DailyEmailLimitService {
 
             return saved;
         } catch (Exception e) {
-            systemLogService.logError("Error creating daily limit", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Error creating daily limit", e.getMessage(), e,
                     "DailyEmailLimitService", "createDailyLimit");
             throw new RuntimeException("Failed to create daily limit record");
         }
@@ -0,0 +1,294 @@
+package com.prospect.crm.service;
+
+import com.prospect.crm.config.EmailOutboxConfig;
+import com.prospect.crm.constant.EmailCampaignStatus;
+import com.prospect.crm.constant.EmailOutboxStatus;
+import com.prospect.crm.constant.ErrorCode;
+import com.prospect.crm.constant.OAuthProvider;
+import com.prospect.crm.dto.EmailCampaignRequestDto;
+import com.prospect.crm.dto.EmailSendRequestDto;
+import com.prospect.crm.email.EmailCampaignStore;
+import com.prospect.crm.email.EmailOutbox;
+import com.prospect.crm.exception.ResourceNotFoundException;
+import com.prospect.crm.exception.ValidationException;
+import com.prospect.crm.model.Lead;
+import com.prospect.crm.model.LeadEmailGuess;
+import com.prospect.crm.model.Users;
+import com.prospect.crm.repository.LeadEmailGuessRepository;
+import com.prospect.crm.repository.LeadRepository;
+import com.prospect.crm.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Toplu email kampanyaları. Template ve lead seçimi sunucu tarafında alıcı bazında mesajlara açılır
+ * ve email_outbox'a kampanya hızına göre aralıklı next_attempt_at ile eklenir. Gönderim, limit ve
+ * sağlayıcı hız sınırları EmailOutboxWorker'a aittir; ilerleme outbox durumlarından okunur.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailCampaignService {
+
+    // Sağlayıcı için campaignRatePerSecond tanımlı değilse kullanılan hız (mesaj/sn)
+    private static final double DEFAULT_CAMPAIGN_RATE = 1.0;
+    private static final int LEAD_LOOKUP_CHUNK = 1000;
+    private static final int LIST_LIMIT = 50;
+
+    // Doğrulanmış adres önce, sonra en yüksek güven skoru
+    private static final Comparator<LeadEmailGuess> EMAIL_PREFERENCE = Comparator
+            .comparing((LeadEmailGuess guess) -> Boolean.TRUE.equals(guess.getValidated()))
+            .thenComparing(guess -> guess.getConfidenceScore() != null ? guess.getConfidenceScore() : 0.0);
+
+    private final EmailOutboxConfig emailOutboxConfig;
+    private final EmailCampaignStore emailCampaignStore;
+    private final EmailOutbox emailOutbox;
+    private final EmailService emailService;
+    private final LeadRepository leadRepository;
+    private final LeadEmailGuessRepository leadEmailGuessRepository;
+    private final UserRepository userRepository;
+    private final BounceEmailService bounceEmailService;
+    private final DailyEmailLimitService dailyEmailLimitService;
+    private final SystemLogService systemLogService;
+
+    /**
+     * Kampanyayı oluşturur ve alıcı mesajlarını kuyruğa ekler.
+     * Email adresi olmayan, tekrar eden veya son 30 günde hard bounce almış lead'ler atlanır.
+     */
+    @Transactional
+    public Map<String, Object> createCampaign(Long userId, EmailCampaignRequestDto request) {
+        OAuthProvider provider = OAuthProvider.fromCode(request.getProvider());
+        if (isBlank(request.getSubject())) {
+            throw new ValidationException("Campaign subject is required");
+        }
+        if (isBlank(request.getBody()) && isBlank(request.getTemplateName())) {
+            throw new ValidationException("Campaign body or templateName is required");
+        }
+        dailyEmailLimitService.validateEmailLimit(userId);
+
+        Users user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException(ErrorCode.USER_NOT_FOUND + ": " + userId));
+        List<Lead> leads = selectLeads(user, request);
+        Map<Long, String> emails = bestEmails(leads);
+        Set<String> bounced = bounceEmailService.findRecentHardBounces(emails.values());
+
+        String body = !isBlank(request.getBody()) ? request.getBody() : emailService.getEmailTemplate(request.getTemplateName());
+        String contentType = !isBlank(request.getContentType()) ? request.getContentType() : "text/html";
+
+        List<EmailSendRequestDto> messages = new ArrayList<>();
+        Set<String> recipients = new HashSet<>();
+        for (Lead lead : leads) {
+            String email = emails.get(lead.getId());
+            if (email == null || bounced.contains(email) || !recipients.add(email.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            Map<String, String> variables = variables(lead, email, request.getVariables());
+            messages.add(EmailSendRequestDto.builder()
+                    .provider(provider.getCode())
+                    .fromEmail(request.getFromEmail())
+                    .toEmails(List.of(email))
+                    .subject(render(request.getSubject(), variables))
+                    .body(render(body, variables))
+                    .contentType(contentType)
+                    .build());
+        }
+        if (messages.isEmpty()) {
+            throw new ValidationException("No selected lead has a deliverable email address");
+        }
+        if (messages.size() > emailOutboxConfig.getCampaignMaxRecipients()) {
+            throw new ValidationException("Campaign exceeds the recipient limit of " + emailOutboxConfig.getCampaignMaxRecipients());
+        }
+
+        double rate = campaignRate(provider, request.getMessagesPerSecond());
+        int skipped = leads.size() - messages.size();
+        String campaignId = UUID.randomUUID().toString();
+        long id = emailCampaignStore.insert(campaignId, userId, request.getName(), provider.getCode(),
+                request.getFromEmail(), request.getSubject(), rate, messages.size(), skipped);
+        emailOutbox.enqueueCampaign(userId, id, messages, Math.round(1000 / rate));
+
+        systemLogService.logBusiness("Email campaign created",
+                "Campaign: " + campaignId + ", Provider: " + provider.getCode() + ", Recipients: " + messages.size()
+                        + ", Skipped leads: " + skipped + ", Rate: " + rate + "/s",
+                userId.toString());
+
+        Map<String, Object> campaign = getCampaign(userId, campaignId);
+        campaign.put("remainingEmailsToday", dailyEmailLimitService.getRemainingEmails(userId));
+        return campaign;
+    }
+
+    /**
+     * Kampanya ve ilerlemesi. COMPLETED geçişi EmailOutboxWorker'da son mesaj sonuçlandığında yapılır.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCampaign(Long userId, String campaignId) {
+        Map<String, Object> campaign = findCampaign(userId, campaignId);
+        long id = (Long) campaign.remove("id");
+        Map<EmailOutboxStatus, Long> counts = emailOutbox.countByCampaign(id);
+        campaign.put("progress", progress(campaign, counts));
+        return campaign;
+    }
+
+    public List<Map<String, Object>> listCampaigns(Long userId) {
+        List<Map<String, Object>> campaigns = emailCampaignStore.findByUser(userId, LIST_LIMIT);
+        campaigns.forEach(campaign -> campaign.remove("id"));
+        return campaigns;
+    }
+
+    /**
+     * Bekleyen mesajları PAUSED yapar; o anda gönderilmekte olanlar tamamlanır
+     */
+    @Transactional
+    public Map<String, Object> pauseCampaign(Long userId, String campaignId) {
+        Map<String, Object> campaign = findCampaign(userId, campaignId);
+        long id = (Long) campaign.get("id");
+        if (!emailCampaignStore.markPaused(id)) {
+            throw new ValidationException("Only running campaigns can be paused. Current status: " + campaign.get("status"));
+        }
+        int paused = emailOutbox.pauseCampaign(id);
+
+        systemLogService.logBusiness("Email campaign paused",
+                "Campaign: " + campaignId + ", Paused messages: " + paused, userId.toString());
+        return getCampaign(userId, campaignId);
+    }
+
+    /**
+     * Duraklatılan mesajları, duraklatma süresi kadar ileri kaydırarak yeniden kuyruğa alır
+     */
+    @Transactional
+    public Map<String, Object> resumeCampaign(Long userId, String campaignId) {
+        Map<String, Object> campaign = findCampaign(userId, campaignId);
+        long id = (Long) campaign.get("id");
+        if (campaign.get("status") != EmailCampaignStatus.PAUSED) {
+            throw new ValidationException("Only paused campaigns can be resumed. Current status: " + campaign.get("status"));
+        }
+        int resumed = emailOutbox.resumeCampaign(id);
+        if (!emailCampaignStore.markResumed(id)) {
+            // Aynı anda başka bir istek kampanyayı devam ettirdi; bu transaction geri alınır
+            throw new ValidationException("Campaign is no longer paused");
+        }
+        // Duraklatılmışken son mesajlar da sonuçlandıysa devam ettirilecek mesaj kalmamıştır
+        emailCampaignStore.completeIfFinished(id);
+
+        systemLogService.logBusiness("Email campaign resumed",
+                "Campaign: " + campaignId + ", Resumed messages: " + resumed, userId.toString());
+        return getCampaign(userId, campaignId);
+    }
+
+    private Map<String, Object> findCampaign(Long userId, String campaignId) {
+        Map<String, Object> campaign = emailCampaignStore.find(campaignId, userId);
+        if (campaign == null) {
+            throw new ResourceNotFoundException(ErrorCode.EMAIL_CAMPAIGN_NOT_FOUND.getMessage() + " : " + campaignId);
+        }
+        return campaign;
+    }
+
+    private List<Lead> selectLeads(Users user, EmailCampaignRequestDto request) {
+        List<Lead> leads;
+        if (request.getLeadIds() != null && !request.getLeadIds().isEmpty()) {
+            if (request.getLeadIds().size() > emailOutboxConfig.getCampaignMaxRecipients()) {
+                throw new ValidationException("Campaign exceeds the recipient limit of " + emailOutboxConfig.getCampaignMaxRecipients());
+            }
+            leads = leadRepository.findAllById(request.getLeadIds()).stream()
+                    .filter(lead -> lead.getUsersId().getId().equals(user.getId()))
+                    .toList();
+        } else if (!isBlank(request.getLeadStatus())) {
+            leads = leadRepository.findByUsersIdAndStatus(user, request.getLeadStatus());
+        } else {
+            leads = leadRepository.findByUsersIdAndIsActiveTrue(user);
+        }
+        return leads.stream()
+                .filter(lead -> Boolean.TRUE.equals(lead.getIsActive()))
+                .toList();
+    }
+
+    /**
+     * Lead başına en iyi email tahmini; tahmini olmayan lead'ler sonuçta yer almaz
+     */
+    private Map<Long, String> bestEmails(List<Lead> leads) {
+        Map<Long, LeadEmailGuess> best = new HashMap<>();
+        for (int from = 0; from < leads.size(); from += LEAD_LOOKUP_CHUNK) {
+            List<Lead> chunk = leads.subList(from, Math.min(from + LEAD_LOOKUP_CHUNK, leads.size()));
+            for (LeadEmailGuess guess : leadEmailGuessRepository.findByLeadIdIn(chunk)) {
+                if (isBlank(guess.getGuessedEmail())) {
+                    continue;
+                }
+                best.merge(guess.getLeadId().getId(), guess,
+                        (current, candidate) -> EMAIL_PREFERENCE.compare(candidate, current) > 0 ? candidate : current);
+            }
+        }
+        Map<Long, String> emails = new HashMap<>();
+        best.forEach((leadId, guess) -> emails.put(leadId, guess.getGuessedEmail().trim()));
+        return emails;
+    }
+
+    private double campaignRate(OAuthProvider provider, Double requested) {
+        Double configured = emailOutboxConfig.getCampaignRatePerSecond().get(provider.getCode());
+        double rate = configured != null && configured > 0 ? configured : DEFAULT_CAMPAIGN_RATE;
+        return requested != null && requested > 0 ? Math.min(rate, requested) : rate;
+    }
+
+    /**
+     * Ortak değişkenler önce, lead değişkenleri (aynı isimde olanları ezerek) sonra eklenir
+     */
+    private static Map<String, String> variables(Lead lead, String email, Map<String, String> common) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        if (common != null) {
+            variables.putAll(common);
+        }
+        String fullName = lead.getFullName() != null ? lead.getFullName().trim() : "";
+        variables.put("fullName", fullName);
+        variables.put("leadName", fullName);
+        variables.put("firstName", fullName.isEmpty() ? "" : fullName.split("\\s+")[0]);
+        variables.put("title", nullToEmpty(lead.getTitle()));
+        variables.put("companyName", nullToEmpty(lead.getCompanyName()));
+        variables.put("domain", nullToEmpty(lead.getDomain()));
+        variables.put("email", email);
+        return variables;
+    }
+
+    private static String render(String template, Map<String, String> variables) {
+        String rendered = template;
+        for (Map.Entry<String, String> entry : variables.entrySet()) {
+            rendered = rendered.replace("{{" + entry.getKey() + "}}", nullToEmpty(entry.getValue()));
+        }
+        return rendered;
+    }
+
+    private static Map<String, Object> progress(Map<String, Object> campaign, Map<EmailOutboxStatus, Long> counts) {
+        // Tamamlanan kampanyada outbox temizliği sonrası da doğru kalması için kayıtlı sayılar kullanılır
+        boolean completed = campaign.get("status") == EmailCampaignStatus.COMPLETED && campaign.get("sentCount") != null;
+        long sent = completed ? ((Integer) campaign.get("sentCount")).longValue() : counts.get(EmailOutboxStatus.SENT);
+        long failed = completed ? ((Integer) campaign.get("failedCount")).longValue() : counts.get(EmailOutboxStatus.FAILED);
+        int total = (Integer) campaign.get("totalMessages");
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("pending", counts.get(EmailOutboxStatus.PENDING));
+        progress.put("paused", counts.get(EmailOutboxStatus.PAUSED));
+        progress.put("sending", counts.get(EmailOutboxStatus.SENDING));
+        progress.put("sent", sent);
+        progress.put("failed", failed);
+        progress.put("percentComplete", total > 0 ? Math.round((sent + failed) * 1000.0 / total) / 10.0 : 100.0);
+        return progress;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -83,7 +83,7 @@ public class EmailDraftService {
 
             return mapToResponseDto(savedDraft);
         } catch (Exception e) {
-            systemLogService.logError("Failed to create email draft", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to create email draft", e.getMessage(), e, 
                 "EmailDraftService", "createDraft");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_CREATION_FAILED.getMessage());
         }
@@ -132,7 +132,7 @@ public class EmailDraftService {
 
             return mapToResponseDto(savedDraft);
         } catch (Exception e) {
-            systemLogService.logError("Failed to create robot email draft", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to create robot email draft", e.getMessage(), e, 
                 "EmailDraftService", "createRobotDraft");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_CREATION_FAILED.getMessage());
         }
@@ -147,7 +147,7 @@ public class EmailDraftService {
             Page<EmailDraft> drafts = emailDraftRepository.findByUserIdIdAndCreatedByRobotTrueOrderByCreatedAtDesc(userId, pageable);
             return drafts.map(this::mapToResponseDto);
         } catch (Exception e) {
-            systemLogService.logError("Failed to get robot drafts", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to get robot drafts", e.getMessage(), e, 
                 "EmailDraftService", "getRobotDrafts");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_RETRIEVAL_FAILED.getMessage());
         }
@@ -162,7 +162,7 @@ public class EmailDraftService {
             Page<EmailDraft> drafts = emailDraftRepository.findByUserIdIdOrderByCreatedAtDesc(userId, pageable);
             return drafts.map(this::mapToResponseDto);
         } catch (Exception e) {
-            systemLogService.logError("Failed to get all drafts", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to get all drafts", e.getMessage(), e, 
                 "EmailDraftService", "getAllDrafts");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_RETRIEVAL_FAILED.getMessage());
         }
@@ -183,7 +183,7 @@ public class EmailDraftService {
         } catch (ResourceNotFoundException | ValidationException e) {
             throw e;
         } catch (Exception e) {
-            systemLogService.logError("Failed to get email draft", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to get email draft", e.getMessage(), e, 
                 "EmailDraftService", "getDraft");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_RETRIEVAL_FAILED.getMessage());
         }
@@ -237,7 +237,7 @@ public class EmailDraftService {
         } catch (ResourceNotFoundException | ValidationException e) {
             throw e;
         } catch (Exception e) {
-            systemLogService.logError("Failed to update email draft", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to update email draft", e.getMessage(), e, 
                 "EmailDraftService", "updateDraft");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_UPDATE_FAILED.getMessage());
         }
@@ -262,7 +262,7 @@ public class EmailDraftService {
         } catch (ResourceNotFoundException | ValidationException e) {
             throw e;
         } catch (Exception e) {
-            systemLogService.logError("Failed to delete email draft", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to delete email draft", e.getMessage(), e, 
                 "EmailDraftService", "deleteDraft");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_DELETION_FAILED.getMessage());
         }
@@ -308,7 +308,7 @@ public class EmailDraftService {
                     .build();
 
         } catch (Exception e) {
-            systemLogService.logError("Failed to list email drafts", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to list email drafts", e.getMessage(), e, 
                 "EmailDraftService", "listDrafts");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_LIST_FAILED.getMessage());
         }
@@ -392,7 +392,7 @@ public class EmailDraftService {
                 log.error("Failed to log draft sending failure", logException);
             }
             
-            systemLogService.logError("Failed to send email draft", e.getMessage(), e.getStackTrace().toString(), 
+            systemLogService.logError("Failed to send email draft", e.getMessage(), e, 
                 "EmailDraftService", "sendDraft");
             throw new RuntimeException(ErrorCode.EMAIL_DRAFT_SEND_FAILED.getMessage());
         }
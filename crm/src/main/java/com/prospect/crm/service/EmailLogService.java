@@ -46,7 +46,7 @@ public class EmailLogService {
                 "EmailLogService", "logEmailSent");
                 
         } catch (Exception e) {
-            systemLogService.logError("Failed to create email log", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to create email log", e.getMessage(), e,
                 "EmailLogService", "logEmailSent");
             log.error("Error creating email log: {}", e.getMessage(), e);
         }
@@ -84,7 +84,7 @@ public class EmailLogService {
                 "EmailLogService", "logEmailRead");
                 
         } catch (Exception e) {
-            systemLogService.logError("Failed to create email read log", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to create email read log", e.getMessage(), e,
                 "EmailLogService", "logEmailRead");
             log.error("Error creating email read log: {}", e.getMessage(), e);
         }
@@ -114,7 +114,7 @@ public class EmailLogService {
                 "EmailLogService", "logEmailDelete");
                 
         } catch (Exception e) {
-            systemLogService.logError("Failed to create email delete log", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to create email delete log", e.getMessage(), e,
                 "EmailLogService", "logEmailDelete");
             log.error("Error creating email delete log: {}", e.getMessage(), e);
         }
@@ -144,7 +144,7 @@ public class EmailLogService {
                 "EmailLogService", "logEmailList");
                 
         } catch (Exception e) {
-            systemLogService.logError("Failed to create email list log", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to create email list log", e.getMessage(), e,
                 "EmailLogService", "logEmailList");
             log.error("Error creating email list log: {}", e.getMessage(), e);
         }
@@ -174,12 +174,45 @@ public class EmailLogService {
                 "EmailLogService", "logEmailAction");
                 
         } catch (Exception e) {
-            systemLogService.logError("Failed to create email action log", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to create email action log", e.getMessage(), e,
                 "EmailLogService", "logEmailAction");
             log.error("Error creating email action log: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Toplu email işlemi (okundu, yıldız, silme...) için tek bir log kaydı oluşturur.
+     * Id listesi yerine işlem yapılan mesaj sayısı saklanır.
+     */
+    @Transactional
+    public void logBulkEmailAction(Long userId, String action, List<String> emailIds, String status, String errorMessage) {
+        try {
+            Users user = userRepository.getReferenceById(userId);
+            int count = emailIds != null ? emailIds.size() : 0;
+            
+            EmailLog emailLog = new EmailLog();
+            emailLog.setUserId(user);
+            emailLog.setDraftId(null);
+            emailLog.setRecipientEmail(count == 1 ? emailIds.get(0) : count + " messages");
+            emailLog.setStatus(action + "_" + status);
+            emailLog.setResponseReceived(true);
+            // error_message varchar(255); toplu hata mesajı birden fazla örnek içerebilir
+            emailLog.setErrorMessage(errorMessage != null && errorMessage.length() > 255 ? errorMessage.substring(0, 255) : errorMessage);
+            emailLog.setSentAt(LocalDateTime.now());
+            
+            emailLogRepository.save(emailLog);
+            
+            systemLogService.logInfo("Bulk email action log created", 
+                "User: " + userId + ", Action: " + action + ", Count: " + count + ", Status: " + status,
+                "EmailLogService", "logBulkEmailAction");
+                
+        } catch (Exception e) {
+            systemLogService.logError("Failed to create bulk email action log", e.getMessage(), e,
+                "EmailLogService", "logBulkEmailAction");
+            log.error("Error creating bulk email action log: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Email template rendering işlemi için log kaydı oluşturur
      */
@@ -204,7 +237,7 @@ public class EmailLogService {
                 "EmailLogService", "logEmailTemplateRendering");
                 
         } catch (Exception e) {
-            systemLogService.logError("Failed to create email template rendering log", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to create email template rendering log", e.getMessage(), e,
                 "EmailLogService", "logEmailTemplateRendering");
             log.error("Error creating email template rendering log: {}", e.getMessage(), e);
         }
@@ -219,7 +252,7 @@ public class EmailLogService {
             Users user = userRepository.getReferenceById(userId);
             return emailLogRepository.findByUserIdOrderBySentAtDesc(user);
         } catch (Exception e) {
-            systemLogService.logError("Failed to get user email logs", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to get user email logs", e.getMessage(), e,
                 "EmailLogService", "getUserEmailLogs");
             log.error("Error getting user email logs: {}", e.getMessage(), e);
             return List.of();
@@ -235,7 +268,7 @@ public class EmailLogService {
             Users user = userRepository.getReferenceById(userId);
             return emailLogRepository.findByUserIdAndSentAtBetweenOrderBySentAtDesc(user, startDate, endDate);
         } catch (Exception e) {
-            systemLogService.logError("Failed to get email logs by date range", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to get email logs by date range", e.getMessage(), e,
                 "EmailLogService", "getEmailLogsByDateRange");
             log.error("Error getting email logs by date range: {}", e.getMessage(), e);
             return List.of();
@@ -251,7 +284,7 @@ public class EmailLogService {
             Users user = userRepository.getReferenceById(userId);
             return emailLogRepository.findByUserIdAndStatusOrderBySentAtDesc(user, status);
         } catch (Exception e) {
-            systemLogService.logError("Failed to get email logs by status", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to get email logs by status", e.getMessage(), e,
                 "EmailLogService", "getEmailLogsByStatus");
             log.error("Error getting email logs by status: {}", e.getMessage(), e);
             return List.of();
@@ -267,7 +300,7 @@ public class EmailLogService {
             Users user = userRepository.getReferenceById(userId);
             return emailLogRepository.findByUserIdAndStatusContainingIgnoreCaseOrderBySentAtDesc(user, "FAILED");
         } catch (Exception e) {
-            systemLogService.logError("Failed to get failed email logs", e.getMessage(), e.getStackTrace().toString(),
+            systemLogService.logError("Failed to get failed email logs", e.getMessage(), e,
                 "EmailLogService", "getFailedEmailLogs");
             log.error("Error getting failed email logs: {}", e.getMessage(), e);
             return List.of();
@@ -1,5 +1,7 @@
 package com.prospect.crm.service;
 
+import com.prospect.crm.constant.EmailOutboxStatus;
+import com.prospect.crm.constant.ErrorCode;
 import com.prospect.crm.constant.OAuthProvider;
 import com.prospect.crm.dto.EmailSendRequestDto;
 import com.prospect.crm.dto.EmailReadRequestDto;
@@ -7,6 +9,11 @@ import com.prospect.crm.dto.EmailReadResponseDto;
 import com.prospect.crm.dto.EmailDeleteRequestDto;
 import com.prospect.crm.dto.EmailListRequestDto;
 import com.prospect.crm.dto.EmailListResponseDto;
+import com.prospect.crm.email.EmailOutbox;
+import com.prospect.crm.email.GraphBatchExecutor;
+import com.prospect.crm.exception.BulkEmailActionException;
+import com.prospect.crm.exception.RateLimitException;
+import com.prospect.crm.exception.ResourceNotFoundException;
 import com.prospect.crm.model.OauthToken;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
@@ -16,38 +23,51 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriUtils;
 
 import javax.mail.*;
 import javax.mail.internet.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class EmailService {
 
+    private static final String GMAIL_MESSAGES_URL = "https://gmail.googleapis.com/gmail/v1/users/me/messages";
+
+    // Gmail batchModify/batchDelete tek istekte en fazla 1000 id kabul eder
+    private static final int GMAIL_BATCH_LIMIT = 1000;
+
     private final OAuthService oAuthService;
     private final SystemLogService systemLogService;
     private final DailyEmailLimitService dailyEmailLimitService;
     private final BounceEmailService bounceEmailService;
     private final EmailLogService emailLogService;
+    private final EmailOutbox emailOutbox;
+    private final GraphBatchExecutor graphBatchExecutor;
     private final RestTemplate restTemplate;
 
-    public EmailService(OAuthService oAuthService, SystemLogService systemLogService, DailyEmailLimitService dailyEmailLimitService, BounceEmailService bounceEmailService, EmailLogService emailLogService) {
+    public EmailService(OAuthService oAuthService, SystemLogService systemLogService, DailyEmailLimitService dailyEmailLimitService, BounceEmailService bounceEmailService, EmailLogService emailLogService, EmailOutbox emailOutbox, GraphBatchExecutor graphBatchExecutor, RestTemplate providerRestTemplate) {
         this.oAuthService = oAuthService;
         this.systemLogService = systemLogService;
         this.dailyEmailLimitService = dailyEmailLimitService;
         this.bounceEmailService = bounceEmailService;
         this.emailLogService = emailLogService;
-        this.restTemplate = new RestTemplate();
+        this.emailOutbox = emailOutbox;
+        this.graphBatchExecutor = graphBatchExecutor;
+        this.restTemplate = providerRestTemplate;
     }
 
     /**
-     * Email gönderir (Gmail veya Outlook)
+     * Email gönderir (Gmail veya Outlook); sağlayıcı yanıtına kadar çağıran thread'i bekletir
      */
     public void sendEmail(Long userId, EmailSendRequestDto request) {
         try {
@@ -57,39 +77,92 @@ public class EmailService {
             // Check for bounce emails before sending
             checkAndFilterBounceEmails(request);
             
-            OAuthProvider provider = OAuthProvider.fromCode(request.getProvider());
-            
-            switch (provider) {
-                case GOOGLE -> sendEmailViaGmail(userId, request);
-                case MICROSOFT -> sendEmailViaOutlook(userId, request);
-                default -> throw new IllegalArgumentException("Unsupported email provider: " + request.getProvider());
-            }
-            
-            // Increment successful email count
-            dailyEmailLimitService.incrementSuccessfulEmailCount(userId);
-            
-            // Log successful email send for each recipient
-            for (String recipient : request.getToEmails()) {
-                emailLogService.logEmailSent(userId, recipient, "SENT", null);
-            }
-            
-            systemLogService.logBusiness("Email sent successfully", 
-                "Provider: " + request.getProvider() + ", To: " + request.getToEmails(), 
-                userId.toString());
+            deliver(userId, request);
                 
         } catch (Exception e) {
             log.error("Error sending email: {}", e.getMessage(), e);
-            
-            // Log failed email send for each recipient
+            recordFailedDelivery(userId, request, e);
+            throw new RuntimeException("Failed to send email", e);
+        }
+    }
+
+    /**
+     * Email'i outbox kuyruğuna ekler; gönderim EmailOutboxWorker tarafından yapılır.
+     * Limit, bounce ve sağlayıcı kontrolleri burada yapılır, sağlayıcı çağrısı istek thread'inde beklenmez.
+     */
+    public Map<String, Object> queueEmail(Long userId, EmailSendRequestDto request) {
+        dailyEmailLimitService.validateEmailLimit(userId);
+        checkAndFilterBounceEmails(request);
+        OAuthProvider.fromCode(request.getProvider());
+        
+        String messageId = emailOutbox.enqueue(userId, request);
+        
+        systemLogService.logBusiness("Email queued", 
+            "Message: " + messageId + ", Provider: " + request.getProvider() + ", To: " + request.getToEmails(), 
+            userId.toString());
+        
+        return Map.of("messageId", messageId, "status", EmailOutboxStatus.PENDING);
+    }
+
+    /**
+     * Kuyruktaki email'in gönderim durumu
+     */
+    public Map<String, Object> getQueuedEmailStatus(Long userId, String messageId) {
+        Map<String, Object> status = emailOutbox.find(messageId, userId);
+        if (status == null) {
+            throw new ResourceNotFoundException(ErrorCode.EMAIL_OUTBOX_NOT_FOUND.getMessage() + " : " + messageId);
+        }
+        return status;
+    }
+
+    /**
+     * Outbox worker'ı tarafından çağrılır; limit gönderim anında yeniden kontrol edilir.
+     * Hata loglaması yeniden deneme kararını veren worker'a bırakılır.
+     */
+    public void deliverQueuedEmail(Long userId, EmailSendRequestDto request) {
+        if (!dailyEmailLimitService.canSendEmail(userId)) {
+            // Worker kampanya mesajlarını bu hatada ertesi güne erteler, tekil mesajları FAILED yapar
+            throw new RateLimitException(ErrorCode.DAILY_EMAIL_LIMIT_REACHED.getMessage() + " for user " + userId);
+        }
+        deliver(userId, request);
+    }
+
+    private void deliver(Long userId, EmailSendRequestDto request) {
+        OAuthProvider provider = OAuthProvider.fromCode(request.getProvider());
+        
+        switch (provider) {
+            case GOOGLE -> sendEmailViaGmail(userId, request);
+            case MICROSOFT -> sendEmailViaOutlook(userId, request);
+            default -> throw new IllegalArgumentException("Unsupported email provider: " + request.getProvider());
+        }
+        
+        // Increment successful email count
+        dailyEmailLimitService.incrementSuccessfulEmailCount(userId);
+        
+        // Log successful email send for each recipient
+        for (String recipient : request.getToEmails()) {
+            emailLogService.logEmailSent(userId, recipient, "SENT", null);
+        }
+        
+        systemLogService.logBusiness("Email sent successfully", 
+            "Provider: " + request.getProvider() + ", To: " + request.getToEmails(), 
+            userId.toString());
+    }
+
+    /**
+     * Kesin olarak başarısız olan gönderimi alıcı bazında email loguna ve system loga yazar
+     */
+    public void recordFailedDelivery(Long userId, EmailSendRequestDto request, Exception e) {
+        // Log failed email send for each recipient
+        if (request != null && request.getToEmails() != null) {
             for (String recipient : request.getToEmails()) {
                 emailLogService.logEmailSent(userId, recipient, "FAILED", e.getMessage());
             }
-            
-            systemLogService.logError("Email sending failed", 
-                "Provider: " + request.getProvider() + ", To: " + request.getToEmails(), 
-                e.getMessage(), "EmailService", "sendEmail");
-            throw new RuntimeException("Failed to send email", e);
         }
+        
+        systemLogService.logError("Email sending failed", 
+            request != null ? "Provider: " + request.getProvider() + ", To: " + request.getToEmails() : "User: " + userId, 
+            e.getMessage(), "EmailService", "sendEmail");
     }
 
     /**
@@ -312,7 +385,7 @@ public class EmailService {
             // Log failed SMTP email send
             systemLogService.logError("SMTP email sending failed", 
                 "From: " + fromEmail + ", To: " + toEmails + ", Error: " + e.getMessage(),
-                e.getStackTrace().toString(), "EmailService", "sendEmailViaSMTP");
+                e, "EmailService", "sendEmailViaSMTP");
             
             throw new RuntimeException("Failed to send email via SMTP", e);
         }
@@ -343,16 +416,16 @@ public class EmailService {
             // Log failed template rendering
             systemLogService.logError("Email template rendering failed", 
                 "Template: " + templateName + ", Error: " + e.getMessage(),
-                e.getStackTrace().toString(), "EmailService", "renderEmailTemplate");
+                e, "EmailService", "renderEmailTemplate");
             
             throw new RuntimeException("Failed to render email template", e);
         }
     }
 
     /**
-     * Email template'ini getirir
+     * Email template'ini getirir (kampanyalar alıcı bazında kendisi render eder)
      */
-    private String getEmailTemplate(String templateName) {
+    public String getEmailTemplate(String templateName) {
         return switch (templateName) {
             case "welcome" -> """
                 <html>
@@ -685,109 +758,49 @@ public class EmailService {
                 default -> throw new IllegalArgumentException("Unsupported email provider: " + request.getProvider());
             }
             
-            // Log successful email deletion for each email ID
-            for (String emailId : request.getEmailIds()) {
-                emailLogService.logEmailDelete(userId, emailId, "SUCCESS", null);
-            }
+            emailLogService.logBulkEmailAction(userId, "DELETE", request.getEmailIds(), "SUCCESS", null);
             
             systemLogService.logBusiness("Emails deleted successfully", 
-                "Provider: " + request.getProvider() + ", Email IDs: " + request.getEmailIds() + ", Permanent: " + request.getPermanentDelete(), 
+                "Provider: " + request.getProvider() + ", Count: " + sizeOf(request.getEmailIds()) + ", Permanent: " + request.getPermanentDelete(), 
                 userId.toString());
                 
         } catch (Exception e) {
             log.error("Error deleting emails: {}", e.getMessage(), e);
             
-            // Log failed email deletion for each email ID
-            for (String emailId : request.getEmailIds()) {
-                emailLogService.logEmailDelete(userId, emailId, "FAILED", e.getMessage());
-            }
+            recordBulkFailure(userId, "DELETE", request.getEmailIds(), e);
             
             systemLogService.logError("Email deletion failed", 
-                "Provider: " + request.getProvider() + ", Email IDs: " + request.getEmailIds(), 
+                "Provider: " + request.getProvider() + ", Count: " + sizeOf(request.getEmailIds()), 
                 e.getMessage(), "EmailService", "deleteEmails");
             throw new RuntimeException("Failed to delete emails", e);
         }
     }
 
     /**
-     * Gmail API ile email'leri siler
+     * Gmail API ile email'leri siler; kalıcı silme batchDelete, çöp kutusuna taşıma TRASH etiketiyle batchModify kullanır
      */
     private void deleteEmailsViaGmail(Long userId, EmailDeleteRequestDto request) {
-        try {
-            Optional<OauthToken> tokenOpt = oAuthService.getValidToken(userId, request.getProvider(), null);
-            
-            if (tokenOpt.isEmpty()) {
-                throw new RuntimeException("No valid OAuth token found for Gmail");
-            }
-            
-            OauthToken token = tokenOpt.get();
-            
-            // Her email için silme işlemi
-            for (String emailId : request.getEmailIds()) {
-                String gmailApiUrl = "https://gmail.googleapis.com/gmail/v1/users/me/messages/" + emailId;
-                
-                // Headers
-                HttpHeaders headers = new HttpHeaders();
-                headers.setBearerAuth(token.getAccessToken());
-                
-                HttpEntity<String> requestEntity = new HttpEntity<>(headers);
-                
-                ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    gmailApiUrl, 
-                    HttpMethod.DELETE, 
-                    requestEntity, 
-                    new ParameterizedTypeReference<Map<String, Object>>() {}
-                );
-                
-                if (!response.getStatusCode().is2xxSuccessful()) {
-                    throw new RuntimeException("Gmail API error: " + response.getStatusCode());
-                }
+        if (Boolean.FALSE.equals(request.getPermanentDelete())) {
+            modifyGmailLabels(userId, request.getProvider(), request.getEmailIds(), List.of("TRASH"), List.of());
+        } else {
+            OauthToken token = getGmailToken(userId, request.getProvider());
+            for (List<String> chunk : gmailBatches(request.getEmailIds())) {
+                postGmailBatch(token, "batchDelete", Map.of("ids", chunk));
             }
-            
-        } catch (Exception e) {
-            log.error("Error deleting emails via Gmail: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to delete emails via Gmail", e);
         }
     }
 
     /**
-     * Outlook/Microsoft Graph API ile email'leri siler
+     * Outlook/Microsoft Graph API ile email'leri siler; permanentDelete=true ise kurtarılamaz şekilde,
+     * aksi halde Silinmiş Öğeler klasörüne taşıyarak
      */
     private void deleteEmailsViaOutlook(Long userId, EmailDeleteRequestDto request) {
-        try {
-            Optional<OauthToken> tokenOpt = oAuthService.getValidToken(userId, request.getProvider(), null);
-            
-            if (tokenOpt.isEmpty()) {
-                throw new RuntimeException("No valid OAuth token found for Outlook");
-            }
-            
-            OauthToken token = tokenOpt.get();
-            
-            // Her email için silme işlemi
-            for (String emailId : request.getEmailIds()) {
-                String graphApiUrl = "https://graph.microsoft.com/v1.0/me/messages/" + emailId;
-                
-                // Headers
-                HttpHeaders headers = new HttpHeaders();
-                headers.setBearerAuth(token.getAccessToken());
-                
-                HttpEntity<String> requestEntity = new HttpEntity<>(headers);
-                
-                ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    graphApiUrl, 
-                    HttpMethod.DELETE, 
-                    requestEntity, 
-                    new ParameterizedTypeReference<Map<String, Object>>() {}
-                );
-                
-                if (!response.getStatusCode().is2xxSuccessful()) {
-                    throw new RuntimeException("Microsoft Graph API error: " + response.getStatusCode());
-                }
-            }
-            
-        } catch (Exception e) {
-            log.error("Error deleting emails via Outlook: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to delete emails via Outlook", e);
+        if (Boolean.TRUE.equals(request.getPermanentDelete())) {
+            runOutlookBatch(userId, request.getProvider(), request.getEmailIds(),
+                id -> new GraphBatchExecutor.Request(id, HttpMethod.POST, outlookMessagePath(id) + "/permanentDelete", null));
+        } else {
+            runOutlookBatch(userId, request.getProvider(), request.getEmailIds(),
+                id -> new GraphBatchExecutor.Request(id, HttpMethod.DELETE, outlookMessagePath(id), null));
         }
     }
 
@@ -801,27 +814,21 @@ public class EmailService {
             OAuthProvider oAuthProvider = OAuthProvider.fromCode(provider);
             
             switch (oAuthProvider) {
-                case GOOGLE -> markAsReadViaGmail(userId, emailIds);
-                case MICROSOFT -> markAsReadViaOutlook(userId, emailIds);
+                case GOOGLE -> markAsReadViaGmail(userId, provider, emailIds);
+                case MICROSOFT -> markAsReadViaOutlook(userId, provider, emailIds);
                 default -> throw new IllegalArgumentException("Unsupported email provider: " + provider);
             }
             
-            // Log successful mark as read for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "MARK_READ", "SUCCESS", null);
-            }
+            emailLogService.logBulkEmailAction(userId, "MARK_READ", emailIds, "SUCCESS", null);
             
             systemLogService.logBusiness("Emails marked as read", 
-                "Provider: " + provider + ", Email IDs: " + emailIds, 
+                "Provider: " + provider + ", Count: " + sizeOf(emailIds), 
                 userId.toString());
                 
         } catch (Exception e) {
             log.error("Error marking emails as read: {}", e.getMessage(), e);
             
-            // Log failed mark as read for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "MARK_READ", "FAILED", e.getMessage());
-            }
+            recordBulkFailure(userId, "MARK_READ", emailIds, e);
             
             throw new RuntimeException("Failed to mark emails as read", e);
         }
@@ -835,27 +842,21 @@ public class EmailService {
             OAuthProvider oAuthProvider = OAuthProvider.fromCode(provider);
             
             switch (oAuthProvider) {
-                case GOOGLE -> markAsUnreadViaGmail(userId, emailIds);
-                case MICROSOFT -> markAsUnreadViaOutlook(userId, emailIds);
+                case GOOGLE -> markAsUnreadViaGmail(userId, provider, emailIds);
+                case MICROSOFT -> markAsUnreadViaOutlook(userId, provider, emailIds);
                 default -> throw new IllegalArgumentException("Unsupported email provider: " + provider);
             }
             
-            // Log successful mark as unread for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "MARK_UNREAD", "SUCCESS", null);
-            }
+            emailLogService.logBulkEmailAction(userId, "MARK_UNREAD", emailIds, "SUCCESS", null);
             
             systemLogService.logBusiness("Emails marked as unread", 
-                "Provider: " + provider + ", Email IDs: " + emailIds, 
+                "Provider: " + provider + ", Count: " + sizeOf(emailIds), 
                 userId.toString());
                 
         } catch (Exception e) {
             log.error("Error marking emails as unread: {}", e.getMessage(), e);
             
-            // Log failed mark as unread for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "MARK_UNREAD", "FAILED", e.getMessage());
-            }
+            recordBulkFailure(userId, "MARK_UNREAD", emailIds, e);
             
             throw new RuntimeException("Failed to mark emails as unread", e);
         }
@@ -869,27 +870,21 @@ public class EmailService {
             OAuthProvider oAuthProvider = OAuthProvider.fromCode(provider);
             
             switch (oAuthProvider) {
-                case GOOGLE -> starEmailsViaGmail(userId, emailIds);
-                case MICROSOFT -> starEmailsViaOutlook(userId, emailIds);
+                case GOOGLE -> starEmailsViaGmail(userId, provider, emailIds);
+                case MICROSOFT -> starEmailsViaOutlook(userId, provider, emailIds);
                 default -> throw new IllegalArgumentException("Unsupported email provider: " + provider);
             }
             
-            // Log successful star for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "STAR", "SUCCESS", null);
-            }
+            emailLogService.logBulkEmailAction(userId, "STAR", emailIds, "SUCCESS", null);
             
             systemLogService.logBusiness("Emails starred", 
-                "Provider: " + provider + ", Email IDs: " + emailIds, 
+                "Provider: " + provider + ", Count: " + sizeOf(emailIds), 
                 userId.toString());
                 
         } catch (Exception e) {
             log.error("Error starring emails: {}", e.getMessage(), e);
             
-            // Log failed star for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "STAR", "FAILED", e.getMessage());
-            }
+            recordBulkFailure(userId, "STAR", emailIds, e);
             
             throw new RuntimeException("Failed to star emails", e);
         }
@@ -903,27 +898,21 @@ public class EmailService {
             OAuthProvider oAuthProvider = OAuthProvider.fromCode(provider);
             
             switch (oAuthProvider) {
-                case GOOGLE -> unstarEmailsViaGmail(userId, emailIds);
-                case MICROSOFT -> unstarEmailsViaOutlook(userId, emailIds);
+                case GOOGLE -> unstarEmailsViaGmail(userId, provider, emailIds);
+                case MICROSOFT -> unstarEmailsViaOutlook(userId, provider, emailIds);
                 default -> throw new IllegalArgumentException("Unsupported email provider: " + provider);
             }
             
-            // Log successful unstar for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "UNSTAR", "SUCCESS", null);
-            }
+            emailLogService.logBulkEmailAction(userId, "UNSTAR", emailIds, "SUCCESS", null);
             
             systemLogService.logBusiness("Emails unstarred", 
-                "Provider: " + provider + ", Email IDs: " + emailIds, 
+                "Provider: " + provider + ", Count: " + sizeOf(emailIds), 
                 userId.toString());
                 
         } catch (Exception e) {
             log.error("Error unstarring emails: {}", e.getMessage(), e);
             
-            // Log failed unstar for each email ID
-            for (String emailId : emailIds) {
-                emailLogService.logEmailAction(userId, emailId, "UNSTAR", "FAILED", e.getMessage());
-            }
+            recordBulkFailure(userId, "UNSTAR", emailIds, e);
             
             throw new RuntimeException("Failed to unstar emails", e);
         }
@@ -975,7 +964,7 @@ public class EmailService {
         } catch (Exception e) {
             log.error("Error checking bounce emails: {}", e.getMessage(), e);
             systemLogService.logError("Failed to check bounce emails", 
-                e.getMessage(), e.getStackTrace().toString(), "EmailService", "checkAndFilterBounceEmails");
+                e.getMessage(), e, "EmailService", "checkAndFilterBounceEmails");
         }
     }
 
@@ -1018,36 +1007,138 @@ public class EmailService {
     }
 
     // Gmail etiketleme metodları
-    private void markAsReadViaGmail(Long userId, List<String> emailIds) {
-        // Gmail API ile okundu işaretleme
+    private void markAsReadViaGmail(Long userId, String provider, List<String> emailIds) {
+        modifyGmailLabels(userId, provider, emailIds, List.of(), List.of("UNREAD"));
+    }
+
+    private void markAsUnreadViaGmail(Long userId, String provider, List<String> emailIds) {
+        modifyGmailLabels(userId, provider, emailIds, List.of("UNREAD"), List.of());
+    }
+
+    private void starEmailsViaGmail(Long userId, String provider, List<String> emailIds) {
+        modifyGmailLabels(userId, provider, emailIds, List.of("STARRED"), List.of());
+    }
+
+    private void unstarEmailsViaGmail(Long userId, String provider, List<String> emailIds) {
+        modifyGmailLabels(userId, provider, emailIds, List.of(), List.of("STARRED"));
+    }
+
+    /**
+     * Etiket değişikliğini users.messages.batchModify ile en fazla 1000 id'lik parçalar halinde uygular
+     */
+    private void modifyGmailLabels(Long userId, String provider, List<String> emailIds,
+                                   List<String> addLabelIds, List<String> removeLabelIds) {
+        OauthToken token = getGmailToken(userId, provider);
+        for (List<String> chunk : gmailBatches(emailIds)) {
+            postGmailBatch(token, "batchModify",
+                Map.of("ids", chunk, "addLabelIds", addLabelIds, "removeLabelIds", removeLabelIds));
+        }
     }
 
-    private void markAsUnreadViaGmail(Long userId, List<String> emailIds) {
-        // Gmail API ile okunmadı işaretleme
+    private OauthToken getGmailToken(Long userId, String provider) {
+        return oAuthService.getValidToken(userId, provider, null)
+            .orElseThrow(() -> new RuntimeException("No valid OAuth token found for Gmail"));
     }
 
-    private void starEmailsViaGmail(Long userId, List<String> emailIds) {
-        // Gmail API ile yıldızlama
+    /**
+     * Tekrarlanan id'ler atılır ve liste Gmail'in istek başına sınırına göre bölünür
+     */
+    private static List<List<String>> gmailBatches(List<String> emailIds) {
+        if (emailIds == null || emailIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> ids = emailIds.stream().distinct().toList();
+        List<List<String>> batches = new ArrayList<>((ids.size() + GMAIL_BATCH_LIMIT - 1) / GMAIL_BATCH_LIMIT);
+        for (int from = 0; from < ids.size(); from += GMAIL_BATCH_LIMIT) {
+            batches.add(ids.subList(from, Math.min(from + GMAIL_BATCH_LIMIT, ids.size())));
+        }
+        return batches;
     }
 
-    private void unstarEmailsViaGmail(Long userId, List<String> emailIds) {
-        // Gmail API ile yıldız kaldırma
+    /**
+     * batchModify/batchDelete çağrısı; başarılı yanıt 204 No Content'tir
+     */
+    private void postGmailBatch(OauthToken token, String operation, Map<String, Object> requestBody) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token.getAccessToken());
+        headers.set("Content-Type", "application/json");
+        
+        ResponseEntity<Void> response = restTemplate.exchange(
+            GMAIL_MESSAGES_URL + "/" + operation, 
+            HttpMethod.POST, 
+            new HttpEntity<>(requestBody, headers), 
+            Void.class
+        );
+        
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("Gmail API " + operation + " error: " + response.getStatusCode());
+        }
+    }
+
+    private static int sizeOf(List<String> emailIds) {
+        return emailIds != null ? emailIds.size() : 0;
     }
 
     // Outlook etiketleme metodları
-    private void markAsReadViaOutlook(Long userId, List<String> emailIds) {
-        // Microsoft Graph API ile okundu işaretleme
+    private void markAsReadViaOutlook(Long userId, String provider, List<String> emailIds) {
+        patchOutlookMessages(userId, provider, emailIds, Map.of("isRead", true));
+    }
+
+    private void markAsUnreadViaOutlook(Long userId, String provider, List<String> emailIds) {
+        patchOutlookMessages(userId, provider, emailIds, Map.of("isRead", false));
     }
 
-    private void markAsUnreadViaOutlook(Long userId, List<String> emailIds) {
-        // Microsoft Graph API ile okunmadı işaretleme
+    private void starEmailsViaOutlook(Long userId, String provider, List<String> emailIds) {
+        patchOutlookMessages(userId, provider, emailIds, Map.of("flag", Map.of("flagStatus", "flagged")));
     }
 
-    private void starEmailsViaOutlook(Long userId, List<String> emailIds) {
-        // Microsoft Graph API ile yıldızlama
+    private void unstarEmailsViaOutlook(Long userId, String provider, List<String> emailIds) {
+        patchOutlookMessages(userId, provider, emailIds, Map.of("flag", Map.of("flagStatus", "notFlagged")));
     }
 
-    private void unstarEmailsViaOutlook(Long userId, List<String> emailIds) {
-        // Microsoft Graph API ile yıldız kaldırma
+    private void patchOutlookMessages(Long userId, String provider, List<String> emailIds, Map<String, Object> patch) {
+        runOutlookBatch(userId, provider, emailIds,
+            id -> new GraphBatchExecutor.Request(id, HttpMethod.PATCH, outlookMessagePath(id), patch));
+    }
+
+    /**
+     * Mesaj başına Graph alt isteklerini $batch ile gönderir; başarısız mesaj varsa
+     * başarılı ve başarısız id'leri taşıyan BulkEmailActionException fırlatılır
+     */
+    private void runOutlookBatch(Long userId, String provider, List<String> emailIds,
+                                 Function<String, GraphBatchExecutor.Request> toRequest) {
+        if (emailIds == null || emailIds.isEmpty()) {
+            return;
+        }
+        OauthToken token = oAuthService.getValidToken(userId, provider, null)
+            .orElseThrow(() -> new RuntimeException("No valid OAuth token found for Outlook"));
+        
+        List<GraphBatchExecutor.Request> requests = emailIds.stream().distinct().map(toRequest).toList();
+        GraphBatchExecutor.Result result = graphBatchExecutor.execute(String.valueOf(userId), token.getAccessToken(), requests);
+        
+        if (!result.getFailed().isEmpty()) {
+            throw new BulkEmailActionException(result.getSucceeded(), result.getFailed());
+        }
+    }
+
+    private static String outlookMessagePath(String emailId) {
+        return "/me/messages/" + UriUtils.encodePathSegment(emailId, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Başarısız toplu işlemi loglar; kısmi başarıda başarılı ve başarısız mesajlar ayrı kayıtlara yazılır
+     */
+    private void recordBulkFailure(Long userId, String action, List<String> emailIds, Exception e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkEmailActionException bulk) {
+                if (!bulk.getSucceededIds().isEmpty()) {
+                    emailLogService.logBulkEmailAction(userId, action, bulk.getSucceededIds(), "SUCCESS", null);
+                }
+                emailLogService.logBulkEmailAction(userId, action, new ArrayList<>(bulk.getFailedIds().keySet()),
+                    "FAILED", bulk.getMessage());
+                return;
+            }
+        }
+        emailLogService.logBulkEmailAction(userId, action, emailIds, "FAILED", e.getMessage());
     }
-} 
\ No newline at end of file
+}
@@ -52,7 +52,7 @@ public class HybridAuthService {
             log.error("Authentication error: {}", e.getMessage(), e);
             systemLogService.logError("Authentication failed", 
                 "Email: " + authRequestDto.getEmail() + ", Error: " + e.getMessage(),
-                e.getStackTrace().toString(), "HybridAuthService", "authenticate");
+                e, "HybridAuthService", "authenticate");
             throw new AuthenticationException("Authentication failed");
         }
     }
@@ -302,7 +302,7 @@ public class HybridAuthService {
             systemLogService.logError(
                 "Token refresh failed",
                 "Refresh token: " + refreshTokenRequestDto.getRefreshToken().substring(0, Math.min(refreshTokenRequestDto.getRefreshToken().length(), 20)) + "..., Error: " + e.getMessage(),
-                e.getStackTrace().toString(),
+                e,
                 "HybridAuthService",
                 "refreshToken"
             );
@@ -363,7 +363,7 @@ public class HybridAuthService {
         } catch (Exception e) {
             log.error("Logout error: {}", e.getMessage(), e);
             systemLogService.logError("Logout failed", "Error: " + e.getMessage(),
-                e.getStackTrace().toString(), "HybridAuthService", "logout");
+                e, "HybridAuthService", "logout");
         }
     }
 } 
\ No newline at end of file
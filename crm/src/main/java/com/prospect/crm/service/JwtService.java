@@ -1,17 +1,18 @@
 package com.prospect.crm.service;
 
 import com.prospect.crm.config.JwtConfig;
+import com.prospect.crm.config.JwtKeyRing;
 import com.prospect.crm.constant.TokenType;
 import com.prospect.crm.model.JwtToken;
 import com.prospect.crm.model.Users;
 import com.prospect.crm.repository.JwtTokenRepository;
+import com.prospect.crm.security.TokenDigests;
+import com.prospect.crm.security.TokenRevocationIndex;
+import com.prospect.crm.security.VerifiedToken;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
@@ -23,11 +24,16 @@ public class JwtService {
     private final JwtConfig jwtConfig;
     private final JwtTokenRepository jwtTokenRepository;
     private final SystemLogService systemLogService;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final JwtKeyRing jwtKeyRing;
 
-    public JwtService(JwtConfig jwtConfig, JwtTokenRepository jwtTokenRepository, SystemLogService systemLogService) {
+    public JwtService(JwtConfig jwtConfig, JwtTokenRepository jwtTokenRepository, SystemLogService systemLogService,
+                      TokenRevocationIndex tokenRevocationIndex, JwtKeyRing jwtKeyRing) {
         this.jwtConfig = jwtConfig;
         this.jwtTokenRepository = jwtTokenRepository;
         this.systemLogService = systemLogService;
+        this.tokenRevocationIndex = tokenRevocationIndex;
+        this.jwtKeyRing = jwtKeyRing;
     }
 
     public String generateAccessToken(Users user) {
@@ -40,13 +46,13 @@ public class JwtService {
 
     private String generateToken(Users user, TokenType tokenType, long expirationSeconds) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
-
+            JwtKeyRing.SigningKey signingKey = jwtKeyRing.getSigningKey();
             Date now = new Date();
             Date expiryDate = new Date(now.getTime() + (expirationSeconds * 1000));
 
-            String token = Jwts.builder()
+            JwtBuilder builder = Jwts.builder()
                     .claims()
+                    .id(UUID.randomUUID().toString())
                     .add("sub", String.valueOf(user.getId()))
                     .add("iss", jwtConfig.getIssuer())
                     .add("aud", jwtConfig.getAudience())
@@ -56,9 +62,9 @@ public class JwtService {
                     .add("email", user.getEmail())
                     .add("username", user.getUsername())
                     .add("tokenType", tokenType.name())
-                    .and()
-                    .signWith(key, Jwts.SIG.HS256)
-                    .compact();
+                    .and();
+
+            String token = signingKey.sign(builder).compact();
 
             saveToken(user, token, tokenType, expiryDate);
 
@@ -77,7 +83,7 @@ public class JwtService {
             systemLogService.logError(
                     "JWT token generation failed",
                     "User: " + user.getEmail() + ", Error: " + e.getMessage(),
-                    Arrays.toString(e.getStackTrace()),
+                    e,
                     "JwtService",
                     "generateToken"
             );
@@ -95,11 +101,7 @@ public class JwtService {
             jwtToken.setRevoked(false);
             jwtToken.setExpired(false);
 
-            if (tokenType == TokenType.ACCESS) {
-                jwtToken.setAccessToken(token);
-            } else {
-                jwtToken.setRefreshToken(token);
-            }
+            jwtToken.setTokenDigest(TokenDigests.sha256Hex(token));
 
             jwtTokenRepository.save(jwtToken);
 
@@ -111,16 +113,12 @@ public class JwtService {
 
     public Claims validateToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
-
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
+            Claims claims = jwtKeyRing.getParser()
                     .parseSignedClaims(token)
                     .getPayload();
 
-            if (!isTokenActive(token)) {
-                throw new JwtException("Token is revoked or expired in database");
+            if (tokenRevocationIndex.isRevoked(TokenDigests.sha256Hex(token))) {
+                throw new JwtException("Token is revoked");
             }
 
             return claims;
@@ -148,30 +146,41 @@ public class JwtService {
         }
     }
 
-    private boolean isTokenActive(String token) {
-        Optional<JwtToken> accessToken = jwtTokenRepository.findByAccessToken(token);
-        Optional<JwtToken> refreshToken = jwtTokenRepository.findByRefreshToken(token);
-
-        JwtToken jwtToken = accessToken.orElse(refreshToken.orElse(null));
+    /**
+     * Token'ı tek seferde doğrular; claim'ler, token tipi ve kullanıcı ID'si
+     * aynı nesne üzerinden tekrar doğrulama yapmadan okunabilir
+     */
+    public VerifiedToken verifyToken(String token) {
+        Claims claims = validateToken(token);
+        return new VerifiedToken(
+                token,
+                claims,
+                VerifiedToken.resolveTokenType(claims),
+                claims.get("userId", Long.class)
+        );
+    }
 
-        if (jwtToken == null) {
-            return false;
+    /**
+     * Token'ı doğrular, geçersiz ya da null ise exception yerine null döner
+     */
+    public VerifiedToken tryVerifyToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            return verifyToken(token);
+        } catch (Exception e) {
+            return null;
         }
-
-        return !jwtToken.getRevoked() && !jwtToken.getExpired() &&
-                jwtToken.getExpiresAt().isAfter(LocalDateTime.now());
     }
 
     public Long getUserIdFromToken(String token) {
-        Claims claims = validateToken(token);
-        return claims.get("userId", Long.class);
+        return verifyToken(token).getUserId();
     }
 
     public boolean isAccessToken(String token) {
         try {
-            Claims claims = validateToken(token);
-            String tokenType = claims.get("tokenType", String.class);
-            return TokenType.ACCESS.name().equals(tokenType);
+            return verifyToken(token).isAccessToken();
         } catch (Exception e) {
             return false;
         }
@@ -179,9 +188,7 @@ public class JwtService {
 
     public boolean isRefreshToken(String token) {
         try {
-            Claims claims = validateToken(token);
-            String tokenType = claims.get("tokenType", String.class);
-            return TokenType.REFRESH.name().equals(tokenType);
+            return verifyToken(token).isRefreshToken();
         } catch (Exception e) {
             return false;
         }
@@ -189,7 +196,10 @@ public class JwtService {
 
     public void revokeAllUserTokens(Users user) {
         try {
-            jwtTokenRepository.revokeAllUserTokens(user);
+            jwtTokenRepository.findByUserIdAndRevokedFalseAndExpiredFalse(user)
+                    .forEach(jwtToken -> tokenRevocationIndex.markRevoked(jwtToken.getTokenDigest(), jwtToken.getExpiresAt()));
+
+            jwtTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
 
             systemLogService.logSecurity(
                     "All user tokens revoked",
@@ -207,7 +217,21 @@ public class JwtService {
 
     public void revokeToken(String accessToken, String refreshToken) {
         try {
-            jwtTokenRepository.revokeToken(accessToken, refreshToken);
+            List<String> tokenDigests = new ArrayList<>();
+            if (accessToken != null) {
+                tokenDigests.add(TokenDigests.sha256Hex(accessToken));
+            }
+            if (refreshToken != null) {
+                tokenDigests.add(TokenDigests.sha256Hex(refreshToken));
+            }
+
+            // Token süresi bilinmediği için en uzun token ömrü kadar indekste tutulur
+            LocalDateTime retainUntil = LocalDateTime.now().plusSeconds(jwtConfig.getRefreshTokenExpiration());
+            tokenDigests.forEach(tokenDigest -> tokenRevocationIndex.markRevoked(tokenDigest, retainUntil));
+
+            if (!tokenDigests.isEmpty()) {
+                jwtTokenRepository.revokeByTokenDigests(tokenDigests, LocalDateTime.now());
+            }
 
             systemLogService.logSecurity(
                     "Token revoked",
@@ -57,7 +57,8 @@ public class OAuthService {
                        SubscriptionTypeRepository subscriptionTypeRepository,
                        UserSubsInfoRepository userSubsInfoRepository,
                        SystemLogService systemLogService,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       RestTemplate providerRestTemplate) {
         this.oAuthConfig = oAuthConfig;
         this.oauthTokenRepository = oauthTokenRepository;
         this.userRepository = userRepository;
@@ -66,7 +67,7 @@ public class OAuthService {
         this.userSubsInfoRepository = userSubsInfoRepository;
         this.systemLogService = systemLogService;
         this.passwordEncoder = passwordEncoder;
-        this.restTemplate = new RestTemplate();
+        this.restTemplate = providerRestTemplate;
     }
 
     /**
@@ -1,8 +1,10 @@
 package com.prospect.crm.service;
 
-import com.prospect.crm.model.Users;
 import com.prospect.crm.repository.RolePermissionRepository;
-import com.prospect.crm.repository.UserRepository;
+import com.prospect.crm.security.CustomUserDetailsService;
+import com.prospect.crm.security.PermissionRegistry;
+import com.prospect.crm.security.PermissionSet;
+import com.prospect.crm.security.RolePermissionTable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -14,11 +16,18 @@ import java.util.stream.Collectors;
 public class PermissionService {
     
     private final RolePermissionRepository rolePermissionRepository;
-    private final UserRepository userRepository;
+    private final RolePermissionTable rolePermissionTable;
+    private final PermissionRegistry permissionRegistry;
+    private final CustomUserDetailsService userDetailsService;
     
-    public PermissionService(RolePermissionRepository rolePermissionRepository, UserRepository userRepository) {
+    public PermissionService(RolePermissionRepository rolePermissionRepository,
+                             RolePermissionTable rolePermissionTable,
+                             PermissionRegistry permissionRegistry,
+                             CustomUserDetailsService userDetailsService) {
         this.rolePermissionRepository = rolePermissionRepository;
-        this.userRepository = userRepository;
+        this.rolePermissionTable = rolePermissionTable;
+        this.permissionRegistry = permissionRegistry;
+        this.userDetailsService = userDetailsService;
     }
     
     /**
@@ -26,15 +35,7 @@ public class PermissionService {
      */
     public boolean hasPermission(Long userId, String permissionKey) {
         try {
-            Users user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            if (user.getRoleId() == null) {
-                return false;
-            }
-            
-            return rolePermissionRepository.existsByRoleIdIdAndPermissionKey(
-                user.getRoleId().getId(), permissionKey);
+            return hasPermission(getGrantedPermissions(userId), permissionKey);
             
         } catch (Exception e) {
             log.error("Error checking permission for user {} and permission {}: {}", 
@@ -43,19 +44,45 @@ public class PermissionService {
         }
     }
     
+    public boolean hasPermission(PermissionSet granted, String permissionKey) {
+        return granted.contains(permissionRegistry.indexOf(permissionKey));
+    }
+    
+    public boolean hasAnyPermission(PermissionSet granted, String... permissionKeys) {
+        return granted.intersects(permissionRegistry.lookup(permissionKeys));
+    }
+    
+    /**
+     * Kayıtlı olmayan bir izin hiçbir role verilmemiş demektir
+     */
+    public boolean hasAllPermissions(PermissionSet granted, String... permissionKeys) {
+        return permissionRegistry.isRegistered(permissionKeys)
+                && granted.containsAll(permissionRegistry.lookup(permissionKeys));
+    }
+    
+    /**
+     * Kullanıcının derlenmiş izinlerini döner; rol bilgisi PrincipalCache'ten okunur
+     */
+    public PermissionSet getGrantedPermissions(Long userId) {
+        return getRolePermissions(userDetailsService.loadUserById(userId).getRoleId());
+    }
+    
+    public PermissionSet getRolePermissions(Long roleId) {
+        return rolePermissionTable.get(roleId);
+    }
+    
     /**
      * Kullanıcının tüm izinlerini getirir
      */
     public Set<String> getUserPermissions(Long userId) {
         try {
-            Users user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            Long roleId = userDetailsService.loadUserById(userId).getRoleId();
             
-            if (user.getRoleId() == null) {
+            if (roleId == null) {
                 return Set.of();
             }
             
-            return rolePermissionRepository.findPermissionKeysByRoleId(user.getRoleId().getId())
+            return rolePermissionRepository.findPermissionKeysByRoleId(roleId)
                     .stream()
                     .collect(Collectors.toSet());
             
@@ -64,4 +91,4 @@ public class PermissionService {
             return Set.of();
         }
     }
-} 
\ No newline at end of file
+}
@@ -2,11 +2,15 @@ package com.prospect.crm.service;
 
 import com.prospect.crm.model.RolePermission;
 import com.prospect.crm.repository.RolePermissionRepository;
+import com.prospect.crm.security.RolePermissionTable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -17,15 +21,24 @@ import java.util.stream.Collectors;
 public class RolePermissionService {
     
     private final RolePermissionRepository rolePermissionRepository;
+    private final RolePermissionTable rolePermissionTable;
     
-    public RolePermissionService(RolePermissionRepository rolePermissionRepository) {
+    public RolePermissionService(RolePermissionRepository rolePermissionRepository,
+                                 RolePermissionTable rolePermissionTable) {
         this.rolePermissionRepository = rolePermissionRepository;
+        this.rolePermissionTable = rolePermissionTable;
     }
     
     /**
      * Role'a izin ekler
      */
     public RolePermission addPermissionToRole(Long roleId, String permissionKey) {
+        RolePermission saved = addPermission(roleId, permissionKey);
+        refreshAfterCommit(List.of(roleId));
+        return saved;
+    }
+    
+    private RolePermission addPermission(Long roleId, String permissionKey) {
         try {
             // İzin zaten var mı kontrol et
             if (rolePermissionRepository.existsByRoleIdIdAndPermissionKey(roleId, permissionKey)) {
@@ -54,6 +67,11 @@ public class RolePermissionService {
      * Role'dan izin kaldırır
      */
     public void removePermissionFromRole(Long roleId, String permissionKey) {
+        removePermission(roleId, permissionKey);
+        refreshAfterCommit(List.of(roleId));
+    }
+    
+    private void removePermission(Long roleId, String permissionKey) {
         try {
             List<RolePermission> permissions = rolePermissionRepository.findByRoleIdId(roleId);
             permissions.stream()
@@ -81,6 +99,7 @@ public class RolePermissionService {
      */
     public void clearRolePermissions(Long roleId) {
         rolePermissionRepository.deleteByRoleIdId(roleId);
+        refreshAfterCommit(List.of(roleId));
         log.info("All permissions cleared for role {}", roleId);
     }
     
@@ -97,27 +116,49 @@ public class RolePermissionService {
      * Birden fazla role'a aynı anda izin ekler
      */
     public void addPermissionToRoles(String permissionKey, List<Long> roleIds) {
-        roleIds.forEach(roleId -> addPermissionToRole(roleId, permissionKey));
+        roleIds.forEach(roleId -> addPermission(roleId, permissionKey));
+        refreshAfterCommit(roleIds);
     }
     
     /**
      * Birden fazla role'dan aynı anda izin kaldırır
      */
     public void removePermissionFromRoles(String permissionKey, List<Long> roleIds) {
-        roleIds.forEach(roleId -> removePermissionFromRole(roleId, permissionKey));
+        roleIds.forEach(roleId -> removePermission(roleId, permissionKey));
+        refreshAfterCommit(roleIds);
     }
     
     /**
      * Role'a birden fazla izin ekler
      */
     public void addPermissionsToRole(Long roleId, List<String> permissionKeys) {
-        permissionKeys.forEach(permissionKey -> addPermissionToRole(roleId, permissionKey));
+        permissionKeys.forEach(permissionKey -> addPermission(roleId, permissionKey));
+        refreshAfterCommit(List.of(roleId));
     }
     
     /**
      * Role'dan birden fazla izin kaldırır
      */
     public void removePermissionsFromRole(Long roleId, List<String> permissionKeys) {
-        permissionKeys.forEach(permissionKey -> removePermissionFromRole(roleId, permissionKey));
+        permissionKeys.forEach(permissionKey -> removePermission(roleId, permissionKey));
+        refreshAfterCommit(List.of(roleId));
+    }
+    
+    /**
+     * Transaction commit edildikten sonra ilgili rollerin derlenmiş izinlerini yeniler.
+     * Geri alınan değişiklikler izin tablosuna yansımaz.
+     */
+    private void refreshAfterCommit(Collection<Long> roleIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rolePermissionTable.refreshRoles(roleIds);
+            return;
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rolePermissionTable.refreshRoles(roleIds);
+            }
+        });
     }
 } 
\ No newline at end of file
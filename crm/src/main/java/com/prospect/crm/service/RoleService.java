@@ -6,6 +6,7 @@ import com.prospect.crm.exception.ResourceNotFoundException;
 import com.prospect.crm.exception.ValidationException;
 import com.prospect.crm.model.Role;
 import com.prospect.crm.repository.RoleRepository;
+import com.prospect.crm.security.PrincipalCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,9 +18,11 @@ import java.util.List;
 @Service
 public class RoleService {
     private final RoleRepository roleRepository;
+    private final PrincipalCache principalCache;
 
-    public RoleService(RoleRepository roleRepository) {
+    public RoleService(RoleRepository roleRepository, PrincipalCache principalCache) {
         this.roleRepository = roleRepository;
+        this.principalCache = principalCache;
     }
 
     public List<Role> getAll() {
@@ -43,12 +46,14 @@ public class RoleService {
         Role roles = getById(id);
         roles.setName(role.getName());
         roleRepository.save(roles);
+        principalCache.invalidateRole(id);
         return ResponseEntity.status(HttpStatus.OK).body(ApiResponse.success(role,"Role updated."));
     }
     public ResponseEntity<ApiResponse<Void>> delete(Long id) {
         Role roles = getById(id);
         roles.setIsActive(false);
         roleRepository.save(roles);
+        principalCache.invalidateRole(id);
         return ResponseEntity.ok(ApiResponse.success(null, "Role Deleted"));
     }
 
@@ -27,14 +27,17 @@ public class StripeService {
     private final SubscriptionTypeRepository subscriptionTypeRepository;
     private final UserSubsInfoRepository userSubsInfoRepository;
     private final UserRepository userRepository;
+    private final SubscriptionEntitlementCache entitlementCache;
 
     public StripeService(StripeConfig stripeConfig,
                          SubscriptionTypeRepository subscriptionTypeRepository,
-                         UserSubsInfoRepository userSubsInfoRepository, UserRepository userRepository) {
+                         UserSubsInfoRepository userSubsInfoRepository, UserRepository userRepository,
+                         SubscriptionEntitlementCache entitlementCache) {
         this.stripeConfig = stripeConfig;
         this.subscriptionTypeRepository = subscriptionTypeRepository;
         this.userSubsInfoRepository = userSubsInfoRepository;
         this.userRepository = userRepository;
+        this.entitlementCache = entitlementCache;
     }
 
     /**
@@ -94,6 +97,7 @@ public class StripeService {
             newSubscription.setCreatedAt(LocalDateTime.now());
 
             userSubsInfoRepository.save(newSubscription);
+            entitlementCache.invalidate(userId);
 
             log.info("Payment simulated successfully for user: {}, subscription: {}", userId, subscriptionType.getName());
 
@@ -0,0 +1,132 @@
+package com.prospect.crm.service;
+
+import com.prospect.crm.model.SubscriptionType;
+import com.prospect.crm.model.UserSubsInfo;
+import com.prospect.crm.repository.UserSubsInfoRepository;
+import com.prospect.crm.util.ExpiringCache;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * userId -> abonelik hakkı (entitlement) önbelleği.
+ * Her kayıt bir sonraki durum geçişine (bitiş tarihi, ardından grace period sonu) kadar,
+ * en fazla max-ttl süresince tutulur. Böylece JwtAuthenticationFilter'daki abonelik kontrolü
+ * bellek içi bir zaman karşılaştırmasına indirgenir.
+ * Abonelik değiştiren servisler ve SubscriptionScheduler ilgili kullanıcının kaydını geçersiz kılar.
+ */
+@Component
+public class SubscriptionEntitlementCache {
+
+    private final UserSubsInfoRepository userSubsInfoRepository;
+    private final ExpiringCache<Long, Entitlement> cache;
+    private final long maxTtlNanos;
+
+    public SubscriptionEntitlementCache(UserSubsInfoRepository userSubsInfoRepository,
+                                        @Value("${subscription.entitlement-cache.max-size:10000}") int maxSize,
+                                        @Value("${subscription.entitlement-cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.userSubsInfoRepository = userSubsInfoRepository;
+        this.cache = new ExpiringCache<>(maxSize);
+        this.maxTtlNanos = maxTtlSeconds * 1_000_000_000L;
+    }
+
+    public Entitlement get(Long userId) {
+        return cache.get(userId, this::load, this::expiresAt);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        return cache.getStats();
+    }
+
+    private Entitlement load(Long userId) {
+        return userSubsInfoRepository.findActiveWithTypeByUserId(userId).stream()
+                .findFirst()
+                .map(subscription -> Entitlement.of(userId, subscription))
+                .orElseGet(() -> Entitlement.none(userId));
+    }
+
+    /**
+     * Kaydın önbellekten düşeceği System.nanoTime() anı: bir sonraki durum geçişi veya max-ttl, hangisi önceyse
+     */
+    private long expiresAt(Entitlement entitlement) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextTransition = entitlement.nextTransitionAfter(now);
+
+        long ttlNanos = maxTtlNanos;
+        if (nextTransition != null) {
+            ttlNanos = Math.min(ttlNanos, Duration.between(now, nextTransition).toNanos());
+        }
+        return System.nanoTime() + ttlNanos;
+    }
+
+    /**
+     * Kullanıcının aktif aboneliğinin değişmez görüntüsü
+     */
+    @Getter
+    public static final class Entitlement {
+
+        private final Long userId;
+        private final String planCode;
+        private final LocalDateTime subsEndDate;
+        private final LocalDateTime gracePeriodEnd;
+        private final Integer dailyLimit;
+
+        private Entitlement(Long userId, String planCode, LocalDateTime subsEndDate, Integer dailyLimit) {
+            this.userId = userId;
+            this.planCode = planCode;
+            this.subsEndDate = subsEndDate;
+            this.gracePeriodEnd = subsEndDate != null ? subsEndDate.plusDays(SubscriptionService.GRACE_PERIOD_DAYS) : null;
+            this.dailyLimit = dailyLimit;
+        }
+
+        static Entitlement of(Long userId, UserSubsInfo subscription) {
+            SubscriptionType subscriptionType = subscription.getSubscriptionTypeId();
+            return new Entitlement(
+                    userId,
+                    subscriptionType != null ? subscriptionType.getCode() : null,
+                    subscription.getSubsEndDate(),
+                    subscriptionType != null ? subscriptionType.getDailyLimit() : null);
+        }
+
+        static Entitlement none(Long userId) {
+            return new Entitlement(userId, null, null, null);
+        }
+
+        public boolean hasSubscription() {
+            return subsEndDate != null;
+        }
+
+        /**
+         * Abonelik bitişi veya grace period sonu henüz gelmediyse geçerlidir
+         */
+        public boolean isValidAt(LocalDateTime now) {
+            return gracePeriodEnd != null && gracePeriodEnd.isAfter(now);
+        }
+
+        public boolean isInGracePeriodAt(LocalDateTime now) {
+            return isValidAt(now) && !subsEndDate.isAfter(now);
+        }
+
+        LocalDateTime nextTransitionAfter(LocalDateTime now) {
+            if (subsEndDate == null) {
+                return null;
+            }
+            if (subsEndDate.isAfter(now)) {
+                return subsEndDate;
+            }
+            return gracePeriodEnd.isAfter(now) ? gracePeriodEnd : null;
+        }
+    }
+}
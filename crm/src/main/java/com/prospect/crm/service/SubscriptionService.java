@@ -21,12 +21,15 @@ public class SubscriptionService {
 
     private final UserSubsInfoRepository userSubsInfoRepository;
     private final UserRepository userRepository;
+    private final SubscriptionEntitlementCache entitlementCache;
 
-    private static final int GRACE_PERIOD_DAYS = 3;
+    static final int GRACE_PERIOD_DAYS = 3;
 
-    public SubscriptionService(UserSubsInfoRepository userSubsInfoRepository, UserRepository userRepository) {
+    public SubscriptionService(UserSubsInfoRepository userSubsInfoRepository, UserRepository userRepository,
+                               SubscriptionEntitlementCache entitlementCache) {
         this.userSubsInfoRepository = userSubsInfoRepository;
         this.userRepository = userRepository;
+        this.entitlementCache = entitlementCache;
     }
 
     public Map<String, Object> checkSubscriptionStatus(Long userId) {
@@ -115,21 +118,12 @@ public class SubscriptionService {
         return status;
     }
 
+    /**
+     * Önbellekteki abonelik hakkı üzerinden bellek içi zaman karşılaştırması yapar
+     */
     public boolean hasValidSubscription(Long userId) {
         try {
-            Users user = userRepository.findById(userId).orElseThrow(() -> new UsernameNotFoundException("User not found" + userId));
-            Optional<UserSubsInfo> subscriptionOpt = userSubsInfoRepository.findByUsersIdAndIsActiveTrue(user);
-
-            if (subscriptionOpt.isEmpty()) {
-                return false;
-            }
-
-            UserSubsInfo subscription = subscriptionOpt.get();
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime endDate = subscription.getSubsEndDate();
-            LocalDateTime gracePeriodEnd = endDate.plusDays(GRACE_PERIOD_DAYS);
-
-            return endDate.isAfter(now) || gracePeriodEnd.isAfter(now);
+            return entitlementCache.get(userId).isValidAt(LocalDateTime.now());
 
         } catch (Exception e) {
             log.error("Error checking subscription validity for user {}: {}", userId, e.getMessage());
@@ -169,6 +163,7 @@ public class SubscriptionService {
             subscription.setSubsEndDate(subscription.getSubsEndDate().plusDays(days));
             subscription.setUpdatedAt(LocalDateTime.now());
             userSubsInfoRepository.save(subscription);
+            entitlementCache.invalidate(userId);
 
             log.info("Subscription extended for user {} by {} days", userId, days);
         }
@@ -182,6 +177,7 @@ public class SubscriptionService {
             subscription.setIsActive(false);
             subscription.setUpdatedAt(LocalDateTime.now());
             userSubsInfoRepository.save(subscription);
+            entitlementCache.invalidate(userId);
 
             log.info("Subscription cancelled for user {}", userId);
         }
@@ -2,27 +2,74 @@ package com.prospect.crm.service;
 
 import com.prospect.crm.constant.LogLevel;
 import com.prospect.crm.constant.LogType;
+import com.prospect.crm.config.SystemLogConfig;
+import com.prospect.crm.constant.LogExportFormat;
 import com.prospect.crm.dto.ApiResponse;
+import com.prospect.crm.dto.PaginationInfo;
+import com.prospect.crm.exception.ResourceNotFoundException;
+import com.prospect.crm.exception.ValidationException;
+import com.prospect.crm.logging.ApiLoggingFilter;
+import com.prospect.crm.logging.AsyncSystemLogWriter;
+import com.prospect.crm.logging.SystemLogCounts;
+import com.prospect.crm.logging.SystemLogErrorGroups;
+import com.prospect.crm.logging.SystemLogExporter;
+import com.prospect.crm.logging.SystemLogPartitionManager;
+import com.prospect.crm.logging.SystemLogPolicy;
 import com.prospect.crm.model.SystemLog;
 import com.prospect.crm.repository.SystemLogRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Slf4j
 @Service
 public class SystemLogService {
-    private final SystemLogRepository systemLogRepository;
+    private static final int SEARCH_DEFAULT_DAYS = 7;
+    private static final int SEARCH_MAX_PAGE_SIZE = 100;
+    private static final int SEARCH_MAX_TERMS = 8;
+    private static final int SEARCH_COUNT_CAP = 10000;
+    // Error dışı ham logların saklama süresi (cleanupOldLogs)
+    private static final int NON_ERROR_LOG_RETENTION_MONTHS = 1;
+    private static final DateTimeFormatter EXPORT_FILENAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
 
-    public SystemLogService(SystemLogRepository systemLogRepository) {
+    private final SystemLogRepository systemLogRepository;
+    private final AsyncSystemLogWriter asyncSystemLogWriter;
+    private final SystemLogConfig systemLogConfig;
+    private final SystemLogPolicy systemLogPolicy;
+    private final SystemLogPartitionManager partitionManager;
+    private final SystemLogExporter systemLogExporter;
+    private final SystemLogCounts systemLogCounts;
+    private final SystemLogErrorGroups systemLogErrorGroups;
+
+    public SystemLogService(SystemLogRepository systemLogRepository, AsyncSystemLogWriter asyncSystemLogWriter,
+                            SystemLogConfig systemLogConfig, SystemLogPolicy systemLogPolicy,
+                            SystemLogPartitionManager partitionManager, SystemLogExporter systemLogExporter,
+                            SystemLogCounts systemLogCounts, SystemLogErrorGroups systemLogErrorGroups) {
         this.systemLogRepository = systemLogRepository;
+        this.asyncSystemLogWriter = asyncSystemLogWriter;
+        this.systemLogConfig = systemLogConfig;
+        this.systemLogPolicy = systemLogPolicy;
+        this.partitionManager = partitionManager;
+        this.systemLogExporter = systemLogExporter;
+        this.systemLogCounts = systemLogCounts;
+        this.systemLogErrorGroups = systemLogErrorGroups;
     }
 
 
@@ -38,12 +85,24 @@ public class SystemLogService {
         saveLog(LogLevel.ERROR, LogType.ERROR, message, details, stackTrace, className, methodName, null, null, null, null, null, null, null, null, null, null);
     }
 
+    public void logError(String message, String details, Throwable error, String className, String methodName) {
+        logError(message, details, error != null ? stackTraceOf(error) : null, className, methodName);
+    }
+
     public void logSecurity(String message, String details, String userId, String ipAddress, String userAgent) {
         saveLog(LogLevel.INFO, LogType.SECURITY, message, details, null, null, null, userId, ipAddress, userAgent, null, null, null, null, null, null, null);
     }
 
     public void logApi(String message, String endpoint, String httpMethod, Integer httpStatus, String requestBody, String responseBody, Long executionTime, String userId, String ipAddress) {
-        saveLog(LogLevel.INFO, LogType.API, message, null, null, null, null, userId, ipAddress, null, executionTime, UUID.randomUUID().toString(), endpoint, httpMethod, httpStatus, requestBody, responseBody);
+        logApi(message, endpoint, httpMethod, httpStatus, requestBody, responseBody, executionTime, userId, ipAddress, null, null);
+    }
+
+    /**
+     * ApiLoggingFilter tarafından her istek için çağrılır; 5xx yanıtlar WARN seviyesinde yazılır
+     */
+    public void logApi(String message, String endpoint, String httpMethod, Integer httpStatus, String requestBody, String responseBody, Long executionTime, String userId, String ipAddress, String userAgent, String requestId) {
+        LogLevel level = httpStatus != null && httpStatus >= 500 ? LogLevel.WARN : LogLevel.INFO;
+        saveLog(level, LogType.API, message, null, null, null, null, userId, ipAddress, userAgent, executionTime, requestId, endpoint, httpMethod, httpStatus, requestBody, responseBody);
     }
 
     public void logPerformance(String message, Long executionTime, String className, String methodName) {
@@ -67,37 +126,99 @@ public class SystemLogService {
     }
 
 
+    /**
+     * Politika tarafından bastırılan olayları tip/mesaj başına tek bir özet kaydı olarak yazar
+     */
+    public int writeSuppressedRollups() {
+        List<SystemLogPolicy.Rollup> rollups = systemLogPolicy.drainRollups();
+        for (SystemLogPolicy.Rollup rollup : rollups) {
+            writeLog(LogLevel.INFO, rollup.getType(), rollup.getMessage(),
+                    "Rollup: " + rollup.getSuppressed() + " suppressed, " + rollup.getWritten()
+                            + " written in last " + rollup.getWindowSeconds() + "s",
+                    null, "SystemLogPolicy", "rollup", null, null, null, null, null, null, null, null, null, null);
+        }
+        return rollups.size();
+    }
+
     private void saveLog(LogLevel level, LogType type, String message, String details, String stackTrace,
                         String className, String methodName, String userId, String ipAddress, String userAgent,
                         Long executionTime, String requestId, String endpoint, String httpMethod, Integer httpStatus,
                         String requestBody, String responseBody) {
         try {
-            SystemLog systemLog = new SystemLog();
-            systemLog.setLevel(level);
-            systemLog.setType(type);
-            systemLog.setMessage(truncateString(message, 1000));
-            systemLog.setDetails(truncateString(details, 4000));
-            systemLog.setStackTrace(stackTrace);
-            systemLog.setClassName(truncateString(className, 255));
-            systemLog.setMethodName(truncateString(methodName, 255));
-            systemLog.setUserId(truncateString(userId, 50));
-            systemLog.setIpAddress(truncateString(ipAddress, 45));
-            systemLog.setUserAgent(truncateString(userAgent, 500));
-            systemLog.setTimestamp(LocalDateTime.now());
-            systemLog.setExecutionTime(executionTime);
-            systemLog.setRequestId(truncateString(requestId, 100));
-            systemLog.setEndpoint(truncateString(endpoint, 500));
-            systemLog.setHttpMethod(truncateString(httpMethod, 10));
-            systemLog.setHttpStatus(httpStatus);
-            systemLog.setRequestBody(requestBody);
-            systemLog.setResponseBody(responseBody);
-
-            systemLogRepository.save(systemLog);
+            SystemLog systemLog = buildLog(level, type, message, details, stackTrace, className, methodName, userId,
+                    ipAddress, userAgent, executionTime, requestId, endpoint, httpMethod, httpStatus, requestBody, responseBody);
+            // Politikanın bastırdığı olay yazılmaz ama dakikalık sayılar gerçek hacmi göstersin diye sayılır
+            if (!systemLogPolicy.shouldWrite(level, type, message)) {
+                systemLogCounts.record(systemLog);
+                return;
+            }
+            writeLog(systemLog);
+        } catch (Exception e) {
+            log.error("Failed to save system log: {}", e.getMessage(), e);
+        }
+    }
+
+    private void writeLog(LogLevel level, LogType type, String message, String details, String stackTrace,
+                         String className, String methodName, String userId, String ipAddress, String userAgent,
+                         Long executionTime, String requestId, String endpoint, String httpMethod, Integer httpStatus,
+                         String requestBody, String responseBody) {
+        try {
+            writeLog(buildLog(level, type, message, details, stackTrace, className, methodName, userId, ipAddress,
+                    userAgent, executionTime, requestId, endpoint, httpMethod, httpStatus, requestBody, responseBody));
         } catch (Exception e) {
             log.error("Failed to save system log: {}", e.getMessage(), e);
         }
     }
 
+    private SystemLog buildLog(LogLevel level, LogType type, String message, String details, String stackTrace,
+                               String className, String methodName, String userId, String ipAddress, String userAgent,
+                               Long executionTime, String requestId, String endpoint, String httpMethod, Integer httpStatus,
+                               String requestBody, String responseBody) {
+        SystemLog systemLog = new SystemLog();
+        systemLog.setLevel(level);
+        systemLog.setType(type);
+        systemLog.setMessage(truncateString(message, 1000));
+        systemLog.setDetails(truncateString(details, 4000));
+        systemLog.setStackTrace(stackTrace);
+        systemLog.setClassName(truncateString(className, 255));
+        systemLog.setMethodName(truncateString(methodName, 255));
+        systemLog.setUserId(truncateString(userId, 50));
+        systemLog.setIpAddress(truncateString(ipAddress, 45));
+        systemLog.setUserAgent(truncateString(userAgent, 500));
+        systemLog.setTimestamp(LocalDateTime.now());
+        systemLog.setExecutionTime(executionTime);
+        // İstek içinde yazılan loglar ApiLoggingFilter'ın atadığı request id'yi taşır
+        systemLog.setRequestId(truncateString(requestId != null ? requestId : MDC.get(ApiLoggingFilter.REQUEST_ID_MDC_KEY), 100));
+        systemLog.setEndpoint(truncateString(endpoint, 500));
+        systemLog.setHttpMethod(truncateString(httpMethod, 10));
+        systemLog.setHttpStatus(httpStatus);
+        systemLog.setRequestBody(requestBody);
+        systemLog.setResponseBody(responseBody);
+        return systemLog;
+    }
+
+    private void writeLog(SystemLog systemLog) {
+        // Tekrarlayan hatalar gruplanır; stack trace grup başına bir kez yazılır.
+        // Dakikalık sınırı aşan kayıt yazılmaz ama hata sayılarında görünmesi için sayılır.
+        LogLevel level = systemLog.getLevel();
+        if ((level == LogLevel.ERROR || level == LogLevel.FATAL) && !systemLogErrorGroups.admit(systemLog)) {
+            systemLogCounts.record(systemLog);
+            return;
+        }
+
+        if (systemLogConfig.isAsyncEnabled()) {
+            asyncSystemLogWriter.enqueue(systemLog);
+        } else {
+            asyncSystemLogWriter.writeSync(systemLog);
+        }
+    }
+
+    private static String stackTraceOf(Throwable error) {
+        StringWriter writer = new StringWriter();
+        error.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+
     private String truncateString(String value, int maxLength) {
         if (value == null) {
             return null;
@@ -109,6 +230,14 @@ public class SystemLogService {
     }
 
 
+    public Map<String, Object> getPipelineStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(asyncSystemLogWriter.getStats());
+        stats.put("policy", systemLogPolicy.getStats());
+        stats.put("counts", systemLogCounts.getStats());
+        stats.put("errorGroups", systemLogErrorGroups.getStats());
+        return stats;
+    }
+
     public List<SystemLog> findAll() {
         return systemLogRepository.findAll();
     }
@@ -138,10 +267,6 @@ public class SystemLogService {
         return systemLogRepository.findByUserId(userId);
     }
 
-    public List<SystemLog> findByKeyword(String keyword) {
-        return systemLogRepository.findByKeyword(keyword);
-    }
-
     public List<SystemLog> findErrors() {
         return systemLogRepository.findByLevelIn(List.of(LogLevel.ERROR, LogLevel.FATAL));
     }
@@ -163,6 +288,14 @@ public class SystemLogService {
         return systemLogRepository.findByTimestampBetween(startDate, endDate, pageable);
     }
 
+    public Page<SystemLog> findArchivedErrors(LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        return systemLogRepository.findArchivedBetween(startDate, endDate, pageable);
+    }
+
+    public int ensurePartitions() {
+        return partitionManager.ensurePartitions();
+    }
+
 
     public Long getLogCount() {
         return systemLogRepository.count();
@@ -177,16 +310,70 @@ public class SystemLogService {
         }
     }
     
+    // Sayım ve gruplama sorguları dakikalık system_log_counts tablosundan okunur (dakika hassasiyeti)
     public Long countByLevelAndDateAfter(LogLevel level, LocalDateTime startDate) {
-        return systemLogRepository.countByLevelAndDateAfter(level, startDate);
+        return systemLogCounts.countByLevelSince(level, startDate);
     }
 
     public List<Object[]> getLogCountByLevel(LocalDateTime startDate, LocalDateTime endDate) {
-        return systemLogRepository.getLogCountByLevel(startDate, endDate);
+        return systemLogCounts.countByLevel(startDate, endDate);
     }
 
     public List<Object[]> getLogCountByType(LocalDateTime startDate, LocalDateTime endDate) {
-        return systemLogRepository.getLogCountByType(startDate, endDate);
+        return systemLogCounts.countByType(startDate, endDate);
+    }
+
+    public List<Object[]> getLogCountByEndpoint(LocalDateTime startDate, LocalDateTime endDate, int limit) {
+        return systemLogCounts.countByEndpoint(startDate, endDate, Math.max(1, Math.min(limit, 500)));
+    }
+
+    public List<Object[]> getLogCountByHttpStatus(LocalDateTime startDate, LocalDateTime endDate) {
+        return systemLogCounts.countByHttpStatus(startDate, endDate);
+    }
+
+    public Map<LogLevel, Long> getLogTotalsByLevel() {
+        return systemLogCounts.totalsByLevel();
+    }
+
+    public int flushLogCounts() {
+        return systemLogCounts.flush();
+    }
+
+    /**
+     * Error dışı ham loglar NON_ERROR_LOG_RETENTION_MONTHS sonra silindiği için daha eski aralıklar
+     * yeniden hesaplanamaz; aksi halde doğru sayılar yalnızca ERROR/FATAL sayılarıyla ezilir.
+     */
+    public int rebuildLogCounts(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime rawLogCutoff = LocalDateTime.now().minusMonths(NON_ERROR_LOG_RETENTION_MONTHS);
+        if (startDate.isBefore(rawLogCutoff)) {
+            throw new ValidationException("startDate must not be earlier than " + rawLogCutoff
+                    + "; older non-error logs have already been removed");
+        }
+        return systemLogCounts.rebuild(startDate, endDate);
+    }
+
+    public List<Map<String, Object>> getTopErrorGroups(LocalDateTime since, int limit) {
+        return systemLogErrorGroups.topGroups(since, Math.max(1, Math.min(limit, 200)));
+    }
+
+    public Map<String, Object> getErrorGroup(String fingerprint) {
+        Map<String, Object> group = systemLogErrorGroups.findGroup(fingerprint);
+        if (group == null) {
+            throw new ResourceNotFoundException("Error group not found: " + fingerprint);
+        }
+        return group;
+    }
+
+    public int flushErrorGroups() {
+        return systemLogErrorGroups.flush();
+    }
+
+    public int deleteExpiredErrorGroups() {
+        return systemLogErrorGroups.deleteBefore(LocalDateTime.now().minusDays(systemLogConfig.getErrorGroupRetentionDays()));
+    }
+
+    public int deleteExpiredLogCounts() {
+        return systemLogCounts.deleteBefore(LocalDateTime.now().minusDays(systemLogConfig.getCountRetentionDays()));
     }
 
     // API Response metodları
@@ -220,14 +407,94 @@ public class SystemLogService {
         return ResponseEntity.ok(ApiResponse.success(logs, "Error logs retrieved successfully"));
     }
 
-    public ResponseEntity<ApiResponse<List<SystemLog>>> searchLogs(String keyword) {
-        List<SystemLog> logs = findByKeyword(keyword);
-        return ResponseEntity.ok(ApiResponse.success(logs, "Logs searched successfully"));
+    public ResponseEntity<ApiResponse<List<SystemLog>>> searchLogs(String keyword, LogLevel level, LogType type,
+                                                                   LocalDateTime startDate, LocalDateTime endDate,
+                                                                   int page, int size) {
+        Page<SystemLog> logPage = searchLogs(keyword, level, type, startDate, endDate, PageRequest.of(page, size));
+        PaginationInfo pagination = PaginationInfo.of(page, logPage.getSize(), logPage.getTotalElements());
+        return ResponseEntity.ok(ApiResponse.successWithPagination(logPage.getContent(), pagination));
+    }
+
+    /**
+     * Logları NDJSON/CSV olarak akıtır; yanıt gövdesi async thread'de cursor ile yazılır
+     */
+    public ResponseEntity<StreamingResponseBody> exportLogs(LogExportFormat format, List<String> fields, boolean gzip,
+                                                            LogLevel level, LogType type,
+                                                            LocalDateTime startDate, LocalDateTime endDate) {
+        List<String> selectedFields = systemLogExporter.resolveFields(fields);
+        String filename = "system-logs-" + LocalDateTime.now().format(EXPORT_FILENAME_FORMAT) + "." + format.getExtension();
+
+        StreamingResponseBody body = out -> {
+            long rows = systemLogExporter.export(out, format, selectedFields, gzip, level, type, startDate, endDate);
+            log.info("Exported {} system logs as {}", rows, format);
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * message, details ve class_name üzerinde full-text arama (GIN index).
+     * Sonuçlar ilgiye göre sıralanır; zaman aralığı verilmezse son SEARCH_DEFAULT_DAYS gün aranır,
+     * böylece sorgu yalnızca ilgili partition'lara iner.
+     */
+    public Page<SystemLog> searchLogs(String keyword, LogLevel level, LogType type,
+                                      LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+        String query = toPrefixQuery(keyword);
+        if (query == null) {
+            return Page.empty(pageable);
+        }
+        LocalDateTime end = endDate != null ? endDate : LocalDateTime.now().plusMinutes(1);
+        LocalDateTime start = startDate != null ? startDate : end.minusDays(SEARCH_DEFAULT_DAYS);
+        String levelName = level != null ? level.name() : null;
+        String typeName = type != null ? type.name() : null;
+        int size = Math.min(pageable.getPageSize(), SEARCH_MAX_PAGE_SIZE);
+
+        List<SystemLog> logs = systemLogRepository.searchFullText(query, levelName, typeName, start, end,
+                size, (long) pageable.getPageNumber() * size);
+        long total = systemLogRepository.countFullText(query, levelName, typeName, start, end, SEARCH_COUNT_CAP);
+        return new PageImpl<>(logs, PageRequest.of(pageable.getPageNumber(), size), total);
+    }
+
+    /**
+     * Kullanıcı girdisini to_tsquery için güvenli hale getirir: harf ve rakam dışındaki karakterler ayırıcıdır,
+     * her kelime önek olarak aranır ve kelimeler AND ile birleştirilir
+     */
+    private static String toPrefixQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        int terms = 0;
+        for (String term : keyword.split("[^\\p{L}\\p{N}]+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            if (terms > 0) {
+                query.append(" & ");
+            }
+            query.append(term).append(":*");
+            if (++terms == SEARCH_MAX_TERMS) {
+                break;
+            }
+        }
+        return terms > 0 ? query.toString() : null;
     }
     
     // Log temizleme metodları
+    /**
+     * Tamamı cutoff'tan eski partition'lar hata logları arşivlenerek drop edilir;
+     * sınırdaki partition'da kalanlar DELETE ile temizlenir (partition pruning ile tek partition)
+     */
     public int deleteOldNonErrorLogs(LocalDateTime cutoffDate) {
-        return systemLogRepository.deleteOldNonErrorLogs(cutoffDate);
+        SystemLogPartitionManager.RetentionResult result = partitionManager.dropPartitionsBefore(cutoffDate, true);
+        long removed = result.getRowsDroppedEstimate() - result.getRowsArchived();
+        return (int) Math.max(0, removed) + systemLogRepository.deleteOldNonErrorLogs(cutoffDate);
     }
     
     public Long countOldNonErrorLogs(LocalDateTime cutoffDate) {
@@ -235,7 +502,8 @@ public class SystemLogService {
     }
     
     public int deleteAllOldLogs(LocalDateTime cutoffDate) {
-        return systemLogRepository.deleteAllOldLogs(cutoffDate);
+        SystemLogPartitionManager.RetentionResult result = partitionManager.dropPartitionsBefore(cutoffDate, false);
+        return (int) result.getRowsDroppedEstimate() + systemLogRepository.deleteAllOldLogs(cutoffDate);
     }
     
     public int deleteOldLogsByLevel(LocalDateTime cutoffDate, LogLevel level) {
@@ -248,13 +516,13 @@ public class SystemLogService {
     
     // 1 ay önceki hata olmayan logları silme
     public int cleanupOldLogs() {
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
+        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(NON_ERROR_LOG_RETENTION_MONTHS);
         return deleteOldNonErrorLogs(oneMonthAgo);
     }
     
     // Check count of logs to be deleted
     public Long getOldLogsCount() {
-        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
+        LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(NON_ERROR_LOG_RETENTION_MONTHS);
         return countOldNonErrorLogs(oneMonthAgo);
     }
     
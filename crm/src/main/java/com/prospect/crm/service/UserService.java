@@ -15,6 +15,7 @@ import com.prospect.crm.repository.RoleRepository;
 import com.prospect.crm.repository.SubscriptionTypeRepository;
 import com.prospect.crm.repository.UserRepository;
 import com.prospect.crm.repository.UserSubsInfoRepository;
+import com.prospect.crm.security.PrincipalCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,15 +33,17 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final UserSubsInfoRepository userSubsInfoRepository;
     private final SubscriptionTypeRepository subscriptionTypeRepository;
+    private final PrincipalCache principalCache;
 
     public UserService(UserRepository userRepository, RoleRepository roleRepository,
                        PasswordEncoder passwordEncoder, UserSubsInfoRepository userSubsInfoRepository,
-                       SubscriptionTypeRepository subscriptionTypeRepository) {
+                       SubscriptionTypeRepository subscriptionTypeRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.userSubsInfoRepository = userSubsInfoRepository;
         this.subscriptionTypeRepository = subscriptionTypeRepository;
+        this.principalCache = principalCache;
     }
 
     public List<Users> getAll() {
@@ -130,6 +133,7 @@ public class UserService {
         }
 
         Users updatedUser = userRepository.save(existingUser);
+        principalCache.invalidate(id);
         return ResponseEntity.ok(ApiResponse.success(UserMapper.toUserList(updatedUser), "User updated successfully"));
     }
 
@@ -138,6 +142,7 @@ public class UserService {
         user.setIsActive(false);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(id);
         return ResponseEntity.ok(ApiResponse.success(null, "User deleted successfully"));
     }
 
@@ -146,6 +151,7 @@ public class UserService {
         user.setIsActive(true);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(id);
         return ResponseEntity.ok(ApiResponse.success(null, "User activated successfully"));
     }
 
@@ -154,6 +160,7 @@ public class UserService {
         user.setIsActive(false);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidate(id);
         return ResponseEntity.ok(ApiResponse.success(null, "User deactivated successfully"));
     }
 
@@ -18,9 +18,12 @@ import java.util.List;
 @Service
 public class UserSubsInfoService {
     private final UserSubsInfoRepository userSubsInfoRepository;
+    private final SubscriptionEntitlementCache entitlementCache;
 
-    public UserSubsInfoService(UserSubsInfoRepository userSubsInfoRepository) {
+    public UserSubsInfoService(UserSubsInfoRepository userSubsInfoRepository,
+                               SubscriptionEntitlementCache entitlementCache) {
         this.userSubsInfoRepository = userSubsInfoRepository;
+        this.entitlementCache = entitlementCache;
     }
 
     public List<UserSubsInfo> findAll() {
@@ -54,6 +57,7 @@ public class UserSubsInfoService {
         userSubsInfo.setSubsStartDate(LocalDateTime.now());
         userSubsInfo.setSubsEndDate(LocalDateTime.now().plusDays(30));
         userSubsInfoRepository.save(userSubsInfo);
+        invalidateEntitlement(userSubsInfo);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(userSubsInfo,"User Subs created"));
     }
 
@@ -69,6 +73,7 @@ public class UserSubsInfoService {
             updatedUserSubsInfo.setSubsEndDate(LocalDateTime.now().plusDays(30));
         }
         userSubsInfoRepository.save(updatedUserSubsInfo);
+        invalidateEntitlement(updatedUserSubsInfo);
         return ResponseEntity.ok(ApiResponse.success(updatedUserSubsInfo,"User Subs updated"));
     }
 
@@ -76,6 +81,13 @@ public class UserSubsInfoService {
         UserSubsInfo deletedUserSubsInfo = findById(id);
         deletedUserSubsInfo.setIsActive(false);
         userSubsInfoRepository.save(deletedUserSubsInfo);
+        invalidateEntitlement(deletedUserSubsInfo);
         return ResponseEntity.ok(ApiResponse.success(deletedUserSubsInfo,"User Subs deleted"));
     }
+
+    private void invalidateEntitlement(UserSubsInfo userSubsInfo) {
+        if (userSubsInfo.getUsersId() != null) {
+            entitlementCache.invalidate(userSubsInfo.getUsersId().getId());
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package com.prospect.crm.util;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Kayıt bazında son geçerlilik zamanı olan, boyut sınırlı bellek içi önbellek.
+ * Hit / miss / eviction sayaçlarını tutar.
+ * Yükleme sırasında gelen invalidate çağrıları generation sayacıyla fark edilir; yüklenen eski değer
+ * önbellekte bırakılmaz, aksi halde rol veya abonelik değişikliği TTL boyunca görünmezdi.
+ */
+public class ExpiringCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder discardedLoads = new LongAdder();
+
+    // Her invalidate çağrısında artar; invalidateIf hangi anahtarları etkilediğini yükleme bitmeden bilemez
+    private final AtomicLong generation = new AtomicLong();
+
+    public ExpiringCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Geçerli kayıt varsa döner; yoksa loader ile yükler ve expiryNanos ile
+     * belirlenen System.nanoTime() anına kadar önbellekte tutar
+     */
+    public V get(K key, Function<K, V> loader, ToLongFunction<V> expiryNanos) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+
+        if (entry != null) {
+            if (entry.expiresAt - now > 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        V value = loader.apply(key);
+
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        Entry<V> loaded = new Entry<>(value, expiryNanos.applyAsLong(value));
+        entries.put(key, loaded);
+        // Önce yazıp sonra kontrol edilir: yükleme sırasında invalidate olduysa kayıt burada, put'tan sonra
+        // olduysa invalidate'in kendisi tarafından silinir
+        if (generation.get() != loadGeneration && entries.remove(key, loaded)) {
+            discardedLoads.increment();
+        }
+        return value;
+    }
+
+    public void invalidate(K key) {
+        if (key != null) {
+            generation.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateIf(Predicate<V> predicate) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> predicate.test(entry.value));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("discardedLoads", discardedLoads.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    /**
+     * Önce süresi dolmuş kayıtları, yer açılmadıysa en erken dolacak %10'luk kısmı siler
+     */
+    private void evict(long now) {
+        int sizeBefore = entries.size();
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+
+        if (entries.size() >= maxSize) {
+            int toRemove = Math.max(1, maxSize / 10);
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt - now))
+                    .limit(toRemove)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+
+        int evicted = sizeBefore - entries.size();
+        if (evicted > 0) {
+            evictions.add(evicted);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -186,12 +186,13 @@ ON CONFLICT (id) DO NOTHING;
 -- ========================================
 -- JWT_TOKEN
 -- ========================================
-INSERT INTO jwt_token (id, user_id, token_type, access_token, refresh_token, issued_at, expires_at, revoked, expired) VALUES 
-(1001, 1001, 'ACCESS', 'eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...', NULL, NOW(), NOW() + INTERVAL '2 hours', false, false),
-(1002, 1001, 'REFRESH', NULL, 'eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...', NOW(), NOW() + INTERVAL '8 hours', false, false),
-(1003, 1002, 'ACCESS', 'eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...', NULL, NOW(), NOW() + INTERVAL '2 hours', false, false),
-(1004, 1002, 'REFRESH', NULL, 'eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...', NOW(), NOW() + INTERVAL '8 hours', false, false),
-(1005, 1003, 'ACCESS', 'eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...', NULL, NOW(), NOW() + INTERVAL '2 hours', false, false)
+-- token_digest, token'ın SHA-256 özetidir (hex); seed kayıtları gerçek token'a karşılık gelmez
+INSERT INTO jwt_token (id, user_id, token_type, token_digest, issued_at, expires_at, revoked, expired) VALUES 
+(1001, 1001, 'ACCESS', encode(sha256('seed-access-token-1001'::bytea), 'hex'), NOW(), NOW() + INTERVAL '2 hours', false, false),
+(1002, 1001, 'REFRESH', encode(sha256('seed-refresh-token-1002'::bytea), 'hex'), NOW(), NOW() + INTERVAL '8 hours', false, false),
+(1003, 1002, 'ACCESS', encode(sha256('seed-access-token-1003'::bytea), 'hex'), NOW(), NOW() + INTERVAL '2 hours', false, false),
+(1004, 1002, 'REFRESH', encode(sha256('seed-refresh-token-1004'::bytea), 'hex'), NOW(), NOW() + INTERVAL '8 hours', false, false),
+(1005, 1003, 'ACCESS', encode(sha256('seed-access-token-1005'::bytea), 'hex'), NOW(), NOW() + INTERVAL '2 hours', false, false)
 ON CONFLICT (id) DO NOTHING;
 
 -- ========================================
@@ -266,4 +267,19 @@ INSERT INTO system_logs (id, level, type, message, details, stack_trace, class_n
 (1008, 'INFO', 'EXTERNAL_SERVICE', 'Stripe API call successful', 'Payment processed successfully', NULL, 'com.prospect.crm.service.StripeService', 'processPayment', '1003', '192.168.1.102', 'Mozilla/5.0 (Linux x86_64) AppleWebKit/537.36', NOW(), 1500, 'req_006', '/v1/payments/process', 'POST', 200, '{"amount":9.99,"currency":"USD"}', '{"success":true,"paymentId":"pi_..."}'),
 (1009, 'INFO', 'AUDIT', 'User role changed', 'User 1004 role changed from USER to ADMIN', NULL, 'com.prospect.crm.service.UserService', 'updateUserRole', '1001', '192.168.1.103', 'Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36', NOW(), 300, 'req_007', '/v1/users/1004/role', 'PUT', 200, '{"role":"ADMIN"}', '{"success":true}'),
 (1010, 'WARN', 'SYSTEM', 'Low disk space', 'Disk space usage is at 85%', NULL, 'com.prospect.crm.scheduler.SystemHealthScheduler', 'checkDiskSpace', NULL, NULL, NULL, NOW(), NULL, NULL, NULL, NULL, NULL, NULL, NULL)
-ON CONFLICT (id) DO NOTHING; 
\ No newline at end of file
+ON CONFLICT (id, timestamp) DO NOTHING;
+
+-- ========================================
+-- ID SEQUENCES
+-- Sabit id'li seed kayıtlarından sonra sequence'ları ilerlet
+-- ========================================
+SELECT setval('roles_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM roles), false);
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM users), false);
+SELECT setval('subscription_type_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM subscription_type), false);
+SELECT setval('usersubsinfo_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM user_subs_info), false);
+SELECT setval('leads_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM leads), false);
+SELECT setval('email_drafts_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM email_drafts), false);
+SELECT setval('jwt_token_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM jwt_token), false);
+SELECT setval('payments_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM payments), false);
+SELECT setval('rate_limits_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM rate_limit), false);
+SELECT setval('system_logs_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM system_logs), false);
@@ -0,0 +1,29 @@
+-- ========================================
+-- EMAIL_CAMPAIGNS: toplu gönderim ve outbox bağlantısı
+-- Mevcut veritabanlarında bir kez çalıştırılır (email_outbox.sql'den sonra).
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS email_campaigns (
+    id BIGSERIAL PRIMARY KEY,
+    campaign_id VARCHAR(36) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    name VARCHAR(255),
+    provider VARCHAR(20) NOT NULL,
+    from_email VARCHAR(255),
+    subject VARCHAR(1000),
+    status VARCHAR(20) NOT NULL,
+    messages_per_second DOUBLE PRECISION NOT NULL,
+    total_messages INTEGER NOT NULL DEFAULT 0,
+    skipped_leads INTEGER NOT NULL DEFAULT 0,
+    sent_count INTEGER,
+    failed_count INTEGER,
+    paused_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+ALTER TABLE email_outbox ADD COLUMN IF NOT EXISTS campaign_id BIGINT REFERENCES email_campaigns(id) ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_campaign ON email_outbox(campaign_id, status) WHERE campaign_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_email_campaigns_user_id ON email_campaigns(user_id, created_at);
@@ -0,0 +1,25 @@
+-- ========================================
+-- EMAIL_OUTBOX: asenkron mail gönderim kuyruğu
+-- Mevcut veritabanlarında bir kez çalıştırılır.
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    message_id VARCHAR(36) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    provider VARCHAR(20),
+    from_email VARCHAR(255),
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_email_outbox_sending ON email_outbox(locked_until) WHERE status = 'SENDING';
+CREATE INDEX IF NOT EXISTS idx_email_outbox_created_at ON email_outbox(created_at);
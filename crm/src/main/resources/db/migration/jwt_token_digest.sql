@@ -0,0 +1,30 @@
+-- ========================================
+-- JWT_TOKEN: ham token kolonlarından SHA-256 özet kolonuna geçiş
+-- Mevcut veritabanlarında bir kez çalıştırılır (PostgreSQL 11+)
+-- ========================================
+
+ALTER TABLE jwt_token ADD COLUMN IF NOT EXISTS token_digest CHAR(64);
+ALTER TABLE jwt_token ADD COLUMN IF NOT EXISTS revoked_at TIMESTAMP;
+
+-- Mevcut kayıtların özetlerini hesapla
+UPDATE jwt_token
+SET token_digest = encode(sha256(convert_to(COALESCE(access_token, refresh_token), 'UTF8')), 'hex')
+WHERE token_digest IS NULL
+  AND COALESCE(access_token, refresh_token) IS NOT NULL;
+
+-- Token değeri olmayan kayıtlar doğrulanamaz
+DELETE FROM jwt_token WHERE token_digest IS NULL;
+
+-- jti claim'i öncesi aynı saniyede üretilen tokenlar birebir aynı olabilir;
+-- her özet için iptal edilmiş kayıt öncelikli olmak üzere en yeni kayıt tutulur
+DELETE FROM jwt_token a
+USING jwt_token b
+WHERE a.token_digest = b.token_digest
+  AND (COALESCE(a.revoked, FALSE)::int, a.id) < (COALESCE(b.revoked, FALSE)::int, b.id);
+
+ALTER TABLE jwt_token ALTER COLUMN token_digest SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_jwt_token_digest ON jwt_token(token_digest);
+CREATE INDEX IF NOT EXISTS idx_jwt_token_revoked_at ON jwt_token(revoked_at) WHERE revoked = TRUE;
+
+ALTER TABLE jwt_token DROP COLUMN IF EXISTS access_token;
+ALTER TABLE jwt_token DROP COLUMN IF EXISTS refresh_token;
@@ -0,0 +1,57 @@
+-- ========================================
+-- Pooled-lo id üretimine geçiş
+-- Entity sequence'ları allocationSize ile aynı adımla ilerler; system_logs ve jwt_token
+-- IDENTITY yerine sequence kullanır. Mevcut veritabanlarında bir kez çalıştırılır (PostgreSQL 10+)
+-- ========================================
+
+-- system_logs / jwt_token: IDENTITY veya BIGSERIAL kolonunu adlandırılmış sequence'a bağla
+ALTER TABLE system_logs ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS system_logs_id_seq;
+ALTER SEQUENCE system_logs_id_seq OWNED BY system_logs.id;
+ALTER TABLE system_logs ALTER COLUMN id SET DEFAULT nextval('system_logs_id_seq');
+
+ALTER TABLE jwt_token ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS jwt_token_id_seq;
+ALTER SEQUENCE jwt_token_id_seq OWNED BY jwt_token.id;
+ALTER TABLE jwt_token ALTER COLUMN id SET DEFAULT nextval('jwt_token_id_seq');
+
+-- Adım boyutları (entity allocationSize değerleri)
+ALTER SEQUENCE IF EXISTS roles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS role_permissions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS subscription_type_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS usersubsinfo_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS leads_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS lead_email_guesses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS email_drafts_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS daily_email_limits_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS bounce_emails_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS oauth_tokens_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS jwt_token_id_seq INCREMENT BY 500;
+ALTER SEQUENCE IF EXISTS payments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS rate_limits_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS robot_instances_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS robot_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS email_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS system_logs_id_seq INCREMENT BY 500;
+
+-- pooled-lo nextval değerini bloğun alt sınırı kabul eder; sequence mevcut en büyük id'nin
+-- üstünden başlatılır ki yeni bloklar eski kayıtlarla çakışmasın
+SELECT setval('roles_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM roles), false);
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM users), false);
+SELECT setval('role_permissions_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM role_permissions), false);
+SELECT setval('subscription_type_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM subscription_type), false);
+SELECT setval('usersubsinfo_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM user_subs_info), false);
+SELECT setval('leads_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM leads), false);
+SELECT setval('lead_email_guesses_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM lead_email_guesses), false);
+SELECT setval('email_drafts_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM email_drafts), false);
+SELECT setval('daily_email_limits_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM daily_email_limits), false);
+SELECT setval('bounce_emails_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM bounce_emails), false);
+SELECT setval('oauth_tokens_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM oauth_tokens), false);
+SELECT setval('jwt_token_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM jwt_token), false);
+SELECT setval('payments_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM payments), false);
+SELECT setval('rate_limits_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM rate_limit), false);
+SELECT setval('robot_instances_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM robot_instances), false);
+SELECT setval('robot_logs_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM robot_logs), false);
+SELECT setval('email_logs_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM email_logs), false);
+SELECT setval('system_logs_id_seq', (SELECT COALESCE(MAX(id), 1000) + 1 FROM system_logs), false);
@@ -0,0 +1,31 @@
+-- ========================================
+-- SYSTEM_LOG_COUNTS: dakikalık log sayım tablosu
+-- Mevcut veritabanlarında bir kez çalıştırılır.
+-- Tablo oluşturulduktan sonra mevcut system_logs kayıtlarından geriye dönük doldurulur;
+-- uygulama açıkken çalıştırılıyorsa son birkaç dakika çift sayılmaması için
+-- backfill üst sınırı uygulamanın açıldığı andan önce tutulmalıdır.
+-- Endpoint normalizasyonu SystemLogCounts.normalizeEndpoint ile aynıdır.
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS system_log_counts (
+    bucket TIMESTAMP NOT NULL,
+    level VARCHAR(20) NOT NULL DEFAULT '',
+    type VARCHAR(50) NOT NULL DEFAULT '',
+    endpoint VARCHAR(255) NOT NULL DEFAULT '',
+    http_status INTEGER NOT NULL DEFAULT 0,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (bucket, level, type, endpoint, http_status)
+);
+
+INSERT INTO system_log_counts (bucket, level, type, endpoint, http_status, count)
+SELECT date_trunc('minute', timestamp),
+       coalesce(level, ''),
+       coalesce(type, ''),
+       left(regexp_replace(regexp_replace(split_part(coalesce(endpoint, ''), '?', 1),
+            '/[0-9]+(?=/|$)', '/{id}', 'g'), '/[0-9a-fA-F-]{32,36}(?=/|$)', '/{id}', 'g'), 255),
+       coalesce(http_status, 0),
+       COUNT(*)
+FROM system_logs
+WHERE timestamp < date_trunc('minute', CURRENT_TIMESTAMP)
+GROUP BY 1, 2, 3, 4, 5
+ON CONFLICT (bucket, level, type, endpoint, http_status) DO NOTHING;
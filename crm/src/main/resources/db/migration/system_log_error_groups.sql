@@ -0,0 +1,25 @@
+-- ========================================
+-- SYSTEM_LOG_ERROR_GROUPS: hata parmak izi ve gruplama
+-- Mevcut veritabanlarında bir kez çalıştırılır.
+-- error_fingerprint sütunu system_logs ve system_logs_archive'a aynı sırada eklenmelidir;
+-- partition drop sırasında arşive INSERT ... SELECT * ile kopyalama yapılır.
+-- ========================================
+
+ALTER TABLE system_logs ADD COLUMN IF NOT EXISTS error_fingerprint VARCHAR(64);
+ALTER TABLE system_logs_archive ADD COLUMN IF NOT EXISTS error_fingerprint VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_system_logs_error_fingerprint ON system_logs(error_fingerprint, timestamp);
+
+CREATE TABLE IF NOT EXISTS system_log_error_groups (
+    fingerprint VARCHAR(64) PRIMARY KEY,
+    exception_class VARCHAR(255),
+    class_name VARCHAR(255),
+    method_name VARCHAR(255),
+    message VARCHAR(1000),
+    stack_trace TEXT,
+    occurrences BIGINT NOT NULL,
+    first_seen TIMESTAMP NOT NULL,
+    last_seen TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_system_log_error_groups_last_seen ON system_log_error_groups(last_seen);
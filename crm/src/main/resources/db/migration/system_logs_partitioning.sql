@@ -0,0 +1,88 @@
+-- ========================================
+-- SYSTEM_LOGS: timestamp üzerinden range partition'lı tabloya geçiş
+-- Mevcut veritabanlarında bir kez, bakım penceresinde çalıştırılır (PostgreSQL 11+)
+-- pooled_id_sequences.sql'den sonra çalıştırılmalıdır.
+-- Günlük partition varsayılır (system-log.partition-interval=DAY); sonraki partition'ları
+-- uygulama açılışta ve her gece oluşturur.
+-- ========================================
+
+BEGIN;
+
+ALTER TABLE system_logs RENAME TO system_logs_legacy;
+ALTER INDEX IF EXISTS system_logs_pkey RENAME TO system_logs_legacy_pkey;
+ALTER SEQUENCE system_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE system_logs (
+    id BIGINT NOT NULL DEFAULT nextval('system_logs_id_seq'),
+    level VARCHAR(20) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    message VARCHAR(1000),
+    details VARCHAR(4000),
+    stack_trace TEXT,
+    class_name VARCHAR(255),
+    method_name VARCHAR(255),
+    user_id VARCHAR(50),
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    execution_time BIGINT,
+    request_id VARCHAR(100),
+    endpoint VARCHAR(500),
+    http_method VARCHAR(10),
+    http_status INTEGER,
+    request_body TEXT,
+    response_body TEXT,
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE system_logs_default PARTITION OF system_logs DEFAULT;
+
+CREATE TABLE IF NOT EXISTS system_logs_archive (LIKE system_logs);
+ALTER TABLE system_logs_archive ADD PRIMARY KEY (id);
+CREATE INDEX IF NOT EXISTS idx_system_logs_archive_timestamp ON system_logs_archive(timestamp);
+CREATE INDEX IF NOT EXISTS idx_system_logs_archive_level_timestamp ON system_logs_archive(level, timestamp);
+
+-- Son 1 ayı ve önümüzdeki 7 günü kapsayan günlük partition'lar
+DO $$
+DECLARE
+    d DATE;
+BEGIN
+    FOR d IN SELECT generate_series(CURRENT_DATE - INTERVAL '1 month', CURRENT_DATE + INTERVAL '7 days', INTERVAL '1 day')::date
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF system_logs FOR VALUES FROM (%L) TO (%L)',
+                       'system_logs_p' || to_char(d, 'YYYYMMDD'), d::timestamp, (d + 1)::timestamp);
+    END LOOP;
+END $$;
+
+-- Saklama süresini aşmış hata logları arşive, geri kalan son 1 ay yeni tabloya
+INSERT INTO system_logs_archive
+SELECT id, level, type, message, details, stack_trace, class_name, method_name, user_id, ip_address,
+       user_agent, timestamp, execution_time, request_id, endpoint, http_method, http_status, request_body, response_body
+FROM system_logs_legacy
+WHERE timestamp < CURRENT_DATE - INTERVAL '1 month'
+  AND level IN ('ERROR', 'FATAL');
+
+INSERT INTO system_logs
+SELECT id, level, type, message, details, stack_trace, class_name, method_name, user_id, ip_address,
+       user_agent, COALESCE(timestamp, CURRENT_TIMESTAMP), execution_time, request_id, endpoint, http_method,
+       http_status, request_body, response_body
+FROM system_logs_legacy
+WHERE timestamp >= CURRENT_DATE - INTERVAL '1 month' OR timestamp IS NULL;
+
+DROP TABLE system_logs_legacy;
+ALTER SEQUENCE system_logs_id_seq OWNED BY system_logs.id;
+
+-- Index'ler parent üzerinde tanımlanır, tüm partition'lara uygulanır
+CREATE INDEX idx_system_logs_timestamp ON system_logs(timestamp);
+CREATE INDEX idx_system_logs_level ON system_logs(level);
+CREATE INDEX idx_system_logs_type ON system_logs(type);
+CREATE INDEX idx_system_logs_user_id ON system_logs(user_id);
+CREATE INDEX idx_system_logs_ip_address ON system_logs(ip_address);
+CREATE INDEX idx_system_logs_level_timestamp ON system_logs(level, timestamp);
+CREATE INDEX idx_system_logs_type_timestamp ON system_logs(type, timestamp);
+CREATE INDEX idx_system_logs_user_timestamp ON system_logs(user_id, timestamp);
+CREATE INDEX idx_system_logs_http_status ON system_logs(http_status);
+CREATE INDEX idx_system_logs_endpoint ON system_logs(endpoint);
+CREATE INDEX idx_system_logs_execution_time ON system_logs(execution_time);
+
+COMMIT;
@@ -0,0 +1,10 @@
+-- ========================================
+-- SYSTEM_LOGS: full-text arama index'i
+-- Mevcut veritabanlarında bir kez çalıştırılır (PostgreSQL 11+)
+-- İfade SystemLogRepository.SEARCH_VECTOR ile birebir aynı olmalıdır; aksi halde planner index'i kullanmaz.
+-- Partition'lı tabloda parent üzerindeki index tüm partition'lara (ve sonradan açılanlara) uygulanır.
+-- ========================================
+
+CREATE INDEX IF NOT EXISTS idx_system_logs_search ON system_logs USING GIN (
+    to_tsvector('simple', coalesce(message, '') || ' ' || coalesce(details, '') || ' ' || coalesce(class_name, ''))
+);
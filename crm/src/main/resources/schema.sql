@@ -3,7 +3,12 @@
 -- ========================================
 
 -- Drop existing tables if they exist (for development)
+DROP TABLE IF EXISTS system_log_error_groups CASCADE;
+DROP TABLE IF EXISTS system_log_counts CASCADE;
+DROP TABLE IF EXISTS system_logs_archive CASCADE;
 DROP TABLE IF EXISTS system_logs CASCADE;
+DROP TABLE IF EXISTS email_outbox CASCADE;
+DROP TABLE IF EXISTS email_campaigns CASCADE;
 DROP TABLE IF EXISTS email_log CASCADE;
 DROP TABLE IF EXISTS robot_log CASCADE;
 DROP TABLE IF EXISTS robot_instance CASCADE;
@@ -23,11 +28,37 @@ DROP TABLE IF EXISTS permissions CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS roles CASCADE;
 
+-- ========================================
+-- ID SEQUENCES
+-- Entity'ler pooled-lo optimizer kullanır: her nextval allocationSize'lık bir id bloğu ayırır.
+-- INCREMENT BY değeri entity'deki allocationSize ile aynı olmalıdır.
+-- ========================================
+DROP SEQUENCE IF EXISTS roles_id_seq;
+DROP SEQUENCE IF EXISTS users_id_seq;
+DROP SEQUENCE IF EXISTS subscription_type_id_seq;
+DROP SEQUENCE IF EXISTS usersubsinfo_id_seq;
+DROP SEQUENCE IF EXISTS leads_id_seq;
+DROP SEQUENCE IF EXISTS email_drafts_id_seq;
+DROP SEQUENCE IF EXISTS jwt_token_id_seq;
+DROP SEQUENCE IF EXISTS payments_id_seq;
+DROP SEQUENCE IF EXISTS rate_limits_id_seq;
+DROP SEQUENCE IF EXISTS system_logs_id_seq;
+CREATE SEQUENCE roles_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE users_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE subscription_type_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE usersubsinfo_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE leads_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE email_drafts_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE jwt_token_id_seq START WITH 1001 INCREMENT BY 500;
+CREATE SEQUENCE payments_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE rate_limits_id_seq START WITH 1001 INCREMENT BY 50;
+CREATE SEQUENCE system_logs_id_seq START WITH 1001 INCREMENT BY 500;
+
 -- ========================================
 -- ROLES
 -- ========================================
 CREATE TABLE roles (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('roles_id_seq'),
     name VARCHAR(50) NOT NULL UNIQUE,
     description VARCHAR(255),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -39,7 +70,7 @@ CREATE TABLE roles (
 -- USERS
 -- ========================================
 CREATE TABLE users (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('users_id_seq'),
     name VARCHAR(100) NOT NULL,
     surname VARCHAR(100) NOT NULL,
     email VARCHAR(255) NOT NULL UNIQUE,
@@ -79,7 +110,7 @@ CREATE TABLE role_permission (
 -- SUBSCRIPTION_TYPE
 -- ========================================
 CREATE TABLE subscription_type (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('subscription_type_id_seq'),
     name VARCHAR(100) NOT NULL UNIQUE,
     description TEXT,
     price DECIMAL(10,2) NOT NULL,
@@ -95,7 +126,7 @@ CREATE TABLE subscription_type (
 -- USER_SUBS_INFO
 -- ========================================
 CREATE TABLE user_subs_info (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('usersubsinfo_id_seq'),
     users_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
     subscription_type_id BIGINT REFERENCES subscription_type(id),
     subs_start_date TIMESTAMP NOT NULL,
@@ -109,7 +140,7 @@ CREATE TABLE user_subs_info (
 -- LEADS
 -- ========================================
 CREATE TABLE leads (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('leads_id_seq'),
     users_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     company_name VARCHAR(255) NOT NULL,
     full_name VARCHAR(255) NOT NULL,
@@ -138,7 +169,7 @@ CREATE TABLE lead_email_guess (
 -- EMAIL_DRAFTS
 -- ========================================
 CREATE TABLE email_drafts (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('email_drafts_id_seq'),
     users_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
     subject VARCHAR(500) NOT NULL,
     body TEXT NOT NULL,
@@ -196,14 +227,14 @@ CREATE TABLE oauth_token (
 -- JWT_TOKEN
 -- ========================================
 CREATE TABLE jwt_token (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('jwt_token_id_seq'),
     user_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
     token_type VARCHAR(50) NOT NULL,
-    access_token TEXT,
-    refresh_token TEXT,
+    token_digest CHAR(64) NOT NULL,
     issued_at TIMESTAMP NOT NULL,
     expires_at TIMESTAMP NOT NULL,
     revoked BOOLEAN DEFAULT FALSE,
+    revoked_at TIMESTAMP,
     expired BOOLEAN DEFAULT FALSE
 );
 
@@ -211,7 +242,7 @@ CREATE TABLE jwt_token (
 -- PAYMENTS
 -- ========================================
 CREATE TABLE payments (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('payments_id_seq'),
     users_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
     subscription_type_id BIGINT REFERENCES subscription_type(id),
     amount DECIMAL(10,2) NOT NULL,
@@ -227,7 +258,7 @@ CREATE TABLE payments (
 -- RATE_LIMIT
 -- ========================================
 CREATE TABLE rate_limit (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('rate_limits_id_seq'),
     ip_address VARCHAR(45) NOT NULL,
     endpoint VARCHAR(500) NOT NULL,
     request_count INTEGER DEFAULT 1,
@@ -282,11 +313,61 @@ CREATE TABLE email_log (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- ========================================
+-- EMAIL_CAMPAIGNS
+-- Toplu gönderimler; her alıcı email_outbox'ta campaign_id ile bağlı ayrı bir mesajdır.
+-- İlerleme outbox durumlarından hesaplanır, sent_count/failed_count kampanya bitince yazılır.
+-- ========================================
+CREATE TABLE email_campaigns (
+    id BIGSERIAL PRIMARY KEY,
+    campaign_id VARCHAR(36) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    name VARCHAR(255),
+    provider VARCHAR(20) NOT NULL,
+    from_email VARCHAR(255),
+    subject VARCHAR(1000),
+    status VARCHAR(20) NOT NULL,
+    messages_per_second DOUBLE PRECISION NOT NULL,
+    total_messages INTEGER NOT NULL DEFAULT 0,
+    skipped_leads INTEGER NOT NULL DEFAULT 0,
+    sent_count INTEGER,
+    failed_count INTEGER,
+    paused_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+-- ========================================
+-- EMAIL_OUTBOX
+-- Gönderilecek mailler; EmailOutboxWorker'lar FOR UPDATE SKIP LOCKED ile sahiplenir.
+-- message_id istemciye dönen public id'dir, payload EmailSendRequestDto JSON'ıdır.
+-- ========================================
+CREATE TABLE email_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    message_id VARCHAR(36) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    provider VARCHAR(20),
+    from_email VARCHAR(255),
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP,
+    campaign_id BIGINT REFERENCES email_campaigns(id) ON DELETE SET NULL
+);
+
 -- ========================================
 -- SYSTEM_LOGS
+-- timestamp üzerinden range partition'lı; günlük/haftalık partition'lar uygulama tarafından
+-- (SystemLogPartitionManager) önceden oluşturulur ve saklama süresi dolunca drop edilir
 -- ========================================
 CREATE TABLE system_logs (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT NOT NULL DEFAULT nextval('system_logs_id_seq'),
     level VARCHAR(20) NOT NULL,
     type VARCHAR(50) NOT NULL,
     message VARCHAR(1000),
@@ -297,14 +378,48 @@ CREATE TABLE system_logs (
     user_id VARCHAR(50),
     ip_address VARCHAR(45),
     user_agent VARCHAR(500),
-    timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    timestamp TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     execution_time BIGINT,
     request_id VARCHAR(100),
     endpoint VARCHAR(500),
     http_method VARCHAR(10),
     http_status INTEGER,
     request_body TEXT,
-    response_body TEXT
+    response_body TEXT,
+    error_fingerprint VARCHAR(64),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Henüz partition'ı oluşturulmamış aralıklar için; kayıtlar partition oluşturulurken taşınır
+CREATE TABLE system_logs_default PARTITION OF system_logs DEFAULT;
+
+-- Partition drop öncesinde ERROR/FATAL kayıtların taşındığı uzun ömürlü arşiv
+CREATE TABLE system_logs_archive (LIKE system_logs);
+ALTER TABLE system_logs_archive ADD PRIMARY KEY (id);
+
+-- Dakikalık log sayıları (SystemLogCounts); dashboard ve istatistik sorguları buradan okur.
+-- Boş level/type/endpoint '' ve bilinmeyen http_status 0 olarak tutulur, böylece anahtar NULL içermez.
+CREATE TABLE system_log_counts (
+    bucket TIMESTAMP NOT NULL,
+    level VARCHAR(20) NOT NULL DEFAULT '',
+    type VARCHAR(50) NOT NULL DEFAULT '',
+    endpoint VARCHAR(255) NOT NULL DEFAULT '',
+    http_status INTEGER NOT NULL DEFAULT 0,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (bucket, level, type, endpoint, http_status)
+);
+
+-- Parmak izine göre gruplanmış hatalar (SystemLogErrorGroups); grup başına tek kanonik stack trace
+CREATE TABLE system_log_error_groups (
+    fingerprint VARCHAR(64) PRIMARY KEY,
+    exception_class VARCHAR(255),
+    class_name VARCHAR(255),
+    method_name VARCHAR(255),
+    message VARCHAR(1000),
+    stack_trace TEXT,
+    occurrences BIGINT NOT NULL,
+    first_seen TIMESTAMP NOT NULL,
+    last_seen TIMESTAMP NOT NULL
 );
 
 -- ========================================
@@ -323,6 +438,16 @@ CREATE INDEX idx_system_logs_user_timestamp ON system_logs(user_id, timestamp);
 CREATE INDEX idx_system_logs_http_status ON system_logs(http_status);
 CREATE INDEX idx_system_logs_endpoint ON system_logs(endpoint);
 CREATE INDEX idx_system_logs_execution_time ON system_logs(execution_time);
+CREATE INDEX idx_system_logs_error_fingerprint ON system_logs(error_fingerprint, timestamp);
+-- Full-text arama (message + details + class_name); ifade SystemLogRepository.SEARCH_VECTOR ile aynı olmalıdır
+CREATE INDEX idx_system_logs_search ON system_logs USING GIN (
+    to_tsvector('simple', coalesce(message, '') || ' ' || coalesce(details, '') || ' ' || coalesce(class_name, ''))
+);
+
+-- System logs archive indexes
+CREATE INDEX idx_system_logs_archive_timestamp ON system_logs_archive(timestamp);
+CREATE INDEX idx_system_logs_archive_level_timestamp ON system_logs_archive(level, timestamp);
+CREATE INDEX idx_system_log_error_groups_last_seen ON system_log_error_groups(last_seen);
 
 -- Email log indexes
 CREATE INDEX idx_email_log_users_id ON email_log(users_id);
@@ -330,6 +455,15 @@ CREATE INDEX idx_email_log_operation ON email_log(operation);
 CREATE INDEX idx_email_log_timestamp ON email_log(created_at);
 CREATE INDEX idx_email_log_status ON email_log(status);
 
+-- Email outbox indexes (claim sorgusu yalnızca bekleyen ve kilidi dolan kayıtları tarar)
+CREATE INDEX idx_email_outbox_pending ON email_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_email_outbox_sending ON email_outbox(locked_until) WHERE status = 'SENDING';
+CREATE INDEX idx_email_outbox_created_at ON email_outbox(created_at);
+CREATE INDEX idx_email_outbox_campaign ON email_outbox(campaign_id, status) WHERE campaign_id IS NOT NULL;
+
+-- Email campaign indexes
+CREATE INDEX idx_email_campaigns_user_id ON email_campaigns(user_id, created_at);
+
 -- Robot log indexes
 CREATE INDEX idx_robot_log_instance_id ON robot_log(robot_instance_id);
 CREATE INDEX idx_robot_log_level ON robot_log(level);
@@ -356,9 +490,11 @@ CREATE INDEX idx_oauth_token_provider ON oauth_token(provider);
 CREATE INDEX idx_oauth_token_active ON oauth_token(is_active);
 
 -- JWT token indexes
+CREATE UNIQUE INDEX uk_jwt_token_digest ON jwt_token(token_digest);
 CREATE INDEX idx_jwt_token_user_id ON jwt_token(user_id);
 CREATE INDEX idx_jwt_token_type ON jwt_token(token_type);
 CREATE INDEX idx_jwt_token_expires ON jwt_token(expires_at);
+CREATE INDEX idx_jwt_token_revoked_at ON jwt_token(revoked_at) WHERE revoked = TRUE;
 
 -- Payment indexes
 CREATE INDEX idx_payments_users_id ON payments(users_id);